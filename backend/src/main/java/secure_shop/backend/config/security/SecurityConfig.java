@@ -121,6 +121,7 @@ public class SecurityConfig {
                                 "/api/products",
                                 "/api/products/**",
                                 "/api/products/summary/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/products/batch").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PATCH, "/api/products/**").hasRole("ADMIN")
@@ -142,6 +143,7 @@ public class SecurityConfig {
                         // Admin-only operations
                         .requestMatchers(HttpMethod.GET, "/api/orders").hasRole("ADMIN") // list all orders (paged)
                         .requestMatchers("/api/orders/confirm/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/orders/batch/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/orders/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PATCH, "/api/orders/confirm/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/orders/**").hasRole("ADMIN")
@@ -6,8 +6,12 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import secure_shop.backend.dto.OutboxStatsDTO;
 import secure_shop.backend.dto.analytics.AnalyticsSummaryDTO;
+import secure_shop.backend.dto.discount.DiscountCodeIndexStatsDTO;
 import secure_shop.backend.service.AnalyticsService;
+import secure_shop.backend.service.discount.DiscountCodeIndex;
+import secure_shop.backend.service.outbox.OutboxDispatcher;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -19,6 +23,8 @@ import java.time.temporal.ChronoUnit;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final OutboxDispatcher outboxDispatcher;
+    private final DiscountCodeIndex discountCodeIndex;
 
     @GetMapping("/summary")
     @PreAuthorize("hasRole('ADMIN')")
@@ -46,4 +52,16 @@ public class AnalyticsController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    @GetMapping("/outbox")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OutboxStatsDTO> getOutboxStats() {
+        return ResponseEntity.ok(outboxDispatcher.getStats());
+    }
+
+    @GetMapping("/discount-codes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DiscountCodeIndexStatsDTO> getDiscountCodeIndexStats() {
+        return ResponseEntity.ok(discountCodeIndex.getStats());
+    }
 }
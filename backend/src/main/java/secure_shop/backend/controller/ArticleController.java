@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import secure_shop.backend.config.security.CustomUserDetails;
 import secure_shop.backend.dto.article.ArticleDTO;
 import secure_shop.backend.dto.article.request.CreateArticleRequest;
@@ -14,6 +15,8 @@ import secure_shop.backend.dto.article.request.UpdateArticleRequest;
 import secure_shop.backend.entities.User;
 import secure_shop.backend.repositories.UserRepository;
 import secure_shop.backend.service.ArticleService;
+import secure_shop.backend.service.cache.CatalogVersionService;
+import secure_shop.backend.utils.ConditionalGet;
 
 import java.util.UUID;
 
@@ -24,17 +27,21 @@ public class ArticleController {
 
     private final ArticleService articleService;
     private final UserRepository userRepository;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping
     public ResponseEntity<Page<ArticleDTO>> getArticles(
             Pageable pageable,
-            @RequestParam(required = false) Boolean active) {
-        return ResponseEntity.ok(articleService.getAllArticles(pageable, active));
+            @RequestParam(required = false) Boolean active,
+            WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersionService.articlesTag(),
+                () -> articleService.getAllArticles(pageable, active));
     }
 
     @GetMapping("/{slug}")
-    public ResponseEntity<ArticleDTO> getArticle(@PathVariable String slug) {
-        return ResponseEntity.ok(articleService.getArticleBySlug(slug));
+    public ResponseEntity<ArticleDTO> getArticle(@PathVariable String slug, WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersionService.articlesTag(),
+                () -> articleService.getArticleBySlug(slug));
     }
 
     @PostMapping
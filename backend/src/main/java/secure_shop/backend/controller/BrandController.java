@@ -6,8 +6,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import secure_shop.backend.dto.product.BrandDTO;
 import secure_shop.backend.service.BrandService;
+import secure_shop.backend.service.cache.CatalogVersionService;
+import secure_shop.backend.utils.ConditionalGet;
 
 @RestController
 @RequestMapping("/api/brands")
@@ -15,15 +18,18 @@ import secure_shop.backend.service.BrandService;
 public class BrandController {
 
     private final BrandService brandService;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping
-    public ResponseEntity<Page<BrandDTO>> getBrands(Pageable pageable) {
-        return ResponseEntity.ok(brandService.getAllBrands(pageable));
+    public ResponseEntity<Page<BrandDTO>> getBrands(Pageable pageable, WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersionService.brandsTag(),
+                () -> brandService.getAllBrands(pageable));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<BrandDTO> getBrand(@PathVariable Long id) {
-        return ResponseEntity.ok(brandService.getBrandById(id));
+    public ResponseEntity<BrandDTO> getBrand(@PathVariable Long id, WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersionService.brandsTag(),
+                () -> brandService.getBrandById(id));
     }
 
     @PostMapping
@@ -6,9 +6,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import secure_shop.backend.dto.product.CategoryDTO;
 import secure_shop.backend.dto.product.CategorySummaryDTO;
 import secure_shop.backend.service.CategoryService;
+import secure_shop.backend.service.cache.CatalogVersionService;
+import secure_shop.backend.utils.ConditionalGet;
 
 import java.util.List;
 
@@ -18,19 +21,23 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersionService catalogVersionService;
 
     // ✅ Public endpoint
     @GetMapping("/active")
-    public ResponseEntity<List<CategorySummaryDTO>> getAllActive() {
-        return ResponseEntity.ok(categoryService.getAllActive());
+    public ResponseEntity<List<CategorySummaryDTO>> getAllActive(WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersionService.categoriesTag(),
+                categoryService::getAllActive);
     }
 
     // ✅ Public endpoint with pagination
     @GetMapping
     public ResponseEntity<Page<CategoryDTO>> getCategories(
             Pageable pageable,
-            @RequestParam(required = false) Boolean active) {
-        return ResponseEntity.ok(categoryService.getAllCategories(pageable, active));
+            @RequestParam(required = false) Boolean active,
+            WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersionService.categoriesTag(),
+                () -> categoryService.getAllCategories(pageable, active));
     }
 
     // ✅ Admin endpoints
@@ -1,15 +1,21 @@
 package secure_shop.backend.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import secure_shop.backend.dto.discount.DiscountDTO;
 import secure_shop.backend.dto.discount.DiscountDetailsDTO;
+import secure_shop.backend.dto.discount.request.DiscountCodeGenerationRequest;
+import secure_shop.backend.service.DiscountCodeGenerationService;
 import secure_shop.backend.service.DiscountService;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,6 +25,7 @@ import java.util.UUID;
 public class DiscountController {
 
     private final DiscountService discountService;
+    private final DiscountCodeGenerationService discountCodeGenerationService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -48,6 +55,16 @@ public class DiscountController {
         return ResponseEntity.ok(discountService.createDiscount(dto));
     }
 
+    // Sinh hàng loạt mã dùng một lần, trả về danh sách mã dạng CSV theo từng lô đã lưu
+    @PostMapping("/generate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void generateCodes(@Valid @RequestBody DiscountCodeGenerationRequest request,
+                              HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"discount-codes.csv\"");
+        discountCodeGenerationService.generateCodes(request, response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<DiscountDTO> updateDiscount(@PathVariable UUID id, @RequestBody DiscountDTO dto) {
@@ -5,8 +5,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import secure_shop.backend.dto.product.FlashSaleStatusDTO;
 import secure_shop.backend.dto.product.InventoryDTO;
 import secure_shop.backend.service.InventoryService;
+import secure_shop.backend.service.inventory.FlashSaleLedger;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,6 +19,7 @@ import java.util.UUID;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final FlashSaleLedger flashSaleLedger;
 
     @GetMapping
     public ResponseEntity<List<InventoryDTO>> getAllInventories() {
@@ -49,4 +52,24 @@ public class InventoryController {
         InventoryDTO updated = inventoryService.updateStock(productId, quantityChange);
         return ResponseEntity.ok(updated);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/flash-sale")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<FlashSaleStatusDTO>> getFlashSaleStatus() {
+        return ResponseEntity.ok(flashSaleLedger.getStatus());
+    }
+
+    @PostMapping("/flash-sale/{productId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> enableFlashSale(@PathVariable UUID productId) {
+        flashSaleLedger.enable(productId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/flash-sale/{productId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> disableFlashSale(@PathVariable UUID productId) {
+        flashSaleLedger.disable(productId);
+        return ResponseEntity.noContent().build();
+    }
+}
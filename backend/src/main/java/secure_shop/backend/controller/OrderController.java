@@ -1,23 +1,37 @@
 package secure_shop.backend.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import secure_shop.backend.config.security.CustomUserDetails;
+import secure_shop.backend.dto.CursorPage;
+import secure_shop.backend.dto.order.OrderBatchResultDTO;
 import secure_shop.backend.dto.order.OrderDTO;
 import secure_shop.backend.dto.order.OrderDetailsDTO;
+import secure_shop.backend.dto.order.OrderHistoryItemDTO;
 import secure_shop.backend.dto.order.OrderItemDTO;
 import secure_shop.backend.dto.order.OrderSummaryDTO;
+import secure_shop.backend.dto.order.request.OrderBatchRequest;
 import secure_shop.backend.dto.order.request.OrderCreateRequest;
 import secure_shop.backend.dto.order.request.OrderStatusChangeRequest;
+import secure_shop.backend.enums.ExportFormat;
+import secure_shop.backend.enums.OrderStatus;
+import secure_shop.backend.service.OrderBatchService;
+import secure_shop.backend.service.OrderExportService;
 import secure_shop.backend.service.OrderService;
 import secure_shop.backend.service.OrderItemService;
+import secure_shop.backend.service.idempotency.IdempotencyService;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +42,9 @@ public class OrderController {
 
     private final OrderService orderService;
     private final OrderItemService orderItemService;
+    private final IdempotencyService idempotencyService;
+    private final OrderExportService orderExportService;
+    private final OrderBatchService orderBatchService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -35,6 +52,21 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersPage(pageable));
     }
 
+    // Xuất đơn hàng dạng CSV hoặc JSON lines, ghi thẳng ra response theo từng dòng
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        String extension = format == ExportFormat.CSV ? "csv" : "jsonl";
+        response.setContentType(format == ExportFormat.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + extension + "\"");
+        orderExportService.exportOrders(from, to, status, format, response.getOutputStream());
+    }
+
     @GetMapping("/my-orders")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<OrderSummaryDTO>> getMyOrders(@AuthenticationPrincipal CustomUserDetails userDetails) {
@@ -42,6 +74,19 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByUserId(userId));
     }
 
+    // Lịch sử đơn theo con trỏ: ?cursor= (rỗng ở trang đầu) &limit=
+    // Kích thước phản hồi cố định, không phụ thuộc tổng số đơn của khách
+    @GetMapping(value = "/my-orders", params = "cursor")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CursorPage<OrderHistoryItemDTO>> getMyOrderHistory(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        UUID userId = userDetails.getUser().getId();
+        int pageSize = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(orderService.getOrderHistory(userId, cursor, pageSize));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("@securityService.canAccessOrder(#id, authentication)")
     public ResponseEntity<OrderDetailsDTO> getOrderById(@PathVariable UUID id) {
@@ -57,9 +102,12 @@ public class OrderController {
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderCreateRequest request,
-                                                @AuthenticationPrincipal CustomUserDetails userDetails) {
+                                                @AuthenticationPrincipal CustomUserDetails userDetails,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         UUID userId = userDetails.getUser().getId();
-        return ResponseEntity.ok(orderService.createOrder(request, userId));
+        // Client gửi lại cùng Idempotency-Key khi retry sẽ nhận lại đúng đơn đã tạo
+        return ResponseEntity.ok(idempotencyService.execute("order:" + userId, idempotencyKey, request,
+                () -> orderService.createOrder(request, userId)));
     }
 
     @PutMapping("/{id}")
@@ -101,4 +149,22 @@ public class OrderController {
             @Valid @RequestBody OrderStatusChangeRequest request) {
         return ResponseEntity.ok(orderService.changeOrderStatus(id, request.getStatus()));
     }
+
+    @PostMapping("/batch/confirm")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderBatchResultDTO> confirmOrders(@Valid @RequestBody OrderBatchRequest request) {
+        return ResponseEntity.ok(orderBatchService.confirmOrders(request.getOrderIds()));
+    }
+
+    @PostMapping("/batch/cancel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderBatchResultDTO> cancelOrders(@Valid @RequestBody OrderBatchRequest request) {
+        return ResponseEntity.ok(orderBatchService.cancelOrders(request.getOrderIds()));
+    }
+
+    @PostMapping("/batch/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderBatchResultDTO> changeOrdersStatus(@Valid @RequestBody OrderBatchRequest request) {
+        return ResponseEntity.ok(orderBatchService.changeOrdersStatus(request.getOrderIds(), request.getStatus()));
+    }
 }
@@ -1,19 +1,38 @@
 package secure_shop.backend.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import secure_shop.backend.dto.CacheStatsDTO;
+import secure_shop.backend.dto.CursorPage;
+import secure_shop.backend.dto.product.ProductBatchDTO;
+import secure_shop.backend.dto.product.ProductBulkUpdateResultDTO;
 import secure_shop.backend.dto.product.ProductDTO;
 import secure_shop.backend.dto.product.ProductDetailsDTO;
+import secure_shop.backend.dto.product.ProductFacetsDTO;
+import secure_shop.backend.dto.product.ProductFilter;
+import secure_shop.backend.dto.product.ProductImportResultDTO;
 import secure_shop.backend.dto.product.ProductSummaryDTO;
+import secure_shop.backend.dto.product.SuggestionsDTO;
+import secure_shop.backend.dto.product.request.ProductBatchRequest;
+import secure_shop.backend.dto.product.request.ProductBulkUpdateRequest;
+import secure_shop.backend.enums.ImportFormat;
+import secure_shop.backend.enums.ProductCursorSort;
+import secure_shop.backend.service.ProductImportService;
 import secure_shop.backend.service.ProductService;
+import secure_shop.backend.service.cache.CatalogVersionService;
+import secure_shop.backend.utils.ConditionalGet;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.UUID;
 
@@ -23,6 +42,8 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping
     public ResponseEntity<Page<ProductSummaryDTO>> getProducts(
@@ -41,9 +62,70 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    // Chế độ cuộn vô hạn cho storefront: ?cursor= (rỗng ở trang đầu) &limit=
+    // Không đếm tổng, tìm theo khóa (createdAt, id) hoặc (price, id)
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<ProductSummaryDTO>> getProductsByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "12") int limit,
+            @RequestParam(required = false) ProductCursorSort sort,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long brandId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String keyword) {
+
+        ProductFilter filter = ProductFilter.builder()
+                .active(active)
+                .categoryId(categoryId)
+                .brandId(brandId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .keyword(keyword)
+                .build();
+
+        int pageSize = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(productService.scrollProducts(filter, sort, cursor, pageSize));
+    }
+
+    // Số lượng theo thương hiệu / danh mục / khoảng giá / tồn kho cho bộ lọc hiện tại
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsDTO> getProductFacets(
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long brandId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String keyword) {
+
+        ProductFilter filter = ProductFilter.builder()
+                .active(active)
+                .categoryId(categoryId)
+                .brandId(brandId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .keyword(keyword)
+                .build();
+
+        return ResponseEntity.ok(productService.getProductFacets(filter));
+    }
+
+    // Gợi ý cho ô tìm kiếm theo tiền tố, không truy vấn DB
+    @GetMapping("/suggest")
+    public ResponseEntity<SuggestionsDTO> suggest(@RequestParam String q,
+                                                  @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productService.suggest(q, limit));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDetailsDTO> getProductById(@PathVariable UUID id) {
-        return ResponseEntity.ok(productService.getProductDetailsById(id));
+    public ResponseEntity<ProductDetailsDTO> getProductById(@PathVariable UUID id, WebRequest request) {
+        return ConditionalGet.respond(request, catalogVersionService.productDetailsTag(id),
+                () -> productService.getProductDetailsById(id));
     }
 
     @GetMapping("/summary/{id}")
@@ -51,6 +133,12 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductById(id));
     }
 
+    // Lấy nhiều sản phẩm trong một lần gọi (giỏ hàng, so sánh); dùng POST vì danh sách ID có thể dài
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchDTO> getProductsBatch(@Valid @RequestBody ProductBatchRequest request) {
+        return ResponseEntity.ok(productService.getProductsByIds(request.getIds()));
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody ProductDetailsDTO dto) {
@@ -58,6 +146,25 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
 
+    // Nhập hàng loạt: body là CSV (có dòng tiêu đề) hoặc JSON lines, đọc dạng luồng
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportResultDTO> importProducts(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        ImportFormat format = contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? ImportFormat.CSV
+                : ImportFormat.NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), format));
+    }
+
+    // Cập nhật giá/tồn kho hàng loạt theo SKU (không đụng tới ảnh sản phẩm)
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductBulkUpdateResultDTO> bulkUpdatePricesAndStock(
+            @Valid @RequestBody ProductBulkUpdateRequest request) {
+        return ResponseEntity.ok(productService.bulkUpdatePricesAndStock(request.getItems()));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductDTO> updateProduct(@PathVariable UUID id,@Valid @RequestBody ProductDetailsDTO dto) {
@@ -71,6 +178,12 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStatsDTO> getProductDetailsCacheStats() {
+        return ResponseEntity.ok(productService.getProductDetailsCacheStats());
+    }
+
     @GetMapping("/count")
     public ResponseEntity<Integer> getTotalProductsCount() {
         Integer count = productService.getTotalProductsCount();
@@ -0,0 +1,24 @@
+package secure_shop.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO implements Serializable {
+    private String name;
+    private int localSize;
+    private int localMaxSize;
+    private long localHits;
+    private long remoteHits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private double hitRatio;
+}
@@ -0,0 +1,23 @@
+package secure_shop.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Trang kết quả theo con trỏ (keyset pagination): không có tổng số bản ghi,
+ * client gửi lại nextCursor để lấy trang tiếp theo.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPage<T> implements Serializable {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+}
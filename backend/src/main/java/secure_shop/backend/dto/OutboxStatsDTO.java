@@ -0,0 +1,26 @@
+package secure_shop.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxStatsDTO implements Serializable {
+    // Số liệu backlog lấy từ bảng outbox_events (toàn hệ thống)
+    private long pending;
+    private long failed;
+    private long oldestPendingAgeSeconds;
+
+    // Bộ đếm của node hiện tại kể từ khi khởi động
+    private long dispatched;
+    private long retried;
+    private long givenUp;
+    private int activeWorkers;
+    private int queuedTasks;
+}
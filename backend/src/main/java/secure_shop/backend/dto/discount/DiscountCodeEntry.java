@@ -0,0 +1,24 @@
+package secure_shop.backend.dto.discount;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Các trường của mã giảm giá dùng cho chỉ mục mã trong bộ nhớ.
+ */
+public record DiscountCodeEntry(UUID id, String code, Boolean active, Instant startAt, Instant endAt,
+                                Integer maxUsage, Instant updatedAt) {
+
+    /**
+     * Mã sinh hàng loạt (maxUsage = 1): chỉ giữ trong Bloom filter, tra cứu bằng DB.
+     */
+    public boolean isSingleUse() {
+        return maxUsage != null && maxUsage == 1;
+    }
+
+    public boolean isValidAt(Instant now) {
+        return !Boolean.FALSE.equals(active)
+                && (startAt == null || !startAt.isAfter(now))
+                && (endAt == null || endAt.isAfter(now));
+    }
+}
@@ -0,0 +1,36 @@
+package secure_shop.backend.dto.discount;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscountCodeIndexStatsDTO implements Serializable {
+    private boolean ready;
+    private int knownCodes;
+    private int activeCodes;
+    private long bloomBits;
+    private Instant builtAt;
+
+    // Bộ đếm của node hiện tại kể từ khi khởi động
+    private long lookups;
+    // Bị Bloom filter loại, không truy vấn DB
+    private long rejected;
+    // Tìm thấy trong chỉ mục mã đang hiệu lực
+    private long hits;
+    // Qua được Bloom filter nhưng không có trong chỉ mục, phải hỏi DB
+    private long misses;
+    // Hỏi DB xong mới biết mã không tồn tại
+    private long falsePositives;
+
+    private double rejectRate;
+    private double hitRate;
+    private double falsePositiveRate;
+}
@@ -0,0 +1,61 @@
+package secure_shop.backend.dto.discount.request;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import secure_shop.backend.enums.DiscountType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Sinh hàng loạt mã giảm giá dùng một lần cho một chiến dịch.
+ * Mã có dạng prefix + length ký tự lấy từ alphabet.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DiscountCodeGenerationRequest {
+
+    @NotNull(message = "Số lượng mã không được để trống")
+    @Min(value = 1, message = "Số lượng mã ít nhất là 1")
+    @Max(value = 500000, message = "Mỗi lần sinh tối đa 500000 mã")
+    private Integer count;
+
+    @Pattern(regexp = "^[A-Z0-9_-]{0,20}$", message = "Tiền tố chỉ gồm chữ in hoa, số, '-' hoặc '_' và tối đa 20 ký tự")
+    private String prefix;
+
+    // Bỏ các ký tự dễ nhầm (0/O, 1/I/L)
+    @Builder.Default
+    @Pattern(regexp = "^[A-Z0-9]{2,36}$", message = "Bảng chữ cái chỉ gồm chữ in hoa và số (2-36 ký tự)")
+    private String alphabet = "ABCDEFGHJKMNPQRSTUVWXYZ23456789";
+
+    @Builder.Default
+    @Min(value = 6, message = "Độ dài mã ít nhất là 6")
+    @Max(value = 20, message = "Độ dài mã tối đa là 20")
+    private Integer length = 10;
+
+    @NotNull(message = "Loại giảm giá không được để trống")
+    private DiscountType discountType;
+
+    @NotNull(message = "Giá trị giảm không được để trống")
+    @DecimalMin(value = "0.01", inclusive = true, message = "Giá trị giảm phải lớn hơn 0")
+    @Digits(integer = 13, fraction = 2, message = "Giá trị giảm không hợp lệ (tối đa 13 chữ số và 2 số thập phân)")
+    private BigDecimal discountValue;
+
+    @DecimalMin(value = "0.0", inclusive = true, message = "Giá trị đơn hàng tối thiểu không được âm")
+    @Digits(integer = 13, fraction = 2, message = "Giá trị đơn hàng tối thiểu không hợp lệ")
+    private BigDecimal minOrderValue;
+
+    @NotNull(message = "Thời gian bắt đầu không được để trống")
+    private Instant startAt;
+
+    @NotNull(message = "Thời gian kết thúc không được để trống")
+    private Instant endAt;
+
+    @Builder.Default
+    private Boolean active = true;
+}
@@ -0,0 +1,11 @@
+package secure_shop.backend.dto.order;
+
+import secure_shop.backend.enums.OrderStatus;
+
+import java.util.UUID;
+
+/**
+ * Kết quả của một đơn trong thao tác hàng loạt. status là trạng thái sau thao tác
+ * (hoặc trạng thái hiện tại nếu không cập nhật được, null nếu không tìm thấy đơn).
+ */
+public record OrderBatchOutcomeDTO(UUID orderId, boolean success, OrderStatus status, String message) {}
@@ -0,0 +1,20 @@
+package secure_shop.backend.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResultDTO implements Serializable {
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<OrderBatchOutcomeDTO> results;
+}
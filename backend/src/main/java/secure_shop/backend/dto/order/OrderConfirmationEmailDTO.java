@@ -0,0 +1,50 @@
+package secure_shop.backend.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import secure_shop.backend.enums.OrderStatus;
+import secure_shop.backend.enums.PaymentStatus;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dữ liệu cho email xác nhận đơn hàng, đọc xong trong giao dịch để việc gửi SMTP không giữ kết nối DB.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderConfirmationEmailDTO implements Serializable {
+    private UUID orderId;
+    private String email;
+    private String customerName;
+    private Instant createdAt;
+    private BigDecimal subTotal;
+    private BigDecimal discountTotal;
+    private BigDecimal shippingFee;
+    private BigDecimal grandTotal;
+    private PaymentStatus paymentStatus;
+    private boolean hasPaid;
+    private OrderStatus orderStatus;
+    private String paymentMethod;
+    private String shippingAddress;
+    private List<Item> items;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Item implements Serializable {
+        private String name;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+        private BigDecimal lineTotal;
+        private String sku;
+    }
+}
@@ -0,0 +1,44 @@
+package secure_shop.backend.dto.order;
+
+import secure_shop.backend.exception.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Con trỏ cho lịch sử đơn hàng, sắp xếp theo (createdAt DESC, id DESC).
+ * Thời điểm được mã hóa tới nano giây để không bỏ sót đơn tạo cùng mili giây.
+ */
+public record OrderCursor(Instant createdAt, UUID id) {
+
+    public static OrderCursor after(OrderHistoryItemDTO last) {
+        return new OrderCursor(last.getCreatedAt(), last.getId());
+    }
+
+    public String encode() {
+        long nanosSinceEpoch = createdAt.getEpochSecond() * 1_000_000_000L + createdAt.getNano();
+        String raw = nanosSinceEpoch + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+
+            long nanosSinceEpoch = Long.parseLong(parts[0]);
+            Instant createdAt = Instant.ofEpochSecond(
+                    Math.floorDiv(nanosSinceEpoch, 1_000_000_000L),
+                    Math.floorMod(nanosSinceEpoch, 1_000_000_000L));
+            return new OrderCursor(createdAt, UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new InvalidOperationException("Cursor không hợp lệ");
+        }
+    }
+}
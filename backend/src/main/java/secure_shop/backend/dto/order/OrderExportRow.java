@@ -0,0 +1,29 @@
+package secure_shop.backend.dto.order;
+
+import secure_shop.backend.enums.OrderStatus;
+import secure_shop.backend.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Một dòng xuất đơn hàng, đọc bằng projection để không nạp entity vào persistence context.
+ * customerEmail/customerName là null với đơn không gắn người dùng.
+ */
+public record OrderExportRow(
+        UUID id,
+        Instant createdAt,
+        OrderStatus status,
+        PaymentStatus paymentStatus,
+        Boolean hasPaid,
+        String customerEmail,
+        String customerName,
+        BigDecimal subTotal,
+        BigDecimal discountTotal,
+        BigDecimal shippingFee,
+        BigDecimal grandTotal,
+        String discountCode,
+        Instant confirmedAt,
+        Instant cancelledAt
+) {}
@@ -0,0 +1,38 @@
+package secure_shop.backend.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import secure_shop.backend.enums.OrderStatus;
+import secure_shop.backend.enums.PaymentStatus;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Một dòng trong lịch sử đơn hàng của khách: chỉ các cột tóm tắt, đọc thẳng bằng projection
+ * (không nạp entity Order nên không kéo theo payment/shipment/orderItems).
+ * Chi tiết sản phẩm lấy khi cần qua GET /api/orders/{orderId}/items.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderHistoryItemDTO implements Serializable {
+    private UUID id;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private BigDecimal subTotal;
+    private BigDecimal discountTotal;
+    private BigDecimal shippingFee;
+    private BigDecimal grandTotal;
+    private Boolean hasPaid;
+    private Instant createdAt;
+    private Instant confirmedAt;
+    private Instant cancelledAt;
+    private String discountCode;
+    private long itemCount;
+}
@@ -0,0 +1,8 @@
+package secure_shop.backend.dto.order;
+
+import java.util.UUID;
+
+/**
+ * Một dòng không đủ hàng khi đặt đơn. available = 0 nếu sản phẩm chưa có tồn kho.
+ */
+public record StockShortageDTO(UUID productId, int requested, int available) {}
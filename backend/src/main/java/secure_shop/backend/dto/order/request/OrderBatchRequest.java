@@ -0,0 +1,24 @@
+package secure_shop.backend.dto.order.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchRequest {
+
+    @NotEmpty(message = "Danh sách đơn hàng không được để trống")
+    @Size(max = 5000, message = "Tối đa 5000 đơn hàng mỗi lần")
+    private List<@NotNull UUID> orderIds;
+
+    // Chỉ dùng cho /batch/status
+    private String status;
+}
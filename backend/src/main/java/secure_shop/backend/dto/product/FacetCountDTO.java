@@ -0,0 +1,18 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FacetCountDTO implements Serializable {
+    private Long id;
+    private String name;
+    private long count;
+}
@@ -0,0 +1,27 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleStatusDTO implements Serializable {
+    private UUID productId;
+    // Số lượng còn bán được theo sổ Redis
+    private long available;
+    // Đã giữ chỗ trên Redis nhưng chưa ghi xuống inventory.reserved
+    private long pendingReserved;
+    // Đang giữ cho các đơn chưa commit (hold còn hạn)
+    private long held;
+    // onHand - reserved theo cơ sở dữ liệu
+    private long databaseAvailable;
+    // available - (databaseAvailable - pendingReserved - held); khác 0 nghĩa là sổ Redis lệch với DB
+    private long drift;
+}
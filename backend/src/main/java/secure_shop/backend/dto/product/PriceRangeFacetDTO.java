@@ -0,0 +1,22 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Khoảng giá [min, max); min hoặc max bằng null nghĩa là không giới hạn phía đó.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PriceRangeFacetDTO implements Serializable {
+    private BigDecimal min;
+    private BigDecimal max;
+    private long count;
+}
@@ -0,0 +1,26 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchDTO {
+    // Giữ thứ tự theo danh sách ID gửi lên
+    @Builder.Default
+    private Map<UUID, ProductDTO> products = new LinkedHashMap<>();
+
+    // ID không tồn tại hoặc đã bị xóa
+    @Builder.Default
+    private List<UUID> missing = new ArrayList<>();
+}
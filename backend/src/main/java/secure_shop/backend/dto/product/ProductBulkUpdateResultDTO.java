@@ -0,0 +1,23 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBulkUpdateResultDTO {
+    private int requested;
+    private int priceUpdated;
+    private int stockUpdated;
+    private long durationMs;
+
+    @Builder.Default
+    private List<ProductBulkUpdateConflictDTO> conflicts = new ArrayList<>();
+}
@@ -0,0 +1,53 @@
+package secure_shop.backend.dto.product;
+
+import secure_shop.backend.enums.ProductCursorSort;
+import secure_shop.backend.exception.InvalidOperationException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Vị trí của bản ghi cuối cùng trong trang hiện tại, mã hóa thành chuỗi opaque (base64url).
+ * Khóa sắp xếp luôn kèm id để thứ tự ổn định khi trùng giá / thời điểm tạo.
+ */
+public record ProductCursor(ProductCursorSort sort, BigDecimal price, Instant createdAt, UUID id) {
+
+    public static ProductCursor after(ProductCursorSort sort, ProductSummaryDTO last) {
+        return new ProductCursor(sort, last.getPrice(), last.getCreatedAt(), last.getId());
+    }
+
+    public String encode() {
+        String key = sort == ProductCursorSort.NEWEST
+                ? String.valueOf(createdAt.toEpochMilli() * 1_000_000L + createdAt.getNano() % 1_000_000)
+                : price.toPlainString();
+        String raw = sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+
+            ProductCursorSort sort = ProductCursorSort.valueOf(parts[0]);
+            UUID id = UUID.fromString(parts[2]);
+            if (sort == ProductCursorSort.NEWEST) {
+                long nanosSinceEpoch = Long.parseLong(parts[1]);
+                Instant createdAt = Instant.ofEpochSecond(
+                        Math.floorDiv(nanosSinceEpoch, 1_000_000_000L),
+                        Math.floorMod(nanosSinceEpoch, 1_000_000_000L));
+                return new ProductCursor(sort, null, createdAt, id);
+            }
+            return new ProductCursor(sort, new BigDecimal(parts[1]), null, id);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new InvalidOperationException("Cursor không hợp lệ");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package secure_shop.backend.dto.product;
+
+/**
+ * Danh mục và thương hiệu của một sản phẩm: các facet lọc theo đúng danh mục/thương hiệu này
+ * (hoặc không lọc theo chúng) là những facet có thể đổi khi sản phẩm thay đổi.
+ */
+public record ProductFacetScope(Long categoryId, Long brandId) {}
@@ -0,0 +1,30 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Số lượng sản phẩm theo từng giá trị bộ lọc (thương hiệu, danh mục, khoảng giá, tồn kho)
+ * cho tập điều kiện lọc hiện tại, dùng cho sidebar của storefront.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductFacetsDTO implements Serializable {
+    @Builder.Default
+    private List<FacetCountDTO> brands = new ArrayList<>();
+    @Builder.Default
+    private List<FacetCountDTO> categories = new ArrayList<>();
+    @Builder.Default
+    private List<PriceRangeFacetDTO> priceRanges = new ArrayList<>();
+    private long inStock;
+    private long outOfStock;
+    private long total;
+}
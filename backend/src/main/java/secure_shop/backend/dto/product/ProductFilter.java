@@ -0,0 +1,44 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import secure_shop.backend.utils.TextNormalizer;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Bộ điều kiện lọc sản phẩm dùng chung cho các truy vấn động.
+ * Nếu productIds khác null thì lọc theo tập ID (từ chỉ mục tìm kiếm) thay cho keyword.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductFilter {
+    private Boolean active;
+    private Long categoryId;
+    private Long brandId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean inStock;
+    private String keyword;
+    private Collection<UUID> productIds;
+
+    /**
+     * Khóa cache đã chuẩn hóa: bỏ dấu/viết thường keyword, bỏ số 0 thừa của giá.
+     * Không bao gồm productIds vì đó là kết quả suy ra từ keyword.
+     */
+    public String cacheKey() {
+        return "a=" + active
+                + "|c=" + categoryId
+                + "|b=" + brandId
+                + "|min=" + (minPrice != null ? minPrice.stripTrailingZeros().toPlainString() : null)
+                + "|max=" + (maxPrice != null ? maxPrice.stripTrailingZeros().toPlainString() : null)
+                + "|s=" + inStock
+                + "|q=" + String.join(" ", TextNormalizer.tokenize(keyword));
+    }
+}
@@ -0,0 +1,27 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDTO {
+    private long totalRows;
+    private long created;
+    private long updated;
+    private long failed;
+    private long durationMs;
+
+    @Builder.Default
+    private List<ProductImportErrorDTO> errors = new ArrayList<>();
+
+    // true khi số lỗi vượt giới hạn và danh sách errors đã bị cắt bớt
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,32 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Một dòng trong file nhập sản phẩm hàng loạt (CSV hoặc JSON lines).
+ * Với CSV, mediaUrls là các URL cách nhau bởi dấu '|'.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRow {
+    private String sku;
+    private String name;
+    private String shortDesc;
+    private String longDesc;
+    private BigDecimal listedPrice;
+    private BigDecimal price;
+    private Boolean active;
+    private String thumbnailUrl;
+    private Long brandId;
+    private Long categoryId;
+    private Integer onHand; // null: giữ nguyên tồn kho của sản phẩm đã có
+    private List<String> mediaUrls; // null: giữ nguyên ảnh của sản phẩm đã có
+}
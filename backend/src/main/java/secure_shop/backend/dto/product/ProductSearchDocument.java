@@ -0,0 +1,13 @@
+package secure_shop.backend.dto.product;
+
+import java.util.UUID;
+
+/**
+ * Các trường văn bản của sản phẩm dùng để đánh chỉ mục tìm kiếm trong bộ nhớ.
+ */
+public record ProductSearchDocument(UUID id,
+                                    String sku,
+                                    String name,
+                                    String shortDesc,
+                                    String brandName,
+                                    String categoryName) {}
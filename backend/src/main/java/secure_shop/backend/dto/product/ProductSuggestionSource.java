@@ -0,0 +1,11 @@
+package secure_shop.backend.dto.product;
+
+import java.util.UUID;
+
+/**
+ * Dữ liệu tối thiểu của sản phẩm để dựng cây gợi ý tìm kiếm (tên + chỉ số xếp hạng).
+ */
+public record ProductSuggestionSource(UUID id,
+                                      String name,
+                                      Double rating,
+                                      Integer reviewCount) {}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 @Data
@@ -26,4 +27,5 @@ public class ProductSummaryDTO implements Serializable {
     private BrandDTO brand;
     private Double rating;
     private Integer reviewCount;
+    private Instant createdAt;
 }
\ No newline at end of file
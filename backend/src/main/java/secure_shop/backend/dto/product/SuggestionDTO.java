@@ -0,0 +1,17 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SuggestionDTO implements Serializable {
+    private String id; // UUID với sản phẩm, Long với thương hiệu/danh mục
+    private String label;
+}
@@ -0,0 +1,25 @@
+package secure_shop.backend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SuggestionsDTO implements Serializable {
+    @Builder.Default
+    private List<SuggestionDTO> products = new ArrayList<>();
+
+    @Builder.Default
+    private List<SuggestionDTO> brands = new ArrayList<>();
+
+    @Builder.Default
+    private List<SuggestionDTO> categories = new ArrayList<>();
+}
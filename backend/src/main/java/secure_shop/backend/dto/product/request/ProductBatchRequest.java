@@ -0,0 +1,22 @@
+package secure_shop.backend.dto.product.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductBatchRequest {
+    @NotEmpty(message = "Danh sách ID sản phẩm không được để trống")
+    @Size(max = 500, message = "Tối đa 500 sản phẩm mỗi lần truy vấn")
+    private List<@NotNull(message = "ID sản phẩm không được để trống") UUID> ids;
+}
@@ -0,0 +1,21 @@
+package secure_shop.backend.dto.product.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductBulkUpdateRequest {
+    @NotEmpty(message = "Danh sách cập nhật không được để trống")
+    @Size(max = 50000, message = "Tối đa 50000 dòng mỗi lần cập nhật")
+    private List<@Valid ProductPriceStockUpdate> items;
+}
@@ -0,0 +1,33 @@
+package secure_shop.backend.dto.product.request;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Một dòng cập nhật giá/tồn kho theo SKU. Trường null nghĩa là giữ nguyên.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductPriceStockUpdate {
+    @NotBlank(message = "Mã SKU không được để trống")
+    @Size(max = 100, message = "Mã SKU tối đa 100 ký tự")
+    private String sku;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Giá bán phải lớn hơn 0")
+    @Digits(integer = 10, fraction = 2, message = "Giá bán không hợp lệ (tối đa 10 chữ số, 2 số thập phân)")
+    private BigDecimal price;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Giá niêm yết phải lớn hơn 0")
+    @Digits(integer = 10, fraction = 2, message = "Giá niêm yết không hợp lệ (tối đa 10 chữ số, 2 số thập phân)")
+    private BigDecimal listedPrice;
+
+    // Số lượng cộng thêm (dương) hoặc trừ bớt (âm) vào onHand
+    private Integer onHandDelta;
+}
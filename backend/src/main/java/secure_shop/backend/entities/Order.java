@@ -2,10 +2,12 @@ package secure_shop.backend.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import secure_shop.backend.enums.OrderStatus;
 import secure_shop.backend.enums.PaymentStatus;
+import secure_shop.backend.utils.Money;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -13,7 +15,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.Objects;
 
 @Entity
 @Table(
@@ -57,6 +58,11 @@ public class Order extends BaseEntity {
     private Instant confirmedAt;
     private Instant cancelledAt;
 
+    // Khóa lạc quan: mọi lần chuyển trạng thái đều so khớp và tăng version
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Builder.Default
     @Column(nullable = false)
     private Boolean hasPaid = false;
@@ -87,19 +93,26 @@ public class Order extends BaseEntity {
     @PrePersist
     @PreUpdate
     private void calculateTotals() {
-        if (orderItems != null && !orderItems.isEmpty()) {
-            this.subTotal = orderItems.stream()
-                    .map(OrderItem::getLineTotal)
-                    .filter(Objects::nonNull) // Bỏ qua null để safety
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Chỉ cộng lại từ các dòng khi collection đã được nạp, tránh lazy-load toàn bộ item ở mỗi lần cập nhật đơn
+        long sub;
+        if (orderItems != null && Hibernate.isInitialized(orderItems)) {
+            sub = 0L;
+            for (OrderItem item : orderItems) {
+                if (item.getLineTotal() != null) { // Bỏ qua null để safety
+                    sub = Math.addExact(sub, Money.toMinor(item.getLineTotal()));
+                }
+            }
         } else {
-            this.subTotal = BigDecimal.ZERO;
+            sub = Money.toMinor(subTotal);
         }
 
-        if (discountTotal == null) discountTotal = BigDecimal.ZERO;
-        if (shippingFee == null) shippingFee = BigDecimal.ZERO;
+        long discount = Money.toMinor(discountTotal);
+        long shipping = Money.toMinor(shippingFee);
 
-        this.grandTotal = subTotal.subtract(discountTotal).add(shippingFee);
+        this.subTotal = Money.toDecimal(sub);
+        this.discountTotal = Money.toDecimal(discount);
+        this.shippingFee = Money.toDecimal(shipping);
+        this.grandTotal = Money.toDecimal(Math.addExact(Math.subtractExact(sub, discount), shipping));
     }
 
     // Public method for manual recalculation if needed
@@ -2,6 +2,8 @@ package secure_shop.backend.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import secure_shop.backend.utils.Money;
+
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
@@ -54,6 +56,6 @@ public class OrderItem {
     @PrePersist
     @PreUpdate
     private void calculateLineTotal() {
-        this.lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        this.lineTotal = Money.toDecimal(Money.times(Money.toMinor(unitPrice), quantity));
     }
 }
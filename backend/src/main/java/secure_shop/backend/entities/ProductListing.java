@@ -0,0 +1,91 @@
+package secure_shop.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read model phẳng cho danh sách sản phẩm: mỗi sản phẩm một dòng, đã kèm tên danh mục/thương hiệu
+ * và tồn kho khả dụng, để truy vấn lọc không phải JOIN 4 bảng.
+ * Chỉ đọc qua JPA; dữ liệu được ghi bởi {@link secure_shop.backend.service.listing.ProductListingProjector}.
+ */
+@Entity
+@Immutable
+@Table(
+        name = "product_listing",
+        indexes = {
+                @Index(name = "idx_product_listing_category", columnList = "category_id"),
+                @Index(name = "idx_product_listing_brand", columnList = "brand_id"),
+                @Index(name = "idx_product_listing_active_stock", columnList = "active, in_stock"),
+                @Index(name = "idx_product_listing_price_id", columnList = "price, product_id"),
+                @Index(name = "idx_product_listing_created_at_id", columnList = "created_at, product_id")
+        }
+)
+@Getter
+@NoArgsConstructor
+public class ProductListing {
+
+    @Id
+    @Column(name = "product_id")
+    private UUID id;
+
+    @Column(nullable = false, length = 50)
+    private String sku;
+
+    @Column(nullable = false, length = 500)
+    private String name;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal listedPrice;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal price;
+
+    @Column(length = 2048)
+    private String thumbnailUrl;
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    @Column(length = 500)
+    private String categoryImageUrl;
+
+    @Column(columnDefinition = "TEXT")
+    private String categoryDescription;
+
+    private Boolean categoryActive;
+
+    private Long brandId;
+
+    @Column(length = 100)
+    private String brandName;
+
+    // onHand - reserved; null khi sản phẩm chưa có bản ghi tồn kho
+    private Integer availableStock;
+
+    @Column(nullable = false)
+    private Boolean inStock;
+
+    @Column(nullable = false)
+    private Double rating;
+
+    @Column(nullable = false)
+    private Integer reviewCount;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    private Instant deletedAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant refreshedAt;
+}
@@ -0,0 +1,6 @@
+package secure_shop.backend.enums;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
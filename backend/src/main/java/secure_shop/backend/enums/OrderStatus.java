@@ -1,10 +1,46 @@
 package secure_shop.backend.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,
     WAITING_FOR_DELIVERY,
     IN_TRANSIT,
     DELIVERED,
     CONFIRMED,
-    CANCELLED
+    CANCELLED;
+
+    // Bảng chuyển trạng thái hợp lệ. CONFIRMED là đơn đã thanh toán online, chờ admin xác nhận;
+    // chỉ được hủy khi hàng chưa bị trừ kho (PENDING, CONFIRMED).
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(CONFIRMED, WAITING_FOR_DELIVERY, CANCELLED));
+        TRANSITIONS.put(CONFIRMED, EnumSet.of(WAITING_FOR_DELIVERY, CANCELLED));
+        TRANSITIONS.put(WAITING_FOR_DELIVERY, EnumSet.of(IN_TRANSIT, DELIVERED));
+        TRANSITIONS.put(IN_TRANSIT, EnumSet.of(DELIVERED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+
+        for (OrderStatus status : values()) {
+            SOURCES.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        TRANSITIONS.forEach((source, targets) -> targets.forEach(target -> SOURCES.get(target).add(source)));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * Các trạng thái được phép chuyển sang target, dùng cho điều kiện status IN (...) của câu UPDATE.
+     */
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        return Collections.unmodifiableSet(SOURCES.get(target));
+    }
 }
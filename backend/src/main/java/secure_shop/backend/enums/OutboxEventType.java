@@ -0,0 +1,5 @@
+package secure_shop.backend.enums;
+
+public enum OutboxEventType {
+    ORDER_CONFIRMATION_EMAIL
+}
@@ -0,0 +1,7 @@
+package secure_shop.backend.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
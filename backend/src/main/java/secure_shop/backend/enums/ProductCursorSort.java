@@ -0,0 +1,7 @@
+package secure_shop.backend.enums;
+
+public enum ProductCursorSort {
+    NEWEST,
+    PRICE_ASC,
+    PRICE_DESC
+}
@@ -4,6 +4,7 @@ import com.auth0.jwt.exceptions.JWTVerificationException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -98,6 +100,35 @@ public class GlobalExceptionHandler {
         return buildErrorResponse("UNPROCESSABLE_ENTITY", ex.getMessage(), req, HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex, HttpServletRequest req) {
+        return buildErrorResponse("SERVICE_UNAVAILABLE", ex.getMessage(), req, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStock(InsufficientStockException ex, HttpServletRequest req) {
+        Map<String, String> shortages = new LinkedHashMap<>();
+        ex.getShortages().forEach(s -> shortages.put(s.productId().toString(),
+                "Yêu cầu " + s.requested() + ", còn " + s.available()));
+
+        ErrorResponse error = ErrorResponse.builder()
+                .error("INSUFFICIENT_STOCK")
+                .message(ex.getMessage())
+                .details(shortages)
+                .path(req.getRequestURI())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(OptimisticLockingFailureException ex, HttpServletRequest req) {
+        return buildErrorResponse("CONFLICT", "Dữ liệu vừa được cập nhật bởi thao tác khác, vui lòng tải lại và thử lại",
+                req, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler({DataIntegrityViolationException.class, IllegalArgumentException.class})
     public ResponseEntity<ErrorResponse> handleBadRequest(Exception ex, HttpServletRequest req) {
         return buildErrorResponse("BAD_REQUEST", ex.getMessage(), req, HttpStatus.BAD_REQUEST);
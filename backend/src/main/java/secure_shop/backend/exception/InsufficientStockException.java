@@ -0,0 +1,18 @@
+package secure_shop.backend.exception;
+
+import secure_shop.backend.dto.order.StockShortageDTO;
+
+import java.util.List;
+
+public class InsufficientStockException extends BusinessRuleViolationException {
+    private final List<StockShortageDTO> shortages;
+
+    public InsufficientStockException(List<StockShortageDTO> shortages) {
+        super("Không đủ hàng tồn kho cho " + shortages.size() + " sản phẩm");
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<StockShortageDTO> getShortages() {
+        return shortages;
+    }
+}
@@ -0,0 +1,10 @@
+package secure_shop.backend.exception;
+
+/**
+ * Chức năng tạm thời không dùng được (thiếu cấu hình, phụ thuộc ngoài đang lỗi); trả về 503.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
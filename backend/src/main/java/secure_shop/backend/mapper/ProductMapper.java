@@ -80,6 +80,7 @@ public class ProductMapper {
                 .inStock(p.getInventory().getOnHand() > p.getInventory().getReserved())
                 .rating(p.getRating())
                 .reviewCount(p.getReviewCount())
+                .createdAt(p.getCreatedAt())
                 .build();
     }
 
@@ -1,9 +1,13 @@
 package secure_shop.backend.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import secure_shop.backend.dto.product.FacetCountDTO;
 import secure_shop.backend.entities.Brand;
 
+import java.util.List;
+
 @Repository
 public interface BrandRepository extends JpaRepository<Brand, Integer> {
     boolean existsByName(String name);
@@ -11,4 +15,9 @@ public interface BrandRepository extends JpaRepository<Brand, Integer> {
     void deleteById(Long id);
 
     Brand findById(Long id);
+
+    // Thương hiệu kèm số sản phẩm, dùng để xếp hạng gợi ý tìm kiếm
+    @Query("SELECT new secure_shop.backend.dto.product.FacetCountDTO(b.id, b.name, COUNT(p)) " +
+            "FROM Brand b LEFT JOIN b.products p GROUP BY b.id, b.name")
+    List<FacetCountDTO> findAllWithProductCount();
 }
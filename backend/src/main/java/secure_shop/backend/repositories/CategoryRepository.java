@@ -2,9 +2,12 @@ package secure_shop.backend.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import secure_shop.backend.dto.product.FacetCountDTO;
 import secure_shop.backend.entities.Category;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +17,9 @@ public interface CategoryRepository extends JpaRepository<Category, Integer>, Jp
     void deleteById(Long id);
 
     Category findById(Long id);
+
+    // Danh mục đang hoạt động kèm số sản phẩm, dùng để xếp hạng gợi ý tìm kiếm
+    @Query("SELECT new secure_shop.backend.dto.product.FacetCountDTO(c.id, c.name, COUNT(p)) " +
+            "FROM Category c LEFT JOIN c.products p WHERE c.active = true GROUP BY c.id, c.name")
+    List<FacetCountDTO> findActiveWithProductCount();
 }
@@ -1,13 +1,62 @@
 package secure_shop.backend.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import secure_shop.backend.dto.discount.DiscountCodeEntry;
 import secure_shop.backend.entities.Discount;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface DiscountRepository extends JpaRepository<Discount, UUID> {
     Optional<Discount> findByCode(String code);
+
+    @Query("""
+        SELECT new secure_shop.backend.dto.discount.DiscountCodeEntry(
+            d.id, d.code, d.active, d.startAt, d.endAt, d.maxUsage, d.updatedAt)
+        FROM Discount d
+    """)
+    List<DiscountCodeEntry> findAllCodeEntries();
+
+    @Query("""
+        SELECT new secure_shop.backend.dto.discount.DiscountCodeEntry(
+            d.id, d.code, d.active, d.startAt, d.endAt, d.maxUsage, d.updatedAt)
+        FROM Discount d
+        WHERE d.id = :id
+    """)
+    Optional<DiscountCodeEntry> findCodeEntryById(@Param("id") UUID id);
+
+    @Query("""
+        SELECT new secure_shop.backend.dto.discount.DiscountCodeEntry(
+            d.id, d.code, d.active, d.startAt, d.endAt, d.maxUsage, d.updatedAt)
+        FROM Discount d
+        WHERE d.updatedAt > :since
+    """)
+    List<DiscountCodeEntry> findCodeEntriesUpdatedSince(@Param("since") Instant since);
+
+    // Mã dùng một lần (phát riêng cho từng khách) không được liệt kê công khai
+    @Query("""
+        SELECT d FROM Discount d
+        WHERE d.active = true AND d.startAt <= :now AND d.endAt > :now
+          AND (d.maxUsage IS NULL OR d.maxUsage > 1)
+        ORDER BY d.endAt
+    """)
+    List<Discount> findActiveAt(@Param("now") Instant now);
+
+    /**
+     * Mốc startAt/endAt gần nhất sau thời điểm now của các mã đang bật, tức lúc danh sách
+     * mã đang hiệu lực thay đổi tiếp theo. Null nếu không còn mốc nào.
+     */
+    @Query("""
+        SELECT MIN(CASE WHEN d.startAt > :now THEN d.startAt ELSE d.endAt END)
+        FROM Discount d
+        WHERE d.active = true AND d.endAt > :now
+          AND (d.maxUsage IS NULL OR d.maxUsage > 1)
+    """)
+    Instant findNextBoundaryAfter(@Param("now") Instant now);
 }
@@ -14,6 +14,9 @@ import java.util.UUID;
 public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
     Optional<Inventory> findByProductId(UUID productId);
 
+    @Query("SELECT i.product.id FROM Inventory i WHERE i.id = :id")
+    Optional<UUID> findProductIdById(@Param("id") Long id);
+
     @Modifying
     @Query("UPDATE Inventory i SET i.reserved = i.reserved + :qty " +
             "WHERE i.id = :id AND (i.onHand - i.reserved) >= :qty")
@@ -1,10 +1,13 @@
 package secure_shop.backend.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import secure_shop.backend.entities.MediaAsset;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -13,5 +16,8 @@ public interface MediaAssetRepository extends JpaRepository<MediaAsset, Integer>
 
     boolean existsById(Long id);
 
+    @Query("SELECT m.product.id FROM MediaAsset m WHERE m.id = :id")
+    Optional<UUID> findProductIdById(@Param("id") Long id);
+
     void deleteById(Long id);
 }
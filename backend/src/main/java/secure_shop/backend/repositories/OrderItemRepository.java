@@ -16,6 +16,16 @@ import java.util.UUID;
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
+    @Query("""
+        SELECT oi FROM OrderItem oi
+        JOIN FETCH oi.product p
+        LEFT JOIN FETCH p.brand
+        LEFT JOIN FETCH p.category
+        LEFT JOIN FETCH p.inventory
+        WHERE oi.order.id = :orderId
+    """)
+    List<OrderItem> findByOrderIdWithProduct(@Param("orderId") UUID orderId);
+
     /**
      * Find all order items for a user and product with a specific order status
      * Used to validate if user can review a product (must have completed purchase)
@@ -1,25 +1,63 @@
 package secure_shop.backend.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.aspectj.weaver.ast.Or;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import secure_shop.backend.dto.order.OrderExportRow;
+import secure_shop.backend.dto.order.OrderHistoryItemDTO;
 import secure_shop.backend.entities.Order;
 import secure_shop.backend.enums.OrderStatus;
 import secure_shop.backend.enums.PaymentStatus;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
+    String HISTORY_SELECT = """
+        SELECT new secure_shop.backend.dto.order.OrderHistoryItemDTO(
+            o.id, o.status, o.paymentStatus, o.subTotal, o.discountTotal, o.shippingFee, o.grandTotal,
+            o.hasPaid, o.createdAt, o.confirmedAt, o.cancelledAt, d.code,
+            (SELECT COUNT(oi) FROM OrderItem oi WHERE oi.order = o))
+        FROM Order o
+        LEFT JOIN o.discount d
+        WHERE o.user.id = :userId
+        """;
+
+    /**
+     * Chuyển trạng thái có điều kiện: chỉ cập nhật khi đơn vẫn ở version đã đọc và trạng thái hiện tại
+     * nằm trong các trạng thái nguồn hợp lệ. Persistence context được xóa sau câu lệnh,
+     * bên gọi cần đọc lại đơn hàng.
+     *
+     * @return 1 nếu chuyển thành công, 0 nếu đơn đã bị thao tác khác thay đổi
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Order o
+        SET o.status = :target, o.version = o.version + 1, o.updatedAt = :now
+        WHERE o.id = :id AND o.version = :version AND o.status IN :sources
+        """)
+    int compareAndSetStatus(@Param("id") UUID id,
+                            @Param("version") Long version,
+                            @Param("sources") Collection<OrderStatus> sources,
+                            @Param("target") OrderStatus target,
+                            @Param("now") Instant now);
+
     @Query("""
     SELECT DISTINCT o FROM Order o
     LEFT JOIN FETCH o.orderItems
@@ -30,7 +68,39 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
 """)
     List<Order> findByUserId(@Param("userId") UUID userId);
 
-    Integer countByDiscountIdAndUserId(UUID discountId, UUID userId);
+    // Lịch sử đơn theo con trỏ, dùng chỉ mục (user_id, created_at DESC, id DESC)
+    @Query(HISTORY_SELECT + " ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderHistoryItemDTO> findHistoryFirstPage(@Param("userId") UUID userId, Limit limit);
+
+    @Query(HISTORY_SELECT + """
+        AND (o.createdAt < :lastCreatedAt OR (o.createdAt = :lastCreatedAt AND o.id < :lastId))
+        ORDER BY o.createdAt DESC, o.id DESC
+        """)
+    List<OrderHistoryItemDTO> findHistoryAfter(@Param("userId") UUID userId,
+                                               @Param("lastCreatedAt") Instant lastCreatedAt,
+                                               @Param("lastId") UUID lastId,
+                                               Limit limit);
+
+    // Xuất đơn hàng: đọc tuần tự bằng cursor phía server (cần chạy trong giao dịch).
+    // LEFT JOIN user: đơn không gắn người dùng vẫn được xuất, cột email/tên để trống
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new secure_shop.backend.dto.order.OrderExportRow(
+            o.id, o.createdAt, o.status, o.paymentStatus, o.hasPaid, u.email, u.name,
+            o.subTotal, o.discountTotal, o.shippingFee, o.grandTotal, d.code, o.confirmedAt, o.cancelledAt)
+        FROM Order o
+        LEFT JOIN o.user u
+        LEFT JOIN o.discount d
+        WHERE o.createdAt >= :from AND o.createdAt < :to
+          AND (:status IS NULL OR o.status = :status)
+        ORDER BY o.createdAt, o.id
+        """)
+    Stream<OrderExportRow> streamForExport(@Param("from") Instant from,
+                                           @Param("to") Instant to,
+                                           @Param("status") OrderStatus status);
 
     Integer countOrdersByCreatedAtIsNotNull();
 
@@ -0,0 +1,163 @@
+package secure_shop.backend.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import secure_shop.backend.dto.product.ProductFacetScope;
+import secure_shop.backend.dto.product.ProductSummaryDTO;
+import secure_shop.backend.entities.ProductListing;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProductListingRepository extends JpaRepository<ProductListing, UUID>, ProductListingRepositoryCustom {
+
+    // Dựng lại dòng read model từ các bảng gốc; ghép thêm điều kiện WHERE rồi UPSERT_CONFLICT.
+    // Sản phẩm chưa có dòng inventory được tính là hết hàng (in_stock = false) nên lọc inStock=false
+    // trả cả những sản phẩm này; truy vấn cũ trên products bỏ chúng khỏi cả hai bộ lọc.
+    String UPSERT_SELECT = """
+        INSERT INTO product_listing (
+            product_id, sku, name, listed_price, price, thumbnail_url,
+            category_id, category_name, category_image_url, category_description, category_active,
+            brand_id, brand_name, available_stock, in_stock,
+            rating, review_count, active, deleted_at, created_at, refreshed_at)
+        SELECT p.id, p.sku, p.name, p.listed_price, p.price, p.thumbnail_url,
+               c.id, c.name, c.image_url, c.description, c.active,
+               b.id, b.name, i.on_hand - i.reserved, COALESCE(i.on_hand - i.reserved, 0) > 0,
+               p.rating, p.review_count, p.active, p.deleted_at, p.created_at, now()
+        FROM products p
+        LEFT JOIN categories c ON c.id = p.category_id
+        LEFT JOIN brands b ON b.id = p.brand_id
+        LEFT JOIN inventory i ON i.product_id = p.id
+        """;
+
+    String UPSERT_CONFLICT = """
+        ON CONFLICT (product_id) DO UPDATE SET
+            sku = EXCLUDED.sku,
+            name = EXCLUDED.name,
+            listed_price = EXCLUDED.listed_price,
+            price = EXCLUDED.price,
+            thumbnail_url = EXCLUDED.thumbnail_url,
+            category_id = EXCLUDED.category_id,
+            category_name = EXCLUDED.category_name,
+            category_image_url = EXCLUDED.category_image_url,
+            category_description = EXCLUDED.category_description,
+            category_active = EXCLUDED.category_active,
+            brand_id = EXCLUDED.brand_id,
+            brand_name = EXCLUDED.brand_name,
+            available_stock = EXCLUDED.available_stock,
+            in_stock = EXCLUDED.in_stock,
+            rating = EXCLUDED.rating,
+            review_count = EXCLUDED.review_count,
+            active = EXCLUDED.active,
+            deleted_at = EXCLUDED.deleted_at,
+            created_at = EXCLUDED.created_at,
+            refreshed_at = EXCLUDED.refreshed_at
+        """;
+
+    String SUMMARY_SELECT = """
+        SELECT new secure_shop.backend.dto.product.ProductSummaryDTO(
+            pl.id,
+            pl.sku,
+            pl.name,
+            pl.listedPrice,
+            pl.price,
+            pl.thumbnailUrl,
+            pl.availableStock,
+            pl.inStock,
+            new secure_shop.backend.dto.product.CategorySummaryDTO(
+                pl.categoryId, pl.categoryName, pl.categoryImageUrl, pl.categoryDescription, pl.categoryActive),
+            new secure_shop.backend.dto.product.BrandDTO(pl.brandId, pl.brandName),
+            pl.rating,
+            pl.reviewCount,
+            pl.createdAt
+        )
+        FROM ProductListing pl
+        """;
+
+    @Modifying
+    @Query(value = UPSERT_SELECT + " WHERE p.id = :id " + UPSERT_CONFLICT, nativeQuery = true)
+    int refreshProduct(@Param("id") UUID id);
+
+    @Modifying
+    @Query(value = UPSERT_SELECT + " WHERE p.id IN (:ids) " + UPSERT_CONFLICT, nativeQuery = true)
+    int refreshProducts(@Param("ids") Collection<UUID> ids);
+
+    // Danh mục/thương hiệu hiện tại trong read model, để chỉ xóa các facet bị ảnh hưởng
+    @Query("""
+        SELECT DISTINCT new secure_shop.backend.dto.product.ProductFacetScope(pl.categoryId, pl.brandId)
+        FROM ProductListing pl
+        WHERE pl.id IN :ids
+        """)
+    List<ProductFacetScope> findFacetScopes(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = UPSERT_SELECT + " WHERE p.brand_id = :brandId " + UPSERT_CONFLICT, nativeQuery = true)
+    int refreshByBrand(@Param("brandId") Long brandId);
+
+    @Modifying
+    @Query(value = UPSERT_SELECT + " WHERE p.category_id = :categoryId " + UPSERT_CONFLICT, nativeQuery = true)
+    int refreshByCategory(@Param("categoryId") Long categoryId);
+
+    // WHERE true: tránh nhập nhằng cú pháp giữa JOIN ... ON và ON CONFLICT
+    @Modifying
+    @Query(value = UPSERT_SELECT + " WHERE true " + UPSERT_CONFLICT, nativeQuery = true)
+    int refreshAll();
+
+    // Sản phẩm bị xóa cứng (ví dụ xóa theo thương hiệu/danh mục) thì bỏ dòng tương ứng
+    @Modifying
+    @Query(value = """
+        DELETE FROM product_listing pl
+        WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.id = pl.product_id)
+        """, nativeQuery = true)
+    int deleteOrphans();
+
+    @Query(SUMMARY_SELECT + """
+        WHERE pl.deletedAt IS NULL
+          AND (:active IS NULL OR pl.active = :active)
+          AND (:categoryId IS NULL OR pl.categoryId = :categoryId)
+          AND (:brandId IS NULL OR pl.brandId = :brandId)
+          AND (:minPrice IS NULL OR pl.price >= :minPrice)
+          AND (:maxPrice IS NULL OR pl.price <= :maxPrice)
+          AND (:inStock IS NULL OR pl.inStock = :inStock)
+          AND LOWER(pl.name) LIKE LOWER(CONCAT('%', COALESCE(:keyword, ''), '%'))
+        """)
+    Page<ProductSummaryDTO> filterProducts(Boolean active,
+                                           Long categoryId,
+                                           Long brandId,
+                                           BigDecimal minPrice,
+                                           BigDecimal maxPrice,
+                                           Boolean inStock,
+                                           String keyword,
+                                           Pageable pageable);
+
+    /**
+     * Giống filterProducts nhưng lọc theo tập ID đã được chỉ mục tìm kiếm trong bộ nhớ xác định,
+     * thay cho LIKE '%keyword%' (không dùng được index).
+     */
+    @Query(SUMMARY_SELECT + """
+        WHERE pl.deletedAt IS NULL
+          AND pl.id IN :ids
+          AND (:active IS NULL OR pl.active = :active)
+          AND (:categoryId IS NULL OR pl.categoryId = :categoryId)
+          AND (:brandId IS NULL OR pl.brandId = :brandId)
+          AND (:minPrice IS NULL OR pl.price >= :minPrice)
+          AND (:maxPrice IS NULL OR pl.price <= :maxPrice)
+          AND (:inStock IS NULL OR pl.inStock = :inStock)
+        """)
+    Page<ProductSummaryDTO> filterProductsByIds(Boolean active,
+                                                Long categoryId,
+                                                Long brandId,
+                                                BigDecimal minPrice,
+                                                BigDecimal maxPrice,
+                                                Boolean inStock,
+                                                Collection<UUID> ids,
+                                                Pageable pageable);
+}
@@ -0,0 +1,33 @@
+package secure_shop.backend.repositories;
+
+import secure_shop.backend.dto.product.ProductCursor;
+import secure_shop.backend.dto.product.ProductFacetsDTO;
+import secure_shop.backend.dto.product.ProductFilter;
+import secure_shop.backend.dto.product.ProductSummaryDTO;
+import secure_shop.backend.enums.ProductCursorSort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Các truy vấn trên read model product_listing cần dựng câu lệnh động (điều kiện tùy chọn, keyset).
+ */
+public interface ProductListingRepositoryCustom {
+
+    /**
+     * Keyset pagination: lấy tối đa limit sản phẩm đứng sau con trỏ theo thứ tự sort,
+     * không chạy OFFSET và không đếm tổng.
+     */
+    List<ProductSummaryDTO> findProductsAfter(ProductFilter filter,
+                                              ProductCursorSort sort,
+                                              ProductCursor after,
+                                              int limit);
+
+    /**
+     * Đếm số sản phẩm theo thương hiệu, danh mục, khoảng giá và tình trạng tồn kho
+     * trong một lượt quét (GROUP BY GROUPING SETS).
+     *
+     * @param priceBoundaries các mốc giá tăng dần chia khoảng giá
+     */
+    ProductFacetsDTO countFacets(ProductFilter filter, List<BigDecimal> priceBoundaries);
+}
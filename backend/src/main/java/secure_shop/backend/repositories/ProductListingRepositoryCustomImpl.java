@@ -0,0 +1,202 @@
+package secure_shop.backend.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import secure_shop.backend.dto.product.FacetCountDTO;
+import secure_shop.backend.dto.product.PriceRangeFacetDTO;
+import secure_shop.backend.dto.product.ProductCursor;
+import secure_shop.backend.dto.product.ProductFacetsDTO;
+import secure_shop.backend.dto.product.ProductFilter;
+import secure_shop.backend.dto.product.ProductSummaryDTO;
+import secure_shop.backend.enums.ProductCursorSort;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductListingRepositoryCustomImpl implements ProductListingRepositoryCustom {
+
+    private static final String SUMMARY_SELECT =
+            ProductListingRepository.SUMMARY_SELECT + " WHERE pl.deletedAt IS NULL";
+
+    private static final String FACETS_SQL = """
+            SELECT GROUPING(f.brand_id), GROUPING(f.category_id), GROUPING(f.price_bucket), GROUPING(f.in_stock),
+                   f.brand_id, MAX(f.brand_name), f.category_id, MAX(f.category_name),
+                   f.price_bucket, f.in_stock, COUNT(*)
+            FROM (%s) f
+            GROUP BY GROUPING SETS ((f.brand_id), (f.category_id), (f.price_bucket), (f.in_stock))
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductSummaryDTO> findProductsAfter(ProductFilter filter,
+                                                     ProductCursorSort sort,
+                                                     ProductCursor after,
+                                                     int limit) {
+        StringBuilder jpql = new StringBuilder(SUMMARY_SELECT);
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(jpql, params, filter);
+
+        if (after != null) {
+            switch (sort) {
+                case NEWEST -> {
+                    jpql.append(" AND (pl.createdAt < :lastCreatedAt OR (pl.createdAt = :lastCreatedAt AND pl.id < :lastId))");
+                    params.put("lastCreatedAt", after.createdAt());
+                }
+                case PRICE_ASC -> {
+                    jpql.append(" AND (pl.price > :lastPrice OR (pl.price = :lastPrice AND pl.id > :lastId))");
+                    params.put("lastPrice", after.price());
+                }
+                case PRICE_DESC -> {
+                    jpql.append(" AND (pl.price < :lastPrice OR (pl.price = :lastPrice AND pl.id < :lastId))");
+                    params.put("lastPrice", after.price());
+                }
+            }
+            params.put("lastId", after.id());
+        }
+
+        jpql.append(switch (sort) {
+            case NEWEST -> " ORDER BY pl.createdAt DESC, pl.id DESC";
+            case PRICE_ASC -> " ORDER BY pl.price ASC, pl.id ASC";
+            case PRICE_DESC -> " ORDER BY pl.price DESC, pl.id DESC";
+        });
+
+        TypedQuery<ProductSummaryDTO> query = entityManager.createQuery(jpql.toString(), ProductSummaryDTO.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ProductFacetsDTO countFacets(ProductFilter filter, List<BigDecimal> priceBoundaries) {
+        Map<String, Object> params = new HashMap<>();
+
+        StringBuilder bucket = new StringBuilder("CASE");
+        for (int n = 0; n < priceBoundaries.size(); n++) {
+            bucket.append(" WHEN pl.price < :bound").append(n).append(" THEN ").append(n);
+            params.put("bound" + n, priceBoundaries.get(n));
+        }
+        bucket.append(" ELSE ").append(priceBoundaries.size()).append(" END");
+
+        StringBuilder inner = new StringBuilder()
+                .append("SELECT pl.brand_id, pl.brand_name, pl.category_id, pl.category_name, ")
+                .append(bucket).append(" AS price_bucket, pl.in_stock ")
+                .append("FROM product_listing pl ")
+                .append("WHERE pl.deleted_at IS NULL");
+        appendNativeFilter(inner, params, filter);
+
+        Query query = entityManager.createNativeQuery(FACETS_SQL.formatted(inner));
+        params.forEach(query::setParameter);
+
+        ProductFacetsDTO facets = new ProductFacetsDTO();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            long count = ((Number) row[10]).longValue();
+
+            if (((Number) row[0]).intValue() == 0) {
+                if (row[4] != null) {
+                    facets.getBrands().add(new FacetCountDTO(((Number) row[4]).longValue(), (String) row[5], count));
+                }
+            } else if (((Number) row[1]).intValue() == 0) {
+                if (row[6] != null) {
+                    facets.getCategories().add(new FacetCountDTO(((Number) row[6]).longValue(), (String) row[7], count));
+                }
+            } else if (((Number) row[2]).intValue() == 0) {
+                int n = ((Number) row[8]).intValue();
+                BigDecimal min = n == 0 ? null : priceBoundaries.get(n - 1);
+                BigDecimal max = n == priceBoundaries.size() ? null : priceBoundaries.get(n);
+                facets.getPriceRanges().add(new PriceRangeFacetDTO(min, max, count));
+            } else if (((Number) row[3]).intValue() == 0) {
+                if (Boolean.TRUE.equals(row[9])) {
+                    facets.setInStock(count);
+                } else {
+                    facets.setOutOfStock(count);
+                }
+            }
+        }
+
+        facets.setTotal(facets.getInStock() + facets.getOutOfStock());
+        facets.getBrands().sort(Comparator.comparingLong(FacetCountDTO::getCount).reversed());
+        facets.getCategories().sort(Comparator.comparingLong(FacetCountDTO::getCount).reversed());
+        facets.getPriceRanges().sort(Comparator.comparing(
+                PriceRangeFacetDTO::getMin, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return facets;
+    }
+
+    private static void appendFilter(StringBuilder jpql, Map<String, Object> params, ProductFilter filter) {
+        if (filter == null) return;
+
+        if (filter.getActive() != null) {
+            jpql.append(" AND pl.active = :active");
+            params.put("active", filter.getActive());
+        }
+        if (filter.getCategoryId() != null) {
+            jpql.append(" AND pl.categoryId = :categoryId");
+            params.put("categoryId", filter.getCategoryId());
+        }
+        if (filter.getBrandId() != null) {
+            jpql.append(" AND pl.brandId = :brandId");
+            params.put("brandId", filter.getBrandId());
+        }
+        if (filter.getMinPrice() != null) {
+            jpql.append(" AND pl.price >= :minPrice");
+            params.put("minPrice", filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            jpql.append(" AND pl.price <= :maxPrice");
+            params.put("maxPrice", filter.getMaxPrice());
+        }
+        if (filter.getInStock() != null) {
+            jpql.append(" AND pl.inStock = :inStock");
+            params.put("inStock", filter.getInStock());
+        }
+        if (filter.getProductIds() != null) {
+            jpql.append(" AND pl.id IN :productIds");
+            params.put("productIds", filter.getProductIds());
+        } else if (filter.getKeyword() != null && !filter.getKeyword().isBlank()) {
+            jpql.append(" AND LOWER(pl.name) LIKE LOWER(CONCAT('%', :keyword, '%'))");
+            params.put("keyword", filter.getKeyword());
+        }
+    }
+
+    private static void appendNativeFilter(StringBuilder sql, Map<String, Object> params, ProductFilter filter) {
+        if (filter == null) return;
+
+        if (filter.getActive() != null) {
+            sql.append(" AND pl.active = :active");
+            params.put("active", filter.getActive());
+        }
+        if (filter.getCategoryId() != null) {
+            sql.append(" AND pl.category_id = :categoryId");
+            params.put("categoryId", filter.getCategoryId());
+        }
+        if (filter.getBrandId() != null) {
+            sql.append(" AND pl.brand_id = :brandId");
+            params.put("brandId", filter.getBrandId());
+        }
+        if (filter.getMinPrice() != null) {
+            sql.append(" AND pl.price >= :minPrice");
+            params.put("minPrice", filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            sql.append(" AND pl.price <= :maxPrice");
+            params.put("maxPrice", filter.getMaxPrice());
+        }
+        if (filter.getInStock() != null) {
+            sql.append(" AND pl.in_stock = :inStock");
+            params.put("inStock", filter.getInStock());
+        }
+        if (filter.getProductIds() != null) {
+            sql.append(" AND pl.product_id IN (:productIds)");
+            params.put("productIds", filter.getProductIds());
+        } else if (filter.getKeyword() != null && !filter.getKeyword().isBlank()) {
+            sql.append(" AND LOWER(pl.name) LIKE LOWER(CONCAT('%', :keyword, '%'))");
+            params.put("keyword", filter.getKeyword());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package secure_shop.backend.repositories.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import secure_shop.backend.dto.discount.request.DiscountCodeGenerationRequest;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cấp khối số thứ tự và ghi mã giảm giá sinh hàng loạt, mỗi lô là một câu INSERT ... SELECT unnest(...).
+ */
+@Repository
+@RequiredArgsConstructor
+public class DiscountCodeJdbcRepository {
+
+    public static final int BLOCK_SIZE = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lấy các khối số thứ tự chưa dùng; khối b gồm các số [b * BLOCK_SIZE, (b + 1) * BLOCK_SIZE).
+     * Sequence không nằm trong giao dịch nên khối đã cấp không bao giờ được cấp lại, kể cả khi rollback.
+     */
+    public List<Long> allocateBlocks(int blocks) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval('discount_code_block_seq') FROM generate_series(1, ?)", Long.class, blocks);
+    }
+
+    /**
+     * Ghi mã dùng một lần (maxUsage = perUserLimit = 1). Mã đã tồn tại (tạo tay trùng định dạng) bị bỏ qua.
+     *
+     * @return các mã đã được ghi
+     */
+    public List<String> insertSingleUse(List<String> codes, DiscountCodeGenerationRequest request) {
+        UUID[] ids = new UUID[codes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement("""
+                    INSERT INTO discounts (id, code, discount_type, discount_value, min_order_value, max_usage,
+                                           per_user_limit, used, start_at, end_at, active, created_at, updated_at)
+                    SELECT t.id, t.code, ?, ?, ?, 1, 1, 0, ?, ?, ?, ?, ?
+                    FROM unnest(?::uuid[], ?::text[]) AS t(id, code)
+                    ON CONFLICT (code) DO NOTHING
+                    RETURNING code
+                    """);
+            ps.setString(1, request.getDiscountType().name());
+            ps.setBigDecimal(2, request.getDiscountValue());
+            ps.setBigDecimal(3, request.getMinOrderValue());
+            ps.setTimestamp(4, Timestamp.from(request.getStartAt()));
+            ps.setTimestamp(5, Timestamp.from(request.getEndAt()));
+            ps.setBoolean(6, request.getActive() == null || request.getActive());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+            ps.setArray(9, con.createArrayOf("uuid", ids));
+            ps.setArray(10, con.createArrayOf("text", codes.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getString("code"));
+    }
+}
@@ -0,0 +1,134 @@
+package secure_shop.backend.repositories.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Ghi nhận lượt dùng mã giảm giá bằng câu UPDATE/UPSERT có điều kiện, chạy trong giao dịch đặt hàng.
+ * Điều kiện giới hạn nằm trong chính câu lệnh nên hai đơn đồng thời không thể cùng vượt giới hạn;
+ * giao dịch rollback thì lượt dùng cũng được hoàn lại.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DiscountRedemptionJdbcRepository {
+
+    private static final String QUOTAS = """
+            SELECT id, GREATEST(max_usage - COALESCE(used, 0), 0) AS remaining, end_at
+            FROM discounts
+            WHERE active IS NOT FALSE AND max_usage > 1 AND end_at > now()
+            """;
+
+    /**
+     * Các CTE trả lại lượt dùng mã cho những đơn vừa bị hủy trong cùng câu lệnh (hủy hàng loạt, job hủy đơn),
+     * giống {@link #releaseUsage} cho từng đơn. Cần một CTE tên target trả về discount_id và user_id của các đơn đó.
+     */
+    static final String RELEASE_USAGE_FOR_TARGET = """
+                released_usage AS (
+                    SELECT discount_id, user_id, count(*) AS n
+                    FROM target
+                    WHERE discount_id IS NOT NULL
+                    GROUP BY discount_id, user_id
+                ),
+                released_discounts AS (
+                    UPDATE discounts d
+                    SET used = GREATEST(COALESCE(d.used, 0) - u.n, 0)
+                    FROM (SELECT discount_id, SUM(n) AS n FROM released_usage GROUP BY discount_id) u
+                    WHERE d.id = u.discount_id
+                ),
+                released_redemptions AS (
+                    UPDATE discount_redemptions r
+                    SET used = GREATEST(r.used - u.n, 0), updated_at = now()
+                    FROM released_usage u
+                    WHERE r.discount_id = u.discount_id AND r.user_id = u.user_id
+                )""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Số lượt còn lại theo DB của một mã có giới hạn tổng; mã hết hiệu lực lúc endAt.
+     */
+    public record DiscountQuota(UUID discountId, long remaining, Instant endAt) {}
+
+    /**
+     * Tăng discounts.used nếu mã còn hiệu lực và còn lượt.
+     * Dòng discounts bị khóa tới khi giao dịch kết thúc, nên bên gọi nên gọi sát lúc commit.
+     *
+     * @return false nếu mã đã hết lượt hoặc không còn hiệu lực
+     */
+    public boolean incrementUsage(UUID discountId) {
+        int updated = jdbcTemplate.update("""
+                UPDATE discounts
+                SET used = COALESCE(used, 0) + 1
+                WHERE id = ?
+                  AND active IS NOT FALSE
+                  AND start_at <= now() AND end_at > now()
+                  AND (max_usage IS NULL OR COALESCE(used, 0) < max_usage)
+                """, discountId);
+        return updated == 1;
+    }
+
+    /**
+     * Cộng một lượt dùng cho (discountId, userId); chỉ khóa dòng của chính người dùng đó.
+     *
+     * @param perUserLimit null nghĩa là không giới hạn (vẫn ghi sổ)
+     * @return false nếu người dùng đã dùng hết lượt
+     */
+    public boolean redeemForUser(UUID discountId, UUID userId, Integer perUserLimit) {
+        int updated = jdbcTemplate.update("""
+                INSERT INTO discount_redemptions (discount_id, user_id, used, updated_at)
+                SELECT ?, ?, 1, now()
+                WHERE CAST(? AS integer) IS NULL OR CAST(? AS integer) >= 1
+                ON CONFLICT (discount_id, user_id) DO UPDATE
+                SET used = discount_redemptions.used + 1, updated_at = now()
+                WHERE CAST(? AS integer) IS NULL OR discount_redemptions.used < CAST(? AS integer)
+                """, discountId, userId, perUserLimit, perUserLimit, perUserLimit, perUserLimit);
+        return updated == 1;
+    }
+
+    /**
+     * Trả lại lượt dùng của một đơn bị hủy (cả tổng và sổ theo người dùng).
+     */
+    public void releaseUsage(UUID discountId, UUID userId) {
+        jdbcTemplate.update("""
+                UPDATE discounts
+                SET used = GREATEST(COALESCE(used, 0) - 1, 0)
+                WHERE id = ?
+                """, discountId);
+        if (userId != null) {
+            jdbcTemplate.update("""
+                    UPDATE discount_redemptions
+                    SET used = GREATEST(used - 1, 0), updated_at = now()
+                    WHERE discount_id = ? AND user_id = ?
+                    """, discountId, userId);
+        }
+    }
+
+    /**
+     * Các mã đang bật, chưa kết thúc và có giới hạn tổng số lượt.
+     * Mã dùng một lần (sinh hàng loạt) không có tranh chấp nên không cần bộ đếm trên Redis.
+     */
+    public List<DiscountQuota> findQuotas() {
+        return jdbcTemplate.query(QUOTAS, (rs, rowNum) -> toQuota(rs));
+    }
+
+    public Optional<DiscountQuota> findQuota(UUID discountId) {
+        return jdbcTemplate.query(QUOTAS + " AND id = ?", (rs, rowNum) -> toQuota(rs), discountId)
+                .stream()
+                .findFirst();
+    }
+
+    private static DiscountQuota toQuota(ResultSet rs) throws SQLException {
+        return new DiscountQuota(
+                rs.getObject("id", UUID.class),
+                rs.getLong("remaining"),
+                rs.getTimestamp("end_at").toInstant());
+    }
+}
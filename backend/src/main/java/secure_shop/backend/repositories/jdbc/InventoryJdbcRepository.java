@@ -0,0 +1,168 @@
+package secure_shop.backend.repositories.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import secure_shop.backend.dto.order.StockShortageDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Giữ hàng cho cả giỏ trong một câu lệnh: khóa các dòng tồn kho theo thứ tự id
+ * (mọi giao dịch khóa cùng thứ tự nên không deadlock), rồi chỉ UPDATE khi tất cả các dòng đều đủ hàng.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param quantities productId -> số lượng cần giữ (đã gộp các dòng trùng sản phẩm)
+     * @return danh sách dòng thiếu hàng; rỗng nghĩa là đã giữ hàng cho toàn bộ giỏ
+     */
+    public List<StockShortageDTO> reserveAll(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) return List.of();
+
+        StringBuilder sql = new StringBuilder("WITH req(product_id, qty) AS (VALUES\n");
+        List<Object> args = new ArrayList<>(quantities.size() * 2);
+        int i = 0;
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            sql.append(i++ == 0 ? "" : ",\n").append("(CAST(? AS uuid), CAST(? AS integer))");
+            args.add(entry.getKey());
+            args.add(entry.getValue());
+        }
+        sql.append("""
+                ),
+                locked AS (
+                    SELECT i.id, i.product_id, i.on_hand - i.reserved AS available, r.qty
+                    FROM inventory i
+                    JOIN req r ON r.product_id = i.product_id
+                    ORDER BY i.id
+                    FOR UPDATE OF i
+                ),
+                ok AS (
+                    SELECT (SELECT count(*) FROM locked) = (SELECT count(*) FROM req)
+                       AND NOT EXISTS (SELECT 1 FROM locked WHERE available < qty) AS all_ok
+                ),
+                upd AS (
+                    UPDATE inventory i
+                    SET reserved = i.reserved + l.qty
+                    FROM locked l, ok
+                    WHERE i.id = l.id AND ok.all_ok
+                    RETURNING i.id
+                )
+                SELECT r.product_id, r.qty, COALESCE(l.available, 0) AS available,
+                       (SELECT count(*) FROM upd) AS reserved_count
+                FROM req r
+                LEFT JOIN locked l ON l.product_id = r.product_id
+                """);
+
+        List<StockShortageDTO> shortages = new ArrayList<>();
+        long[] reservedCount = {0};
+        jdbcTemplate.query(sql.toString(), rs -> {
+            reservedCount[0] = rs.getLong("reserved_count");
+            int requested = rs.getInt("qty");
+            int available = rs.getInt("available");
+            if (available < requested) {
+                shortages.add(new StockShortageDTO(rs.getObject("product_id", UUID.class), requested, available));
+            }
+        }, args.toArray());
+
+        if (shortages.isEmpty() && reservedCount[0] != quantities.size()) {
+            // Không xảy ra khi các dòng đã bị khóa; phòng trường hợp dữ liệu tồn kho bị trùng
+            throw new IllegalStateException("Giữ hàng không nhất quán: " + reservedCount[0] + "/" + quantities.size());
+        }
+        return shortages;
+    }
+
+    /**
+     * Cộng dồn phần đã giữ chỗ trên sổ flash sale (Redis) vào inventory.reserved, một câu UPDATE cho cả lô.
+     * Dòng nào cộng xong bị âm thì không cập nhật (không kẹp về 0 để che lệch số liệu).
+     *
+     * @return các sản phẩm không được cập nhật (không có tồn kho hoặc reserved sẽ âm)
+     */
+    public Set<UUID> addReserved(Map<UUID, Integer> deltas) {
+        if (deltas.isEmpty()) return Set.of();
+
+        StringBuilder sql = new StringBuilder("""
+                UPDATE inventory i
+                SET reserved = i.reserved + v.delta
+                FROM (VALUES
+                """);
+        List<Object> args = new ArrayList<>(deltas.size() * 2);
+        int i = 0;
+        for (Map.Entry<UUID, Integer> entry : deltas.entrySet()) {
+            sql.append(i++ == 0 ? "" : ",\n").append("(CAST(? AS uuid), CAST(? AS integer))");
+            args.add(entry.getKey());
+            args.add(entry.getValue());
+        }
+        sql.append("""
+                ) AS v(product_id, delta)
+                WHERE i.product_id = v.product_id AND i.reserved + v.delta >= 0
+                RETURNING i.product_id
+                """);
+        List<UUID> updated = jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray());
+
+        Set<UUID> rejected = new HashSet<>(deltas.keySet());
+        updated.forEach(rejected::remove);
+        return rejected;
+    }
+
+    /**
+     * @param reservedByOrders tổng số lượng của các đơn còn giữ hàng (PENDING, CONFIRMED), tức giá trị reserved
+     *                         đúng khi mọi phần giữ chỗ đã được ghi xuống
+     */
+    public record ReservedCheck(UUID productId, int reserved, int reservedByOrders) {}
+
+    public List<ReservedCheck> checkReserved(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) return List.of();
+
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        return jdbcTemplate.query("""
+                SELECT i.product_id, i.reserved,
+                       (SELECT COALESCE(SUM(oi.quantity), 0)
+                        FROM order_items oi
+                        JOIN orders o ON o.id = oi.order_id
+                        WHERE oi.product_id = i.product_id AND o.status IN ('PENDING', 'CONFIRMED')) AS by_orders
+                FROM inventory i
+                WHERE i.product_id IN (%s)
+                """.formatted(placeholders),
+                (rs, rowNum) -> new ReservedCheck(
+                        rs.getObject("product_id", UUID.class), rs.getInt("reserved"), rs.getInt("by_orders")),
+                productIds.toArray());
+    }
+
+    /**
+     * Sửa reserved khi đối soát phát hiện lệch; chỉ ghi nếu reserved chưa bị thay đổi kể từ lúc đọc.
+     */
+    public boolean compareAndSetReserved(UUID productId, int expected, int reserved) {
+        return jdbcTemplate.update("UPDATE inventory SET reserved = ? WHERE product_id = ? AND reserved = ?",
+                reserved, productId, expected) == 1;
+    }
+
+    /**
+     * productId -> onHand - reserved theo cơ sở dữ liệu.
+     */
+    public Map<UUID, Integer> findAvailable(Collection<UUID> productIds) {
+        Map<UUID, Integer> result = new HashMap<>();
+        if (productIds.isEmpty()) return result;
+
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        jdbcTemplate.query(
+                "SELECT product_id, on_hand - reserved AS available FROM inventory WHERE product_id IN (" + placeholders + ")",
+                rs -> {
+                    result.put(rs.getObject("product_id", UUID.class), rs.getInt("available"));
+                },
+                productIds.toArray());
+        return result;
+    }
+}
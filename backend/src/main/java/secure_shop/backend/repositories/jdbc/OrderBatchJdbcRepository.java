@@ -0,0 +1,240 @@
+package secure_shop.backend.repositories.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import secure_shop.backend.enums.OrderStatus;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Xác nhận / hủy / đổi trạng thái nhiều đơn trong một câu lệnh cho mỗi lô.
+ * Đơn được khóa theo thứ tự id và chỉ những đơn đang ở trạng thái nguồn hợp lệ (theo bảng OrderStatus)
+ * mới được cập nhật; số lượng được gộp theo sản phẩm trên cả lô rồi cập nhật tồn kho một lần.
+ * Tồn kho không bao giờ bị kẹp về 0: đơn nào không đủ hàng thì bị bỏ qua và báo lại cho bên gọi.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderBatchJdbcRepository {
+
+    private static final String CANDIDATES = """
+            WITH candidates AS (
+                SELECT id
+                FROM orders
+                WHERE id IN (:ids) AND status IN (:sources)
+                ORDER BY id
+                FOR UPDATE
+            )""";
+
+    /**
+     * Các CTE tìm đơn thiếu tồn kho trong một CTE tên candidates (đơn đã khóa), dùng chung với job hủy đơn.
+     * Khóa dòng tồn kho theo thứ tự id (cùng thứ tự với checkout), rồi cộng dồn số lượng theo thứ tự id đơn.
+     * Đơn làm lượng cộng dồn của một sản phẩm vượt quá giới hạn (%s) hoặc có sản phẩm không có dòng tồn kho
+     * thì bị bỏ qua cả đơn. Đơn sau một đơn thiếu hàng vẫn tính cả phần của đơn đó nên có thể bị bỏ qua
+     * dù thực ra còn đủ; chúng được báo lại để gửi lại ở lần sau.
+     */
+    static final String SHORT_ORDERS = """
+                demand AS (
+                    SELECT oi.order_id, oi.product_id, SUM(oi.quantity) AS qty
+                    FROM order_items oi
+                    JOIN candidates c ON c.id = oi.order_id
+                    GROUP BY oi.order_id, oi.product_id
+                ),
+                locked AS (
+                    SELECT i.product_id, i.on_hand, i.reserved
+                    FROM inventory i
+                    WHERE i.product_id IN (SELECT product_id FROM demand)
+                    ORDER BY i.id
+                    FOR UPDATE OF i
+                ),
+                short AS (
+                    SELECT DISTINCT d.order_id AS id
+                    FROM (
+                        SELECT order_id, product_id,
+                               SUM(qty) OVER (PARTITION BY product_id ORDER BY order_id) AS cumulative
+                        FROM demand
+                    ) d
+                    LEFT JOIN locked l ON l.product_id = d.product_id
+                    WHERE l.product_id IS NULL OR d.cumulative > %s
+                )""";
+
+    // Gộp số lượng theo sản phẩm của các đơn đã chuyển trạng thái
+    private static final String QTY = """
+                qty AS (
+                    SELECT oi.product_id, SUM(oi.quantity) AS qty
+                    FROM order_items oi
+                    JOIN target t ON t.id = oi.order_id
+                    GROUP BY oi.product_id
+                )""";
+
+    private static final String RESULT = """
+                SELECT (SELECT array_agg(id) FROM target) AS order_ids,
+                       (SELECT array_agg(product_id) FROM changed) AS product_ids,
+                       CAST(NULL AS uuid[]) AS discount_ids,
+                       (SELECT array_agg(id) FROM short) AS short_ids
+                """;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * @param updatedOrderIds các đơn đã chuyển trạng thái
+     * @param productIds      các sản phẩm có tồn kho thay đổi
+     * @param releasedDiscountIds mã giảm giá được trả lại, mỗi phần tử là một lượt (có thể lặp lại)
+     * @param shortOrderIds   các đơn đủ điều kiện trạng thái nhưng bị bỏ qua vì tồn kho không đủ
+     */
+    public record BatchResult(List<UUID> updatedOrderIds, List<UUID> productIds, List<UUID> releasedDiscountIds,
+                              List<UUID> shortOrderIds) {}
+
+    /**
+     * Chuyển sang WAITING_FOR_DELIVERY và trừ hẳn phần đã giữ (onHand và reserved cùng giảm).
+     * Đơn chỉ được xác nhận khi cả onHand và reserved đều đủ cho số lượng của nó.
+     */
+    public BatchResult confirmAll(Collection<UUID> orderIds) {
+        return namedParameterJdbcTemplate.queryForObject(CANDIDATES + """
+                ,
+                """ + SHORT_ORDERS.formatted("LEAST(l.on_hand, l.reserved)") + """
+                ,
+                target AS (
+                    UPDATE orders o
+                    SET status = 'WAITING_FOR_DELIVERY', confirmed_at = now(), updated_at = now(),
+                        version = o.version + 1
+                    FROM candidates c
+                    WHERE o.id = c.id AND c.id NOT IN (SELECT id FROM short)
+                    RETURNING o.id
+                ),
+                """ + QTY + """
+                ,
+                changed AS (
+                    UPDATE inventory i
+                    SET on_hand = i.on_hand - q.qty, reserved = i.reserved - q.qty
+                    FROM qty q
+                    WHERE i.product_id = q.product_id AND i.on_hand >= q.qty AND i.reserved >= q.qty
+                    RETURNING i.product_id
+                )
+                """ + RESULT,
+                params(orderIds, OrderStatus.WAITING_FOR_DELIVERY),
+                (rs, rowNum) -> toResult(rs));
+    }
+
+    /**
+     * Chuyển sang CANCELLED, trả lại phần đã giữ và lượt dùng mã giảm giá;
+     * đơn đã thanh toán được đánh dấu REFUNDED (cả payment).
+     * Đơn chỉ được hủy khi reserved còn đủ phần của nó; lệch thì để đối soát xử lý thay vì kẹp về 0.
+     */
+    public BatchResult cancelAll(Collection<UUID> orderIds) {
+        return namedParameterJdbcTemplate.queryForObject(CANDIDATES + """
+                ,
+                """ + SHORT_ORDERS.formatted("l.reserved") + """
+                ,
+                target AS (
+                    UPDATE orders o
+                    SET status = 'CANCELLED', cancelled_at = now(), updated_at = now(), version = o.version + 1,
+                        payment_status = CASE WHEN o.payment_status = 'PAID' THEN 'REFUNDED' ELSE o.payment_status END
+                    FROM candidates c
+                    WHERE o.id = c.id AND c.id NOT IN (SELECT id FROM short)
+                    RETURNING o.id, o.payment_status, o.discount_id, o.user_id
+                ),
+                refunded AS (
+                    UPDATE payments p
+                    SET status = 'REFUNDED', updated_at = now()
+                    FROM target t
+                    WHERE p.order_id = t.id AND t.payment_status = 'REFUNDED' AND p.status = 'PAID'
+                ),
+                """ + DiscountRedemptionJdbcRepository.RELEASE_USAGE_FOR_TARGET + """
+                ,
+                """ + QTY + """
+                ,
+                changed AS (
+                    UPDATE inventory i
+                    SET reserved = i.reserved - q.qty
+                    FROM qty q
+                    WHERE i.product_id = q.product_id AND i.reserved >= q.qty
+                    RETURNING i.product_id
+                )
+                SELECT (SELECT array_agg(id) FROM target) AS order_ids,
+                       (SELECT array_agg(product_id) FROM changed) AS product_ids,
+                       (SELECT array_agg(discount_id) FROM target WHERE discount_id IS NOT NULL) AS discount_ids,
+                       (SELECT array_agg(id) FROM short) AS short_ids
+                """,
+                params(orderIds, OrderStatus.CANCELLED),
+                (rs, rowNum) -> toResult(rs));
+    }
+
+    /**
+     * Đổi sang trạng thái không kéo theo thay đổi tồn kho (IN_TRANSIT, DELIVERED, ...).
+     * Đơn COD chuyển sang DELIVERED được ghi nhận đã thanh toán, giống changeOrderStatus.
+     */
+    public BatchResult changeStatusAll(Collection<UUID> orderIds, OrderStatus target) {
+        MapSqlParameterSource params = params(orderIds, target)
+                .addValue("target", target.name())
+                .addValue("codPaid", target == OrderStatus.DELIVERED);
+
+        return namedParameterJdbcTemplate.queryForObject(CANDIDATES + """
+                ,
+                target AS (
+                    UPDATE orders o
+                    SET status = :target, updated_at = now(), version = o.version + 1,
+                        has_paid = CASE WHEN cod.order_id IS NOT NULL THEN true ELSE o.has_paid END,
+                        payment_status = CASE WHEN cod.order_id IS NOT NULL THEN 'PAID' ELSE o.payment_status END,
+                        confirmed_at = CASE WHEN cod.order_id IS NOT NULL THEN COALESCE(o.confirmed_at, now())
+                                            ELSE o.confirmed_at END
+                    FROM candidates c
+                    LEFT JOIN payments cod ON cod.order_id = c.id AND cod.method = 'COD' AND :codPaid
+                    WHERE o.id = c.id
+                    RETURNING o.id, cod.order_id IS NOT NULL AS cod_paid
+                ),
+                paid AS (
+                    UPDATE payments p
+                    SET status = 'PAID', paid_at = now(), updated_at = now()
+                    FROM target t
+                    WHERE p.order_id = t.id AND t.cod_paid
+                )
+                SELECT (SELECT array_agg(id) FROM target) AS order_ids,
+                       CAST(NULL AS uuid[]) AS product_ids,
+                       CAST(NULL AS uuid[]) AS discount_ids,
+                       CAST(NULL AS uuid[]) AS short_ids
+                """,
+                params,
+                (rs, rowNum) -> toResult(rs));
+    }
+
+    /**
+     * Trạng thái hiện tại của các đơn, dùng để giải thích vì sao đơn không được cập nhật.
+     */
+    public Map<UUID, OrderStatus> findStatuses(Collection<UUID> orderIds) {
+        Map<UUID, OrderStatus> result = new HashMap<>();
+        if (orderIds.isEmpty()) return result;
+
+        namedParameterJdbcTemplate.query("SELECT id, status FROM orders WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", orderIds),
+                rs -> {
+                    result.put(rs.getObject("id", UUID.class), OrderStatus.valueOf(rs.getString("status")));
+                });
+        return result;
+    }
+
+    private static MapSqlParameterSource params(Collection<UUID> orderIds, OrderStatus target) {
+        List<String> sources = OrderStatus.sourcesOf(target).stream().map(Enum::name).toList();
+        return new MapSqlParameterSource()
+                .addValue("ids", orderIds)
+                .addValue("sources", sources);
+    }
+
+    private static BatchResult toResult(ResultSet rs) throws SQLException {
+        return new BatchResult(uuids(rs.getArray("order_ids")), uuids(rs.getArray("product_ids")),
+                uuids(rs.getArray("discount_ids")), uuids(rs.getArray("short_ids")));
+    }
+
+    private static List<UUID> uuids(Array array) throws SQLException {
+        return array == null ? List.of() : Arrays.asList((UUID[]) array.getArray());
+    }
+}
@@ -0,0 +1,142 @@
+package secure_shop.backend.repositories.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import secure_shop.backend.enums.PaymentMethod;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tìm và hủy các đơn PENDING chưa thanh toán đã quá hạn giữ hàng.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderReaperJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public record ExpiredOrder(UUID id, Instant createdAt) {}
+
+    /**
+     * @param releasedDiscountIds mã giảm giá được trả lại, mỗi phần tử là một lượt (có thể lặp lại)
+     * @param shortOrderIds       đơn quá hạn bị bỏ qua vì reserved không còn đủ phần của đơn
+     */
+    public record CancelResult(int cancelledOrders, List<UUID> releasedProductIds, List<UUID> releasedDiscountIds,
+                               List<UUID> shortOrderIds) {}
+
+    /**
+     * Lấy một lô đơn quá hạn sau vị trí (afterCreatedAt, afterId), theo thứ tự (created_at, id).
+     * Hạn giữ hàng tính theo phương thức thanh toán; đơn chưa có bản ghi payment dùng noPaymentTtl.
+     */
+    public List<ExpiredOrder> findExpiredBatch(Map<PaymentMethod, Duration> ttlByMethod, Duration noPaymentTtl,
+                                               Instant afterCreatedAt, UUID afterId, int limit) {
+        StringBuilder ttlValues = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        for (Map.Entry<PaymentMethod, Duration> entry : ttlByMethod.entrySet()) {
+            ttlValues.append(ttlValues.isEmpty() ? "" : ", ").append("(?, CAST(? AS bigint))");
+            args.add(entry.getKey().name());
+            args.add(entry.getValue().toSeconds());
+        }
+        args.add(noPaymentTtl.toSeconds());
+        args.add(Timestamp.from(afterCreatedAt));
+        args.add(Timestamp.from(afterCreatedAt));
+        args.add(afterId);
+        args.add(limit);
+
+        String sql = """
+                SELECT o.id, o.created_at
+                FROM orders o
+                LEFT JOIN payments p ON p.order_id = o.id
+                LEFT JOIN (VALUES %s) AS ttl(method, seconds) ON ttl.method = p.method
+                WHERE o.status = 'PENDING'
+                  AND o.has_paid = false
+                  AND o.payment_status <> 'PAID'
+                  AND o.created_at < now() - COALESCE(ttl.seconds, CAST(? AS bigint)) * interval '1 second'
+                  AND (o.created_at > ? OR (o.created_at = ? AND o.id > ?))
+                ORDER BY o.created_at, o.id
+                LIMIT ?
+                """.formatted(ttlValues);
+
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new ExpiredOrder(
+                        rs.getObject("id", UUID.class),
+                        rs.getTimestamp("created_at").toInstant()),
+                args.toArray());
+    }
+
+    /**
+     * Trong một câu lệnh: chuyển các đơn còn PENDING sang CANCELLED, đánh dấu payment chưa trả là FAILED,
+     * trả lại số lượng đã giữ cho tồn kho (khóa dòng tồn kho theo thứ tự id) và trả lại lượt dùng mã giảm giá.
+     * Đơn đã đổi trạng thái trong lúc chờ (vừa thanh toán, vừa bị hủy tay) sẽ bị bỏ qua.
+     * Đơn mà reserved không còn đủ để trả lại cũng bị bỏ qua (không kẹp về 0) và được báo lại,
+     * để đối soát tồn kho sửa reserved trước rồi lần chạy sau mới hủy.
+     */
+    public CancelResult cancelAndRelease(List<UUID> orderIds) {
+        if (orderIds.isEmpty()) return new CancelResult(0, List.of(), List.of(), List.of());
+
+        return namedParameterJdbcTemplate.queryForObject("""
+                WITH candidates AS (
+                    SELECT id
+                    FROM orders
+                    WHERE id IN (:ids) AND status = 'PENDING' AND payment_status <> 'PAID'
+                    ORDER BY id
+                    FOR UPDATE
+                ),
+                """ + OrderBatchJdbcRepository.SHORT_ORDERS.formatted("l.reserved") + """
+                ,
+                target AS (
+                    UPDATE orders o
+                    SET status = 'CANCELLED', cancelled_at = now(), updated_at = now(), version = o.version + 1
+                    FROM candidates c
+                    WHERE o.id = c.id AND c.id NOT IN (SELECT id FROM short)
+                    RETURNING o.id, o.discount_id, o.user_id
+                ),
+                failed_payments AS (
+                    UPDATE payments p
+                    SET status = 'FAILED', updated_at = now()
+                    FROM target t
+                    WHERE p.order_id = t.id AND p.status IN ('UNPAID', 'PENDING')
+                ),
+                """ + DiscountRedemptionJdbcRepository.RELEASE_USAGE_FOR_TARGET + """
+                ,
+                qty AS (
+                    SELECT oi.product_id, SUM(oi.quantity) AS qty
+                    FROM order_items oi
+                    JOIN target t ON t.id = oi.order_id
+                    GROUP BY oi.product_id
+                ),
+                released AS (
+                    UPDATE inventory i
+                    SET reserved = i.reserved - q.qty
+                    FROM qty q
+                    WHERE i.product_id = q.product_id AND i.reserved >= q.qty
+                    RETURNING i.product_id
+                )
+                SELECT (SELECT count(*) FROM target) AS cancelled,
+                       (SELECT array_agg(product_id) FROM released) AS product_ids,
+                       (SELECT array_agg(discount_id) FROM target WHERE discount_id IS NOT NULL) AS discount_ids,
+                       (SELECT array_agg(id) FROM short) AS short_ids
+                """,
+                new MapSqlParameterSource("ids", orderIds),
+                (rs, rowNum) -> new CancelResult(rs.getInt("cancelled"),
+                        uuids(rs.getArray("product_ids")), uuids(rs.getArray("discount_ids")),
+                        uuids(rs.getArray("short_ids"))));
+    }
+
+    private static List<UUID> uuids(Array array) throws SQLException {
+        return array == null ? List.of() : Arrays.asList((UUID[]) array.getArray());
+    }
+}
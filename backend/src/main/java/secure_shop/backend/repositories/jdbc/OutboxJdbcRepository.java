@@ -0,0 +1,96 @@
+package secure_shop.backend.repositories.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import secure_shop.backend.enums.OutboxEventType;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bảng outbox_events. Dòng được ghi cùng giao dịch nghiệp vụ và được dispatcher "thuê" (lease)
+ * bằng cách đẩy next_attempt_at về sau: nếu node đang xử lý bị tắt giữa chừng thì sau khi hết
+ * hạn thuê, dòng lại được lấy ra xử lý tiếp.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ClaimedEvent(long id, OutboxEventType type, UUID aggregateId, int attempts) {}
+
+    public record Backlog(long pending, long failed, Timestamp oldestPendingAt) {}
+
+    public void insert(OutboxEventType type, UUID aggregateId) {
+        jdbcTemplate.update("INSERT INTO outbox_events (event_type, aggregate_id) VALUES (?, ?)",
+                type.name(), aggregateId);
+    }
+
+    /**
+     * Lấy tối đa limit sự kiện đến hạn; các node khác bỏ qua dòng đang bị khóa (SKIP LOCKED).
+     */
+    public List<ClaimedEvent> claimBatch(int limit, Duration lease) {
+        return jdbcTemplate.query("""
+                UPDATE outbox_events e
+                SET next_attempt_at = now() + ? * interval '1 second'
+                FROM (
+                    SELECT id FROM outbox_events
+                    WHERE status = 'PENDING' AND next_attempt_at <= now()
+                    ORDER BY next_attempt_at, id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                ) c
+                WHERE e.id = c.id
+                RETURNING e.id, e.event_type, e.aggregate_id, e.attempts
+                """,
+                (rs, rowNum) -> new ClaimedEvent(
+                        rs.getLong("id"),
+                        OutboxEventType.valueOf(rs.getString("event_type")),
+                        rs.getObject("aggregate_id", UUID.class),
+                        rs.getInt("attempts")),
+                lease.toSeconds(), limit);
+    }
+
+    public void markDone(long id) {
+        jdbcTemplate.update(
+                "UPDATE outbox_events SET status = 'DONE', processed_at = now(), last_error = NULL WHERE id = ?", id);
+    }
+
+    public void markRetry(long id, Duration delay, String error) {
+        jdbcTemplate.update("""
+                UPDATE outbox_events
+                SET attempts = attempts + 1, next_attempt_at = now() + ? * interval '1 second', last_error = ?
+                WHERE id = ?
+                """, delay.toSeconds(), error, id);
+    }
+
+    public void markFailed(long id, String error) {
+        jdbcTemplate.update("""
+                UPDATE outbox_events
+                SET status = 'FAILED', attempts = attempts + 1, processed_at = now(), last_error = ?
+                WHERE id = ?
+                """, error, id);
+    }
+
+    public int deleteDoneBefore(Duration retention) {
+        return jdbcTemplate.update(
+                "DELETE FROM outbox_events WHERE status = 'DONE' AND processed_at < now() - ? * interval '1 second'",
+                retention.toSeconds());
+    }
+
+    public Backlog backlog() {
+        return jdbcTemplate.queryForObject("""
+                SELECT count(*) FILTER (WHERE status = 'PENDING') AS pending,
+                       count(*) FILTER (WHERE status = 'FAILED') AS failed,
+                       min(created_at) FILTER (WHERE status = 'PENDING') AS oldest_pending_at
+                FROM outbox_events
+                WHERE status <> 'DONE'
+                """,
+                (rs, rowNum) -> new Backlog(rs.getLong("pending"), rs.getLong("failed"),
+                        rs.getTimestamp("oldest_pending_at")));
+    }
+}
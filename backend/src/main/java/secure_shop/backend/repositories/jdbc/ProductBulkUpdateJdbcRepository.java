@@ -0,0 +1,101 @@
+package secure_shop.backend.repositories.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import secure_shop.backend.dto.product.request.ProductPriceStockUpdate;
+
+import java.util.*;
+
+/**
+ * Cập nhật giá/tồn kho hàng loạt theo SKU: mỗi lô là một câu UPDATE ... FROM (VALUES ...),
+ * không nạp entity và không chạm tới media_assets.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkUpdateJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * SKU -> ID của các sản phẩm chưa bị xóa trong danh sách.
+     */
+    public Map<String, UUID> findActiveIdsBySku(Collection<String> skus) {
+        Map<String, UUID> result = new HashMap<>();
+        if (skus.isEmpty()) return result;
+
+        namedParameterJdbcTemplate.query(
+                "SELECT id, sku FROM products WHERE sku IN (:skus) AND deleted_at IS NULL",
+                new MapSqlParameterSource("skus", skus),
+                rs -> {
+                    result.put(rs.getString("sku"), rs.getObject("id", UUID.class));
+                });
+        return result;
+    }
+
+    /**
+     * @return SKU của các sản phẩm đã cập nhật giá
+     */
+    public Set<String> updatePrices(List<ProductPriceStockUpdate> items) {
+        if (items.isEmpty()) return Set.of();
+
+        StringBuilder sql = new StringBuilder("""
+                UPDATE products p
+                SET price = COALESCE(v.price, p.price),
+                    listed_price = COALESCE(v.listed_price, p.listed_price),
+                    updated_at = now()
+                FROM (VALUES
+                """);
+        List<Object> args = new ArrayList<>(items.size() * 3);
+        for (int i = 0; i < items.size(); i++) {
+            ProductPriceStockUpdate item = items.get(i);
+            sql.append(i == 0 ? "" : ",\n").append("(?, CAST(? AS numeric), CAST(? AS numeric))");
+            args.add(item.getSku());
+            args.add(item.getPrice());
+            args.add(item.getListedPrice());
+        }
+        sql.append("""
+                ) AS v(sku, price, listed_price)
+                WHERE p.sku = v.sku AND p.deleted_at IS NULL
+                RETURNING p.sku
+                """);
+
+        return new HashSet<>(jdbcTemplate.queryForList(sql.toString(), String.class, args.toArray()));
+    }
+
+    /**
+     * Cộng delta vào onHand; dòng nào làm onHand nhỏ hơn reserved (hoặc âm) sẽ không được cập nhật.
+     *
+     * @return SKU của các sản phẩm đã cập nhật tồn kho
+     */
+    public Set<String> applyStockDeltas(List<ProductPriceStockUpdate> items) {
+        if (items.isEmpty()) return Set.of();
+
+        StringBuilder sql = new StringBuilder("""
+                UPDATE inventory i
+                SET on_hand = i.on_hand + v.delta
+                FROM (VALUES
+                """);
+        List<Object> args = new ArrayList<>(items.size() * 2);
+        for (int i = 0; i < items.size(); i++) {
+            ProductPriceStockUpdate item = items.get(i);
+            sql.append(i == 0 ? "" : ",\n").append("(?, CAST(? AS integer))");
+            args.add(item.getSku());
+            args.add(item.getOnHandDelta());
+        }
+        sql.append("""
+                ) AS v(sku, delta), products p
+                WHERE p.sku = v.sku
+                  AND p.deleted_at IS NULL
+                  AND i.product_id = p.id
+                  AND i.on_hand + v.delta >= i.reserved
+                  AND i.on_hand + v.delta >= 0
+                RETURNING p.sku
+                """);
+
+        return new HashSet<>(jdbcTemplate.queryForList(sql.toString(), String.class, args.toArray()));
+    }
+}
@@ -0,0 +1,142 @@
+package secure_shop.backend.repositories.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import secure_shop.backend.dto.product.ProductImportRow;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Ghi sản phẩm hàng loạt bằng JDBC batch (không qua persistence context của Hibernate).
+ * Cần reWriteBatchedInserts=true trên URL JDBC để driver Postgres gộp batch INSERT thành câu nhiều dòng.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportJdbcRepository {
+
+    private static final String UPSERT_PRODUCT_SQL = """
+            INSERT INTO products (id, sku, name, short_desc, long_desc, listed_price, price, active,
+                                  thumbnail_url, rating, review_count, brand_id, category_id,
+                                  created_at, updated_at, deleted_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?, ?, NULL)
+            ON CONFLICT (sku) DO UPDATE SET
+                name = EXCLUDED.name,
+                short_desc = EXCLUDED.short_desc,
+                long_desc = EXCLUDED.long_desc,
+                listed_price = EXCLUDED.listed_price,
+                price = EXCLUDED.price,
+                active = EXCLUDED.active,
+                thumbnail_url = EXCLUDED.thumbnail_url,
+                brand_id = EXCLUDED.brand_id,
+                category_id = EXCLUDED.category_id,
+                updated_at = EXCLUDED.updated_at,
+                deleted_at = NULL
+            """;
+
+    private static final String UPSERT_INVENTORY_SQL = """
+            INSERT INTO inventory (product_id, on_hand, reserved)
+            VALUES (?, ?, 0)
+            ON CONFLICT (product_id) DO UPDATE SET on_hand = EXCLUDED.on_hand
+            """;
+
+    private static final String DELETE_MEDIA_SQL = "DELETE FROM media_assets WHERE product_id = ?";
+
+    private static final String INSERT_MEDIA_SQL =
+            "INSERT INTO media_assets (url, alt_text, product_id) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Sản phẩm đã tồn tại (kể cả đã xóa mềm) theo SKU, kèm số lượng đang giữ chỗ.
+     */
+    public Map<String, ExistingProduct> findExistingBySku(Collection<String> skus) {
+        Map<String, ExistingProduct> result = new HashMap<>();
+        if (skus.isEmpty()) return result;
+
+        namedParameterJdbcTemplate.query("""
+                SELECT p.id, p.sku, i.reserved
+                FROM products p
+                LEFT JOIN inventory i ON i.product_id = p.id
+                WHERE p.sku IN (:skus)
+                """,
+                new MapSqlParameterSource("skus", skus),
+                rs -> {
+                    result.put(rs.getString("sku"), new ExistingProduct(
+                            rs.getObject("id", UUID.class),
+                            rs.getObject("reserved", Integer.class)));
+                });
+        return result;
+    }
+
+    public Set<Long> findBrandIds() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM brands", Long.class));
+    }
+
+    public Set<Long> findCategoryIds() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM categories", Long.class));
+    }
+
+    public void upsertProducts(List<ProductImportRow> rows, List<UUID> ids, Instant now) {
+        Timestamp timestamp = Timestamp.from(now);
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ProductImportRow row = rows.get(i);
+            args.add(new Object[]{
+                    ids.get(i),
+                    row.getSku(),
+                    row.getName(),
+                    row.getShortDesc(),
+                    row.getLongDesc(),
+                    row.getListedPrice(),
+                    row.getPrice(),
+                    row.getActive() == null || row.getActive(),
+                    row.getThumbnailUrl(),
+                    row.getBrandId(),
+                    row.getCategoryId(),
+                    timestamp,
+                    timestamp
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT_SQL, args);
+    }
+
+    public void upsertInventories(Map<UUID, Integer> onHandByProduct) {
+        if (onHandByProduct.isEmpty()) return;
+
+        List<Object[]> args = new ArrayList<>(onHandByProduct.size());
+        onHandByProduct.forEach((productId, onHand) -> args.add(new Object[]{productId, onHand}));
+        jdbcTemplate.batchUpdate(UPSERT_INVENTORY_SQL, args);
+    }
+
+    /**
+     * Thay toàn bộ ảnh của các sản phẩm đã cho bằng danh sách URL mới.
+     */
+    public void replaceMedia(Map<UUID, List<String>> mediaByProduct) {
+        if (mediaByProduct.isEmpty()) return;
+
+        List<Object[]> deleteArgs = new ArrayList<>(mediaByProduct.size());
+        List<Object[]> insertArgs = new ArrayList<>();
+        mediaByProduct.forEach((productId, urls) -> {
+            deleteArgs.add(new Object[]{productId});
+            for (String url : urls) {
+                insertArgs.add(new Object[]{url, null, productId});
+            }
+        });
+
+        jdbcTemplate.batchUpdate(DELETE_MEDIA_SQL, deleteArgs);
+        if (!insertArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MEDIA_SQL, insertArgs);
+        }
+    }
+
+    /**
+     * @param reserved null khi sản phẩm chưa có bản ghi tồn kho
+     */
+    public record ExistingProduct(UUID id, Integer reserved) {}
+}
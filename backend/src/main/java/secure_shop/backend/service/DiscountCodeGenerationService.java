@@ -0,0 +1,17 @@
+package secure_shop.backend.service;
+
+import secure_shop.backend.dto.discount.request.DiscountCodeGenerationRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface DiscountCodeGenerationService {
+
+    /**
+     * Sinh và lưu hàng loạt mã giảm giá dùng một lần, ghi danh sách mã ra luồng CSV theo từng lô đã commit.
+     * Kiểm tra tham số trước khi ghi byte đầu tiên, nên lỗi đầu vào vẫn trả về như response lỗi bình thường.
+     *
+     * @return số mã đã lưu
+     */
+    long generateCodes(DiscountCodeGenerationRequest request, OutputStream output) throws IOException;
+}
@@ -2,10 +2,19 @@ package secure_shop.backend.service;
 
 import jakarta.mail.MessagingException;
 import java.io.IOException;
+import secure_shop.backend.dto.order.OrderConfirmationEmailDTO;
 import secure_shop.backend.entities.Order;
 
 public interface EmailService {
     void sendResetPasswordEmail(String to, String resetLink) throws MessagingException, IOException;
     void sendVerificationEmail(String to, String verificationLink) throws MessagingException, IOException;
-    void sendOrderConfirmationEmail(Order order) throws MessagingException, IOException;
+
+    /**
+     * Đọc các dữ liệu cần cho email từ entity (gọi trong giao dịch vì có quan hệ lazy).
+     *
+     * @return null nếu đơn không có email người nhận
+     */
+    OrderConfirmationEmailDTO prepareOrderConfirmationEmail(Order order);
+
+    void sendOrderConfirmationEmail(OrderConfirmationEmailDTO email) throws MessagingException, IOException;
 }
\ No newline at end of file
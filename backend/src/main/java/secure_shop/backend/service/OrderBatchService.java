@@ -0,0 +1,15 @@
+package secure_shop.backend.service;
+
+import secure_shop.backend.dto.order.OrderBatchResultDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderBatchService {
+
+    OrderBatchResultDTO confirmOrders(List<UUID> orderIds);
+
+    OrderBatchResultDTO cancelOrders(List<UUID> orderIds);
+
+    OrderBatchResultDTO changeOrdersStatus(List<UUID> orderIds, String status);
+}
@@ -0,0 +1,20 @@
+package secure_shop.backend.service;
+
+import secure_shop.backend.enums.ExportFormat;
+import secure_shop.backend.enums.OrderStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+public interface OrderExportService {
+
+    /**
+     * Ghi đơn hàng trong khoảng [from, to) ra luồng CSV/JSON lines theo từng dòng đọc từ cursor,
+     * bộ nhớ dùng không phụ thuộc số đơn.
+     *
+     * @return số dòng đã ghi
+     */
+    long exportOrders(Instant from, Instant to, OrderStatus status, ExportFormat format, OutputStream output)
+            throws IOException;
+}
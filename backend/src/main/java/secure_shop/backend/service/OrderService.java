@@ -2,8 +2,10 @@ package secure_shop.backend.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import secure_shop.backend.dto.CursorPage;
 import secure_shop.backend.dto.order.OrderDTO;
 import secure_shop.backend.dto.order.OrderDetailsDTO;
+import secure_shop.backend.dto.order.OrderHistoryItemDTO;
 import secure_shop.backend.dto.order.OrderSummaryDTO;
 import secure_shop.backend.dto.order.request.OrderCreateRequest;
 
@@ -27,6 +29,8 @@ public interface OrderService {
 
     List<OrderSummaryDTO> getOrdersByUserId(UUID userId);
 
+    CursorPage<OrderHistoryItemDTO> getOrderHistory(UUID userId, String cursor, int limit);
+
     OrderDTO confirmOrder(UUID id);
 
     OrderDTO cancelOrder(UUID id);
@@ -0,0 +1,15 @@
+package secure_shop.backend.service;
+
+import secure_shop.backend.dto.product.ProductImportResultDTO;
+import secure_shop.backend.enums.ImportFormat;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    /**
+     * Nhập sản phẩm hàng loạt từ luồng CSV/JSON lines, đọc và ghi theo từng lô.
+     * Upsert theo SKU; dòng lỗi được bỏ qua và ghi vào báo cáo.
+     */
+    ProductImportResultDTO importProducts(InputStream input, ImportFormat format);
+}
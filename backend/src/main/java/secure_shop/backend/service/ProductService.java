@@ -2,16 +2,28 @@ package secure_shop.backend.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import secure_shop.backend.dto.CacheStatsDTO;
+import secure_shop.backend.dto.CursorPage;
+import secure_shop.backend.dto.product.ProductBatchDTO;
+import secure_shop.backend.dto.product.ProductBulkUpdateResultDTO;
 import secure_shop.backend.dto.product.ProductDTO;
 import secure_shop.backend.dto.product.ProductDetailsDTO;
+import secure_shop.backend.dto.product.ProductFacetsDTO;
+import secure_shop.backend.dto.product.ProductFilter;
 import secure_shop.backend.dto.product.ProductSummaryDTO;
+import secure_shop.backend.dto.product.SuggestionsDTO;
+import secure_shop.backend.dto.product.request.ProductPriceStockUpdate;
+import secure_shop.backend.enums.ProductCursorSort;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 public interface ProductService {
     ProductDTO getProductById(UUID id);
 
+    ProductBatchDTO getProductsByIds(List<UUID> ids);
+
     ProductDetailsDTO getProductDetailsById(UUID id);
 
     ProductDTO createProduct(ProductDetailsDTO dto);
@@ -31,5 +43,18 @@ public interface ProductService {
                                            String keyword,
                                            Pageable pageable);
 
+    CursorPage<ProductSummaryDTO> scrollProducts(ProductFilter filter,
+                                                 ProductCursorSort sort,
+                                                 String cursor,
+                                                 int limit);
+
+    ProductFacetsDTO getProductFacets(ProductFilter filter);
+
+    CacheStatsDTO getProductDetailsCacheStats();
+
+    SuggestionsDTO suggest(String query, int limit);
+
+    ProductBulkUpdateResultDTO bulkUpdatePricesAndStock(List<ProductPriceStockUpdate> items);
+
     Integer getTotalProductsCount();
 }
@@ -0,0 +1,143 @@
+package secure_shop.backend.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import secure_shop.backend.dto.discount.DiscountDTO;
+import secure_shop.backend.service.event.DiscountChangedEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache Redis cho danh sách mã giảm giá đang hiệu lực (GET /api/discounts/active).
+ * TTL không cố định mà bằng khoảng thời gian tới mốc startAt/endAt gần nhất của dữ liệu,
+ * nên danh sách được tính lại đúng lúc một khuyến mãi bắt đầu hoặc kết thúc.
+ * Thêm/sửa/xóa mã giảm giá (sau commit) xóa cache ngay và tăng bộ đếm phiên bản trên Redis;
+ * kết quả chỉ được ghi nếu phiên bản chưa đổi kể từ lúc bắt đầu đọc DB (kiểm tra ngay trong script SET),
+ * nên node đọc dữ liệu cũ không ghi đè được thay đổi vừa commit trên node khác.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveDiscountsCache {
+
+    private static final String KEY = "discounts:active";
+    private static final String VERSION_KEY = "discounts:active:version";
+
+    // KEYS: cache, version; ARGV: phiên bản lúc bắt đầu đọc, giá trị đã serialize, TTL (ms)
+    private static final DefaultRedisScript<Long> WRITE_IF_UNCHANGED_SCRIPT = new DefaultRedisScript<>("""
+            if (redis.call('get', KEYS[2]) or '0') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('del', KEYS[1])
+            return redis.call('incr', KEYS[2])
+            """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // Dùng khi không còn mốc nào phía trước (không có khuyến mãi sắp bắt đầu/kết thúc)
+    @Value("${app.cache.active-discounts.max-ttl:24h}")
+    private Duration maxTtl;
+
+    /**
+     * Danh sách mã đang hiệu lực kèm mốc thời gian gần nhất mà danh sách sẽ thay đổi (null nếu không có).
+     */
+    public record Snapshot(List<DiscountDTO> discounts, Instant validUntil) {}
+
+    public List<DiscountDTO> get(Supplier<Snapshot> loader) {
+        List<DiscountDTO> cached = read();
+        if (cached != null) {
+            return cached;
+        }
+
+        String startVersion = readVersion();
+        Snapshot loaded = loader.get();
+        if (startVersion != null) {
+            write(loaded, startVersion);
+        }
+        return loaded.discounts();
+    }
+
+    public void invalidate() {
+        try {
+            stringRedisTemplate.execute(INVALIDATE_SCRIPT, List.of(KEY, VERSION_KEY));
+        } catch (Exception ex) {
+            log.warn("Không thể xóa cache mã giảm giá đang hiệu lực: {}", ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiscountChanged(DiscountChangedEvent event) {
+        invalidate();
+    }
+
+    private List<DiscountDTO> read() {
+        try {
+            Object value = redisTemplate.opsForValue().get(KEY);
+            if (!(value instanceof List<?> list)) return null;
+
+            List<DiscountDTO> discounts = new ArrayList<>(list.size());
+            for (Object item : list) {
+                if (!(item instanceof DiscountDTO dto)) return null;
+                discounts.add(dto);
+            }
+            return discounts;
+        } catch (Exception ex) {
+            log.warn("Không đọc được cache mã giảm giá đang hiệu lực: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private String readVersion() {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+            return version != null ? version : "0";
+        } catch (Exception ex) {
+            log.warn("Không đọc được phiên bản cache mã giảm giá đang hiệu lực: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private void write(Snapshot snapshot, String startVersion) {
+        Duration ttl = maxTtl;
+        if (snapshot.validUntil() != null) {
+            Duration untilBoundary = Duration.between(Instant.now(), snapshot.validUntil());
+            if (untilBoundary.compareTo(ttl) < 0) {
+                ttl = untilBoundary;
+            }
+        }
+        // Mốc đã trôi qua trong lúc truy vấn: không cache, lần gọi sau sẽ đọc lại
+        if (ttl.isNegative() || ttl.isZero()) return;
+
+        try {
+            // Giá trị serialize giống opsForValue().set để read() đọc lại được
+            @SuppressWarnings("unchecked")
+            RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+            byte[] value = valueSerializer.serialize(new ArrayList<>(snapshot.discounts()));
+            redisTemplate.execute(WRITE_IF_UNCHANGED_SCRIPT, RedisSerializer.byteArray(), null,
+                    List.of(KEY, VERSION_KEY),
+                    startVersion.getBytes(StandardCharsets.UTF_8),
+                    value,
+                    String.valueOf(ttl.toMillis()).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception ex) {
+            log.warn("Không ghi được cache mã giảm giá đang hiệu lực: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package secure_shop.backend.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import secure_shop.backend.service.event.ArticleChangedEvent;
+import secure_shop.backend.service.event.BrandChangedEvent;
+import secure_shop.backend.service.event.CategoryChangedEvent;
+import secure_shop.backend.service.event.InventoryChangedEvent;
+import secure_shop.backend.service.event.ProductChangedEvent;
+import secure_shop.backend.service.event.ProductsBulkChangedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bộ đếm phiên bản của dữ liệu catalog trong Redis, dùng để sinh ETag cho các endpoint GET.
+ * Mỗi lần ghi (sau commit) tăng phiên bản của sản phẩm hoặc của cả bộ sưu tập, nên ETag được
+ * tính mà không cần đọc cơ sở dữ liệu.
+ * Giá trị khởi tạo là thời điểm hiện tại (ms) thay vì 0, để khi Redis mất dữ liệu thì phiên bản
+ * mới không trùng với ETag cũ mà client còn giữ.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogVersionService {
+
+    private static final String KEY_PREFIX = "catalog:version:";
+    private static final String PRODUCT_PREFIX = KEY_PREFIX + "product:";
+    private static final String PRODUCTS_BULK = KEY_PREFIX + "products-bulk";
+    private static final String BRANDS = KEY_PREFIX + "brands";
+    private static final String CATEGORIES = KEY_PREFIX + "categories";
+    private static final String ARTICLES = KEY_PREFIX + "articles";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.cache.catalog-version.product-ttl:30d}")
+    private Duration productTtl;
+
+    /**
+     * ETag cho chi tiết sản phẩm: phụ thuộc phiên bản của sản phẩm, của thương hiệu/danh mục
+     * (tên được nhúng trong DTO) và của các lần cập nhật hàng loạt.
+     * Trả về null khi Redis không khả dụng, bên gọi nên trả về 200 như bình thường.
+     */
+    public String productDetailsTag(UUID productId) {
+        List<String> versions = versions(List.of(PRODUCT_PREFIX + productId, BRANDS, CATEGORIES, PRODUCTS_BULK));
+        if (versions == null) return null;
+        return "\"p" + String.join(".", versions) + "\"";
+    }
+
+    public String brandsTag() {
+        return collectionTag("b", BRANDS);
+    }
+
+    public String categoriesTag() {
+        return collectionTag("c", CATEGORIES);
+    }
+
+    public String articlesTag() {
+        return collectionTag("a", ARTICLES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.productId() != null) bumpProduct(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        event.productIds().forEach(this::bumpProduct);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkChanged(ProductsBulkChangedEvent event) {
+        bump(PRODUCTS_BULK, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        bump(BRANDS, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        bump(CATEGORIES, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        bump(ARTICLES, null);
+    }
+
+    private String collectionTag(String prefix, String key) {
+        List<String> versions = versions(List.of(key));
+        if (versions == null) return null;
+        return "\"" + prefix + versions.get(0) + "\"";
+    }
+
+    private void bumpProduct(UUID productId) {
+        bump(PRODUCT_PREFIX + productId, productTtl);
+    }
+
+    private void bump(String key, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+            redisTemplate.opsForValue().increment(key);
+            if (ttl != null) {
+                redisTemplate.expire(key, ttl);
+            }
+        } catch (Exception ex) {
+            log.warn("Không tăng được phiên bản catalog {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private List<String> versions(List<String> keys) {
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null) return null;
+
+            List<String> result = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                String value = values.get(i);
+                if (value == null) {
+                    value = initialize(keys.get(i));
+                }
+                result.add(value);
+            }
+            return result;
+        } catch (Exception ex) {
+            log.warn("Không đọc được phiên bản catalog: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private String initialize(String key) {
+        String initial = String.valueOf(System.currentTimeMillis());
+        Duration ttl = key.startsWith(PRODUCT_PREFIX) ? productTtl : null;
+        Boolean created = ttl != null
+                ? redisTemplate.opsForValue().setIfAbsent(key, initial, ttl)
+                : redisTemplate.opsForValue().setIfAbsent(key, initial);
+        if (Boolean.TRUE.equals(created)) return initial;
+
+        String current = redisTemplate.opsForValue().get(key);
+        return current != null ? current : initial;
+    }
+}
@@ -0,0 +1,266 @@
+package secure_shop.backend.service.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import secure_shop.backend.dto.CacheStatsDTO;
+import secure_shop.backend.dto.product.ProductDetailsDTO;
+import secure_shop.backend.service.event.InventoryChangedEvent;
+import secure_shop.backend.service.event.ProductChangedEvent;
+import secure_shop.backend.service.event.ProductsBulkChangedEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache hai tầng cho chi tiết sản phẩm: L1 là LRU giới hạn kích thước trong heap của từng node,
+ * L2 là Redis dùng chung. Khi sản phẩm thay đổi, node xử lý xóa L1/L2 rồi phát tin trên
+ * kênh pub/sub để các node khác xóa L1 của mình.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductDetailsCache implements MessageListener {
+
+    private static final String KEY_PREFIX = "product:details:";
+    private static final String INVALIDATION_CHANNEL = "product:details:invalidate";
+    private static final String INVALIDATE_ALL = "*";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.cache.product-details.local-max-size:1000}")
+    private int localMaxSize;
+
+    @Value("${app.cache.product-details.ttl:30m}")
+    private Duration ttl;
+
+    private Map<UUID, ProductDetailsDTO> local;
+
+    // Phiên bản theo từng sản phẩm, tăng mỗi lần invalidate sản phẩm đó; dùng để không ghi dữ liệu cũ
+    // vào cache khi một lượt đọc DB chạy song song với cập nhật. Chỉ lượt đọc của đúng sản phẩm bị
+    // xóa mới bỏ ghi, các lượt miss khác vẫn được cache. Số phần tử tối đa bằng số sản phẩm.
+    private final ConcurrentHashMap<UUID, Long> versions = new ConcurrentHashMap<>();
+
+    // Tăng khi xóa toàn bộ cache (sau thao tác hàng loạt)
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        local = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, ProductDetailsDTO> eldest) {
+                if (size() > localMaxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public ProductDetailsDTO get(UUID id, Supplier<ProductDetailsDTO> loader) {
+        ProductDetailsDTO cached;
+        synchronized (local) {
+            cached = local.get(id);
+        }
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+
+        long startGeneration = generation.get();
+        long startVersion = versionOf(id);
+
+        cached = readRemote(id);
+        if (cached != null) {
+            remoteHits.increment();
+            putLocal(id, cached, startGeneration, startVersion);
+            return cached;
+        }
+
+        misses.increment();
+        ProductDetailsDTO loaded = loader.get();
+        if (unchanged(id, startGeneration, startVersion)) {
+            writeRemote(id, loaded);
+            putLocal(id, loaded, startGeneration, startVersion);
+        }
+        return loaded;
+    }
+
+    public void invalidate(UUID id) {
+        invalidate(List.of(id));
+    }
+
+    /**
+     * Xóa một nhóm sản phẩm bằng một lệnh DEL và một thông điệp pub/sub (các id cách nhau bởi dấu phẩy).
+     */
+    public void invalidate(Collection<UUID> ids) {
+        if (ids.isEmpty()) return;
+        invalidations.increment();
+        ids.forEach(this::evictLocal);
+        try {
+            redisTemplate.delete(ids.stream().map(id -> KEY_PREFIX + id).toList());
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    ids.stream().map(UUID::toString).collect(Collectors.joining(",")));
+        } catch (Exception ex) {
+            log.warn("Không thể xóa cache Redis cho sản phẩm {}: {}", ids, ex.getMessage());
+        }
+    }
+
+    /**
+     * Xóa toàn bộ cache chi tiết sản phẩm (dùng sau các thao tác hàng loạt).
+     */
+    public void invalidateAll() {
+        invalidations.increment();
+        clearLocal();
+        try {
+            ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+            try (Cursor<String> keys = redisTemplate.scan(options)) {
+                List<String> batch = new ArrayList<>();
+                while (keys.hasNext()) {
+                    batch.add(keys.next());
+                    if (batch.size() == 1000) {
+                        redisTemplate.delete(batch);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    redisTemplate.delete(batch);
+                }
+            }
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, INVALIDATE_ALL);
+        } catch (Exception ex) {
+            log.warn("Không thể xóa toàn bộ cache Redis chi tiết sản phẩm: {}", ex.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.productId() != null) invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        invalidate(event.productIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkChanged(ProductsBulkChangedEvent event) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (INVALIDATE_ALL.equals(body)) {
+            clearLocal();
+            return;
+        }
+        try {
+            for (String id : body.split(",")) {
+                evictLocal(UUID.fromString(id));
+            }
+        } catch (IllegalArgumentException ex) {
+            log.warn("Bỏ qua thông điệp invalidate không hợp lệ trên kênh {}", INVALIDATION_CHANNEL);
+        }
+    }
+
+    public CacheStatsDTO getStats() {
+        int size;
+        synchronized (local) {
+            size = local.size();
+        }
+        long hits = localHits.sum() + remoteHits.sum();
+        long total = hits + misses.sum();
+        return CacheStatsDTO.builder()
+                .name("product_details")
+                .localSize(size)
+                .localMaxSize(localMaxSize)
+                .localHits(localHits.sum())
+                .remoteHits(remoteHits.sum())
+                .misses(misses.sum())
+                .evictions(evictions.sum())
+                .invalidations(invalidations.sum())
+                .hitRatio(total == 0 ? 0.0 : (double) hits / total)
+                .build();
+    }
+
+    private void evictLocal(UUID id) {
+        versions.merge(id, 1L, Long::sum);
+        synchronized (local) {
+            local.remove(id);
+        }
+    }
+
+    private void clearLocal() {
+        generation.incrementAndGet();
+        synchronized (local) {
+            local.clear();
+        }
+    }
+
+    private void putLocal(UUID id, ProductDetailsDTO dto, long startGeneration, long startVersion) {
+        synchronized (local) {
+            if (unchanged(id, startGeneration, startVersion)) {
+                local.put(id, dto);
+            }
+        }
+    }
+
+    private long versionOf(UUID id) {
+        return versions.getOrDefault(id, 0L);
+    }
+
+    private boolean unchanged(UUID id, long startGeneration, long startVersion) {
+        return generation.get() == startGeneration && versionOf(id) == startVersion;
+    }
+
+    private ProductDetailsDTO readRemote(UUID id) {
+        try {
+            Object value = redisTemplate.opsForValue().get(KEY_PREFIX + id);
+            return value instanceof ProductDetailsDTO dto ? dto : null;
+        } catch (Exception ex) {
+            log.warn("Không đọc được cache Redis cho sản phẩm {}: {}", id, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(UUID id, ProductDetailsDTO dto) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + id, dto, ttl);
+        } catch (Exception ex) {
+            log.warn("Không ghi được cache Redis cho sản phẩm {}: {}", id, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package secure_shop.backend.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import secure_shop.backend.dto.product.ProductFacetScope;
+import secure_shop.backend.dto.product.ProductFacetsDTO;
+import secure_shop.backend.dto.product.ProductFilter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Cache facet sản phẩm (cache "product_facets") với khóa gắn phiên bản theo phạm vi lọc.
+ * Facet lọc theo danh mục C chỉ đổi khi một sản phẩm thuộc C thay đổi, tương tự với thương hiệu;
+ * facet không lọc theo cả hai thì đổi theo mọi sản phẩm. Mỗi phạm vi có một bộ đếm trên Redis,
+ * khóa cache chứa phiên bản của các phạm vi mà bộ lọc dùng, nên tăng bộ đếm là đủ để bỏ các khóa
+ * bị ảnh hưởng (khóa cũ tự hết hạn theo TTL của cache) mà không phải quét hay xóa cả cache.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductFacetsCache {
+
+    private static final String CACHE_NAME = "product_facets";
+    private static final String VERSION_PREFIX = "product_facets:version:";
+    private static final String ALL = VERSION_PREFIX + "all";
+    private static final String CATEGORY_PREFIX = VERSION_PREFIX + "category:";
+    private static final String BRAND_PREFIX = VERSION_PREFIX + "brand:";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Đọc facet từ cache hoặc tính bằng loader. Không đọc được phiên bản (Redis lỗi) thì tính trực tiếp.
+     */
+    public ProductFacetsDTO get(ProductFilter filter, Supplier<ProductFacetsDTO> loader) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        String version = cache != null ? version(filter) : null;
+        if (version == null) {
+            return loader.get();
+        }
+        return cache.get(filter.cacheKey() + "|v=" + version, loader::get);
+    }
+
+    /**
+     * Bỏ các facet có thể chứa những sản phẩm thuộc các phạm vi này.
+     */
+    public void evict(Collection<ProductFacetScope> scopes) {
+        if (scopes.isEmpty()) return;
+
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(ALL);
+        for (ProductFacetScope scope : scopes) {
+            if (scope.categoryId() != null) keys.add(CATEGORY_PREFIX + scope.categoryId());
+            if (scope.brandId() != null) keys.add(BRAND_PREFIX + scope.brandId());
+        }
+        for (String key : keys) {
+            try {
+                redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+                redisTemplate.opsForValue().increment(key);
+            } catch (Exception ex) {
+                log.warn("Không tăng được phiên bản facet {}: {}", key, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Xóa toàn bộ cache facet (dựng lại read model, đổi tên danh mục/thương hiệu).
+     */
+    public void evictAll() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private String version(ProductFilter filter) {
+        List<String> keys = new ArrayList<>(2);
+        if (filter.getCategoryId() != null) keys.add(CATEGORY_PREFIX + filter.getCategoryId());
+        if (filter.getBrandId() != null) keys.add(BRAND_PREFIX + filter.getBrandId());
+        if (keys.isEmpty()) keys.add(ALL);
+
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null) return null;
+
+            List<String> versions = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                String value = values.get(i);
+                versions.add(value != null ? value : initialize(keys.get(i)));
+            }
+            return String.join(".", versions);
+        } catch (Exception ex) {
+            log.warn("Không đọc được phiên bản facet: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    // Khởi tạo bằng thời điểm hiện tại để khi Redis mất bộ đếm, phiên bản mới không trùng khóa cũ còn trong cache
+    private String initialize(String key) {
+        String initial = String.valueOf(System.currentTimeMillis());
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, initial))) return initial;
+        String current = redisTemplate.opsForValue().get(key);
+        return current != null ? current : initial;
+    }
+}
@@ -0,0 +1,368 @@
+package secure_shop.backend.service.discount;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import secure_shop.backend.dto.discount.DiscountCodeEntry;
+import secure_shop.backend.dto.discount.DiscountCodeIndexStatsDTO;
+import secure_shop.backend.entities.Discount;
+import secure_shop.backend.repositories.DiscountRepository;
+import secure_shop.backend.service.event.DiscountChangedEvent;
+import secure_shop.backend.utils.BloomFilter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chỉ mục mã giảm giá trong bộ nhớ, đặt trước DiscountRepository.findByCode.
+ * Bloom filter chứa mọi mã đã biết nên mã đoán bừa (bot dò mã) bị loại mà không chạm tới DB;
+ * các mã đang hiệu lực có thể dùng nhiều lần được giữ kèm khoảng thời gian áp dụng để tra theo id.
+ * Mã dùng một lần (sinh hàng loạt, có thể tới hàng trăm nghìn) chỉ nằm trong Bloom filter và được tra bằng
+ * khóa unique trong DB, để không tốn bộ nhớ heap theo số mã đã phát.
+ * Thêm/sửa/xóa một mã (sau commit) chỉ vá đúng mục đó trên bản sao của chỉ mục. Thay đổi không rõ mã
+ * (sinh hàng loạt) và thay đổi trên node khác (báo qua bộ đếm phiên bản trong Redis) chỉ nạp thêm các mã
+ * có updated_at mới hơn lần nạp trước, trên luồng của TaskScheduler. Dựng lại toàn bộ chỉ chạy lúc khởi động,
+ * định kỳ (thưa, để bỏ các mã đã xóa) hoặc khi Bloom filter đã đầy so với kích thước lúc dựng.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiscountCodeIndex {
+
+    private static final String VERSION_KEY = "discount:codes:version";
+    // updated_at lấy lúc câu lệnh chạy, giao dịch có thể commit muộn hơn: nạp lùi lại một khoảng để không sót
+    private static final Duration REFRESH_LOOKBACK = Duration.ofMinutes(1);
+
+    private final DiscountRepository discountRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${app.discounts.code-index.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.discounts.code-index.fallback-refresh-interval:30s}")
+    private Duration fallbackRefreshInterval;
+
+    private volatile Snapshot snapshot;
+    private volatile String builtVersion;
+    // Lần gần nhất đọc DB (dựng lại hoặc nạp thêm), dùng khi không đọc được phiên bản trong Redis
+    private volatile Instant loadedAt;
+
+    // Nhiều thay đổi dồn lại trong lúc chờ chỉ cần một lần nạp
+    private final AtomicBoolean refreshQueued = new AtomicBoolean(false);
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean(false);
+    // Công bố snapshot (dựng lại, nạp thêm hoặc vá) luôn đi qua khóa này để các bên không ghi đè nhau
+    private final Object swapLock = new Object();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * @param capacity  số mã Bloom filter được dựng cho; vượt quá thì tỉ lệ dương tính giả tăng nên cần dựng lại
+     * @param watermark updated_at lớn nhất đã nạp, mốc cho lần nạp thêm kế tiếp
+     */
+    private record Snapshot(BloomFilter bloom, int capacity, Map<String, DiscountCodeEntry> active,
+                            int knownCodes, Instant watermark, Instant builtAt) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.discounts.code-index.rebuild-interval:6h}",
+            initialDelayString = "${app.discounts.code-index.rebuild-interval:6h}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        String version = currentVersion();
+        List<DiscountCodeEntry> entries;
+        try {
+            entries = discountRepository.findAllCodeEntries();
+        } catch (Exception ex) {
+            log.error("Không thể xây dựng chỉ mục mã giảm giá, sẽ truy vấn trực tiếp DB", ex);
+            return;
+        }
+
+        // Dư chỗ cho các mã tạo thêm trước lần dựng lại kế tiếp
+        int capacity = Math.max(1024, entries.size() * 2);
+        BloomFilter bloom = new BloomFilter(capacity, falsePositiveRate);
+        Map<String, DiscountCodeEntry> active = new HashMap<>();
+        Instant now = Instant.now();
+        Instant watermark = null;
+        for (DiscountCodeEntry entry : entries) {
+            bloom.put(entry.code());
+            if (isIndexed(entry, now)) {
+                active.put(entry.code(), entry);
+            }
+            watermark = later(watermark, entry.updatedAt());
+        }
+
+        synchronized (swapLock) {
+            this.snapshot = new Snapshot(bloom, capacity, Map.copyOf(active), entries.size(), watermark, now);
+            this.builtVersion = version;
+            this.loadedAt = now;
+        }
+        log.info("Discount code index built: {} codes, {} active in {} ms",
+                entries.size(), active.size(), System.currentTimeMillis() - start);
+        refreshIfMoved(version);
+    }
+
+    /**
+     * Nạp thêm các mã được tạo/sửa từ lần nạp trước (theo updated_at), không đọc lại cả bảng.
+     */
+    public synchronized void refresh() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            return;
+        }
+
+        String version = currentVersion();
+        Instant since = current.watermark() != null ? current.watermark().minus(REFRESH_LOOKBACK) : Instant.EPOCH;
+        Instant startedAt = Instant.now();
+        List<DiscountCodeEntry> entries;
+        try {
+            entries = discountRepository.findCodeEntriesUpdatedSince(since);
+        } catch (Exception ex) {
+            log.warn("Không nạp thêm được mã giảm giá vào chỉ mục: {}", ex.getMessage());
+            return;
+        }
+
+        synchronized (swapLock) {
+            apply(entries, null);
+            if (version != null) {
+                this.builtVersion = version;
+            }
+            this.loadedAt = startedAt;
+        }
+        log.debug("Discount code index refreshed with {} codes updated since {}", entries.size(), since);
+        refreshIfMoved(version);
+    }
+
+    /**
+     * Thay đổi trên node khác được báo qua bộ đếm trong Redis; kiểm tra thường xuyên vì rẻ (một GET).
+     * Không đọc được bộ đếm (Redis lỗi) thì không biết node khác có đổi gì, nên nạp thêm theo updated_at
+     * sau mỗi fallback-refresh-interval; nếu không, mã mới tạo ở node khác bị Bloom filter báo
+     * "không tồn tại" cho tới lần dựng lại toàn bộ.
+     */
+    @Scheduled(fixedDelayString = "${app.discounts.code-index.version-check-interval:5s}")
+    public void refreshIfChanged() {
+        if (snapshot == null) return;
+        String version = currentVersion();
+        if (version == null) {
+            Instant last = loadedAt;
+            if (last == null || !last.plus(fallbackRefreshInterval).isAfter(Instant.now())) {
+                refresh();
+            }
+            return;
+        }
+        if (!version.equals(builtVersion)) {
+            refresh();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiscountChanged(DiscountChangedEvent event) {
+        String version = null;
+        try {
+            version = String.valueOf(redisTemplate.opsForValue().increment(VERSION_KEY));
+        } catch (Exception ex) {
+            log.warn("Không tăng được phiên bản mã giảm giá: {}", ex.getMessage());
+        }
+
+        if (event.discountId() == null || !patch(event.discountId(), version)) {
+            scheduleRefresh();
+        }
+    }
+
+    /**
+     * Cập nhật một mã trên bản sao của chỉ mục hiện tại rồi công bố bản mới.
+     * Mã bị xóa chỉ bị bỏ khỏi danh sách đang hiệu lực; Bloom filter vẫn giữ nó tới lần dựng lại
+     * (chỉ làm tra cứu mã đó rơi xuống DB).
+     *
+     * @return false nếu chưa có chỉ mục hoặc không đọc được mã, khi đó cần nạp lại
+     */
+    private boolean patch(UUID discountId, String version) {
+        if (snapshot == null) return false;
+
+        Optional<DiscountCodeEntry> changed;
+        try {
+            changed = discountRepository.findCodeEntryById(discountId);
+        } catch (Exception ex) {
+            log.warn("Không đọc được mã giảm giá {} để cập nhật chỉ mục: {}", discountId, ex.getMessage());
+            return false;
+        }
+
+        // Chỉ giữ khóa trong lúc chép và thay bản chỉ mục (nhanh), không chờ lần nạp đang chạy
+        synchronized (swapLock) {
+            apply(changed.map(List::of).orElse(List.of()), discountId);
+            // Chỉ coi là đã đồng bộ nếu không có thay đổi nào khác chen vào giữa (phiên bản tăng đúng 1)
+            if (version != null && builtVersion != null && isNext(builtVersion, version)) {
+                this.builtVersion = version;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Áp các mã đã đọc lên bản sao của snapshot hiện tại. Gọi trong swapLock.
+     *
+     * @param removedId mã cần bỏ khỏi danh sách đang hiệu lực trước khi áp (mã vừa sửa/xóa), có thể null
+     */
+    private void apply(List<DiscountCodeEntry> entries, UUID removedId) {
+        Snapshot current = snapshot;
+        Map<String, DiscountCodeEntry> active = new HashMap<>(current.active());
+        if (removedId != null) {
+            active.values().removeIf(entry -> entry.id().equals(removedId));
+        }
+
+        BloomFilter bloom = current.bloom();
+        boolean copied = false;
+        int knownCodes = current.knownCodes();
+        Instant watermark = current.watermark();
+        Instant now = Instant.now();
+        for (DiscountCodeEntry entry : entries) {
+            if (!bloom.mightContain(entry.code())) {
+                if (!copied) {
+                    bloom = bloom.copy();
+                    copied = true;
+                }
+                bloom.put(entry.code());
+                knownCodes++;
+            }
+            // Mã đổi code thì mục cũ theo code cũ phải bỏ
+            active.values().removeIf(existing -> existing.id().equals(entry.id()));
+            if (isIndexed(entry, now)) {
+                active.put(entry.code(), entry);
+            }
+            watermark = later(watermark, entry.updatedAt());
+        }
+
+        this.snapshot = new Snapshot(bloom, current.capacity(), Map.copyOf(active), knownCodes, watermark,
+                current.builtAt());
+        if (knownCodes > current.capacity()) {
+            scheduleRebuild();
+        }
+    }
+
+    // Có thay đổi khác trong lúc đọc DB thì bản vừa công bố có thể thiếu thay đổi đó: nạp thêm lần nữa
+    private void refreshIfMoved(String version) {
+        String latest = currentVersion();
+        if (version != null && latest != null && !latest.equals(version)) {
+            scheduleRefresh();
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshQueued.compareAndSet(false, true)) return;
+        taskScheduler.schedule(() -> {
+            refreshQueued.set(false);
+            refresh();
+        }, Instant.now());
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) return;
+        taskScheduler.schedule(() -> {
+            rebuildQueued.set(false);
+            rebuild();
+        }, Instant.now());
+    }
+
+    /**
+     * Thay cho discountRepository.findByCode. Mã chắc chắn không tồn tại trả về rỗng mà không truy vấn DB;
+     * mã đang hiệu lực được nạp theo khóa chính.
+     */
+    public Optional<Discount> findByCode(String code) {
+        Snapshot current = snapshot;
+        if (current == null || code == null) {
+            return discountRepository.findByCode(code);
+        }
+
+        lookups.increment();
+        if (!current.bloom().mightContain(code)) {
+            rejected.increment();
+            return Optional.empty();
+        }
+
+        DiscountCodeEntry entry = current.active().get(code);
+        if (entry != null && entry.isValidAt(Instant.now())) {
+            hits.increment();
+            Optional<Discount> discount = discountRepository.findById(entry.id());
+            if (discount.isPresent()) return discount;
+        }
+
+        // Mã hết hạn / tạm dừng / chưa bắt đầu hoặc dương tính giả: hỏi DB để có câu trả lời chính xác
+        misses.increment();
+        Optional<Discount> discount = discountRepository.findByCode(code);
+        if (discount.isEmpty()) {
+            falsePositives.increment();
+        }
+        return discount;
+    }
+
+    public DiscountCodeIndexStatsDTO getStats() {
+        Snapshot current = snapshot;
+        long total = lookups.sum();
+        long passed = total - rejected.sum();
+        return DiscountCodeIndexStatsDTO.builder()
+                .ready(current != null)
+                .knownCodes(current != null ? current.knownCodes() : 0)
+                .activeCodes(current != null ? current.active().size() : 0)
+                .bloomBits(current != null ? current.bloom().bitSize() : 0)
+                .builtAt(current != null ? current.builtAt() : null)
+                .lookups(total)
+                .rejected(rejected.sum())
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .falsePositives(falsePositives.sum())
+                .rejectRate(ratio(rejected.sum(), total))
+                .hitRate(ratio(hits.sum(), total))
+                .falsePositiveRate(ratio(falsePositives.sum(), passed))
+                .build();
+    }
+
+    private String currentVersion() {
+        try {
+            return Objects.toString(redisTemplate.opsForValue().get(VERSION_KEY), "0");
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private static boolean isIndexed(DiscountCodeEntry entry, Instant now) {
+        return !entry.isSingleUse()
+                && !Boolean.FALSE.equals(entry.active())
+                && (entry.endAt() == null || entry.endAt().isAfter(now));
+    }
+
+    private static Instant later(Instant current, Instant candidate) {
+        if (candidate == null) return current;
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private static boolean isNext(String previous, String version) {
+        try {
+            return Long.parseLong(version) == Long.parseLong(previous) + 1;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    private static double ratio(long part, long total) {
+        return total == 0 ? 0.0 : (double) part / total;
+    }
+}
@@ -0,0 +1,173 @@
+package secure_shop.backend.service.discount;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import secure_shop.backend.repositories.jdbc.DiscountRedemptionJdbcRepository;
+import secure_shop.backend.repositories.jdbc.DiscountRedemptionJdbcRepository.DiscountQuota;
+import secure_shop.backend.service.event.DiscountChangedEvent;
+import secure_shop.backend.service.event.DiscountQuotaAcquiredEvent;
+import secure_shop.backend.service.event.DiscountUsageReleasedEvent;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Hạn mức lượt dùng trên Redis cho các mã giảm giá có giới hạn tổng (maxUsage).
+ * Mỗi mã là một bộ đếm số lượt còn lại; lấy lượt là một script Lua (kiểm tra + DECR nguyên tử),
+ * nên khi mã đã hết thì đơn bị từ chối ngay, không phải chạy giao dịch đặt hàng tới câu UPDATE discounts.
+ * Đây chỉ là lớp chặn trước: câu UPDATE có điều kiện trong DiscountRedemptionJdbcRepository vẫn là nơi
+ * quyết định cuối cùng, nên bộ đếm lệch (node chết giữa chừng, đối soát chạy khi còn đơn đang xử lý)
+ * chỉ làm nhận thêm hoặc từ chối sớm vài đơn cho tới lần đối soát kế tiếp, không làm vượt giới hạn.
+ * Bộ đếm hết hạn đúng lúc mã kết thúc; mã không có bộ đếm thì đi thẳng xuống DB như trước.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiscountQuotaLedger {
+
+    private static final String MANAGED_KEY = "discount:quota:managed";
+    private static final String REMAINING_PREFIX = "discount:quota:remaining:";
+
+    // Trả về -1 nếu mã không được quản lý trên Redis, 0 nếu đã hết lượt, 1 nếu lấy được một lượt
+    private static final DefaultRedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local remaining = redis.call('get', KEYS[1])
+            if not remaining then
+                return -1
+            end
+            if tonumber(remaining) <= 0 then
+                return 0
+            end
+            redis.call('decr', KEYS[1])
+            return 1
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 0 then
+                return -1
+            end
+            return redis.call('incr', KEYS[1])
+            """, Long.class);
+
+    // KEYS: managed, remaining; ARGV: discountId, số lượt còn lại theo DB, endAt (epoch ms).
+    // Trả về giá trị trước khi ghi (-1 nếu chưa có).
+    private static final DefaultRedisScript<Long> SYNC_SCRIPT = new DefaultRedisScript<>("""
+            local previous = tonumber(redis.call('get', KEYS[2]) or '-1')
+            redis.call('set', KEYS[2], ARGV[2])
+            redis.call('pexpireat', KEYS[2], ARGV[3])
+            redis.call('sadd', KEYS[1], ARGV[1])
+            return previous
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final DiscountRedemptionJdbcRepository discountRedemptionRepository;
+
+    public enum Admission {
+        /** Mã không có bộ đếm trên Redis (không giới hạn, hết hạn, hoặc Redis lỗi): kiểm tra trong DB */
+        UNMANAGED,
+        ACQUIRED,
+        SOLD_OUT
+    }
+
+    /**
+     * Lấy một lượt dùng của mã.
+     *
+     * @throws org.springframework.dao.DataAccessException khi Redis không khả dụng
+     */
+    public Admission tryAcquire(UUID discountId) {
+        Long result = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(REMAINING_PREFIX + discountId));
+        if (result == null || result < 0) return Admission.UNMANAGED;
+        return result == 0 ? Admission.SOLD_OUT : Admission.ACQUIRED;
+    }
+
+    public void release(UUID discountId) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(REMAINING_PREFIX + discountId));
+    }
+
+    /**
+     * Trả lại lượt đã lấy khi giao dịch tạo đơn bị rollback.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onOrderRolledBack(DiscountQuotaAcquiredEvent event) {
+        releaseQuietly(event.discountId());
+    }
+
+    /**
+     * Trả lại lượt sau khi đơn bị hủy đã commit (discounts.used đã được giảm trong cùng giao dịch).
+     */
+    @TransactionalEventListener
+    public void onUsageReleased(DiscountUsageReleasedEvent event) {
+        releaseQuietly(event.discountId());
+    }
+
+    /**
+     * Mã vừa thêm/sửa/xóa: nạp lại bộ đếm từ DB, hoặc bỏ quản lý nếu mã không còn giới hạn / không còn hiệu lực.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiscountChanged(DiscountChangedEvent event) {
+        if (event.discountId() == null) return;
+        try {
+            discountRedemptionRepository.findQuota(event.discountId())
+                    .ifPresentOrElse(this::sync, () -> unmanage(event.discountId()));
+        } catch (Exception ex) {
+            // Đối soát định kỳ sẽ đưa bộ đếm về đúng với DB
+            log.error("Failed to refresh discount quota {}", event.discountId(), ex);
+        }
+    }
+
+    /**
+     * Đặt lại bộ đếm của mọi mã có giới hạn theo maxUsage - used trong DB và bỏ các mã không còn đủ điều kiện.
+     *
+     * @return số mã đang được quản lý
+     */
+    public int reconcile() {
+        List<DiscountQuota> quotas = discountRedemptionRepository.findQuotas();
+        Set<String> current = new HashSet<>();
+        for (DiscountQuota quota : quotas) {
+            current.add(quota.discountId().toString());
+            long previous = sync(quota);
+            if (previous >= 0 && previous != quota.remaining()) {
+                log.warn("Discount quota drift {} for discount {} (redis={}, db={}), corrected",
+                        previous - quota.remaining(), quota.discountId(), previous, quota.remaining());
+            }
+        }
+
+        Set<String> managed = redisTemplate.opsForSet().members(MANAGED_KEY);
+        if (managed != null) {
+            for (String member : managed) {
+                if (!current.contains(member)) {
+                    unmanage(UUID.fromString(member));
+                }
+            }
+        }
+        return quotas.size();
+    }
+
+    private long sync(DiscountQuota quota) {
+        Long previous = redisTemplate.execute(SYNC_SCRIPT,
+                List.of(MANAGED_KEY, REMAINING_PREFIX + quota.discountId()),
+                quota.discountId().toString(),
+                String.valueOf(quota.remaining()),
+                String.valueOf(quota.endAt().toEpochMilli()));
+        return previous != null ? previous : -1;
+    }
+
+    private void unmanage(UUID discountId) {
+        redisTemplate.opsForSet().remove(MANAGED_KEY, discountId.toString());
+        redisTemplate.delete(REMAINING_PREFIX + discountId);
+    }
+
+    private void releaseQuietly(UUID discountId) {
+        try {
+            release(discountId);
+        } catch (Exception ex) {
+            log.error("Failed to release discount quota for {}", discountId, ex);
+        }
+    }
+}
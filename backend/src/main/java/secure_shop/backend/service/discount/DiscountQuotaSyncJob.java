@@ -0,0 +1,42 @@
+package secure_shop.backend.service.discount;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import secure_shop.backend.service.lock.DistributedLock;
+
+import java.time.Duration;
+
+/**
+ * Đối soát hạn mức mã giảm giá trên Redis với discounts.used theo chu kỳ, chỉ chạy ở một node.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiscountQuotaSyncJob {
+
+    private static final String LOCK_NAME = "discount-quota-sync";
+
+    private final DiscountQuotaLedger ledger;
+    private final DistributedLock distributedLock;
+
+    @Value("${app.discounts.quota.lock-ttl:1m}")
+    private Duration lockTtl;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.discounts.quota.reconcile-interval:30s}",
+            initialDelayString = "${app.discounts.quota.reconcile-interval:30s}")
+    public void reconcile() {
+        distributedLock.runExclusively(LOCK_NAME, lockTtl, () -> {
+            try {
+                ledger.reconcile();
+            } catch (Exception ex) {
+                log.error("Discount quota reconciliation failed", ex);
+            }
+        });
+    }
+}
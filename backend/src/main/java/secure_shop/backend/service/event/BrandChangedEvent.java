@@ -0,0 +1,3 @@
+package secure_shop.backend.service.event;
+
+public record BrandChangedEvent(Long brandId) {}
@@ -0,0 +1,3 @@
+package secure_shop.backend.service.event;
+
+public record CategoryChangedEvent(Long categoryId) {}
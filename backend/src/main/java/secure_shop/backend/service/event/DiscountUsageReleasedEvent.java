@@ -0,0 +1,5 @@
+package secure_shop.backend.service.event;
+
+import java.util.UUID;
+
+public record DiscountUsageReleasedEvent(UUID discountId) {}
@@ -0,0 +1,9 @@
+package secure_shop.backend.service.event;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hàng đã được trả lại trong inventory.reserved (hủy đơn); sổ flash sale cộng lại sau khi commit.
+ */
+public record FlashSaleReleasedEvent(Map<UUID, Integer> quantities) {}
@@ -0,0 +1,6 @@
+package secure_shop.backend.service.event;
+
+import java.util.Map;
+import java.util.UUID;
+
+public record FlashSaleReservedEvent(String holdToken, Map<UUID, Integer> quantities) {}
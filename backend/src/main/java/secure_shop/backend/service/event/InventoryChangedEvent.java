@@ -0,0 +1,19 @@
+package secure_shop.backend.service.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tồn kho của một nhóm sản phẩm đã thay đổi. Mỗi giao dịch phát một sự kiện cho cả nhóm
+ * (ví dụ mọi sản phẩm trong một đơn) để bên nghe xử lý gộp một lần.
+ */
+public record InventoryChangedEvent(Set<UUID> productIds) {
+
+    public InventoryChangedEvent {
+        productIds = Set.copyOf(productIds);
+    }
+
+    public static InventoryChangedEvent of(UUID productId) {
+        return new InventoryChangedEvent(Set.of(productId));
+    }
+}
@@ -0,0 +1,5 @@
+package secure_shop.backend.service.event;
+
+import secure_shop.backend.enums.OutboxEventType;
+
+public record OutboxEnqueuedEvent(OutboxEventType type) {}
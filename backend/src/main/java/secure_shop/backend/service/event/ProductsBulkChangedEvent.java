@@ -0,0 +1,7 @@
+package secure_shop.backend.service.event;
+
+/**
+ * Phát ra sau các thao tác hàng loạt (nhập sản phẩm, cập nhật giá/tồn kho);
+ * các chỉ mục/read model dựng lại toàn bộ thay vì xử lý từng sản phẩm.
+ */
+public record ProductsBulkChangedEvent(long changedCount) {}
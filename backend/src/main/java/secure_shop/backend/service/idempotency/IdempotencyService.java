@@ -0,0 +1,190 @@
+package secure_shop.backend.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import secure_shop.backend.exception.ConflictException;
+import secure_shop.backend.exception.InvalidOperationException;
+import secure_shop.backend.utils.HashUtil;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Xử lý header Idempotency-Key cho các request ghi (ví dụ tạo đơn hàng).
+ * Request đầu tiên đặt một bản ghi "đang xử lý" bằng SET NX; khi xong thì ghi đè bằng kết quả
+ * và giữ trong Redis theo TTL. Request trùng đến trong lúc đang xử lý sẽ chờ kết quả,
+ * request trùng đến sau được trả lời thẳng từ Redis mà không chạm tới cơ sở dữ liệu.
+ * Cùng một key nhưng nội dung request khác sẽ bị từ chối.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.in-flight-ttl:60s}")
+    private Duration inFlightTtl;
+
+    @Value("${app.idempotency.result-ttl:24h}")
+    private Duration resultTtl;
+
+    @Value("${app.idempotency.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    /**
+     * Chạy action đúng một lần cho mỗi (scope, idempotencyKey).
+     * Khi không có key thì chạy action như bình thường.
+     *
+     * @param scope phạm vi của key, thường là loại thao tác kèm ID người dùng
+     */
+    public <T> T execute(String scope, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidOperationException("Idempotency-Key tối đa " + MAX_KEY_LENGTH + " ký tự");
+        }
+
+        String key = KEY_PREFIX + scope + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        String token = UUID.randomUUID().toString();
+
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long backoffMs = 50;
+        while (true) {
+            Boolean acquired;
+            try {
+                acquired = redisTemplate.opsForValue()
+                        .setIfAbsent(key, IdempotencyRecord.inFlight(token, fingerprint), inFlightTtl);
+            } catch (Exception ex) {
+                log.warn("Redis không khả dụng, bỏ qua Idempotency-Key {}: {}", key, ex.getMessage());
+                return action.get();
+            }
+
+            if (Boolean.TRUE.equals(acquired)) {
+                return runAndStore(key, token, fingerprint, action);
+            }
+
+            IdempotencyRecord existing;
+            try {
+                existing = read(key);
+            } catch (Exception ex) {
+                // Key đang do request khác giữ nên không được chạy action lần nữa; client thử lại sau
+                log.warn("Không đọc được Idempotency-Key {} khi chờ kết quả: {}", key, ex.getMessage());
+                throw new ConflictException("Request với Idempotency-Key này vẫn đang được xử lý, vui lòng thử lại sau");
+            }
+            if (existing != null) {
+                if (!fingerprint.equals(existing.getFingerprint())) {
+                    throw new ConflictException("Idempotency-Key đã được dùng cho một request khác");
+                }
+                if (existing.isCompleted()) {
+                    @SuppressWarnings("unchecked")
+                    T response = (T) existing.getResponse();
+                    return response;
+                }
+            }
+            // existing == null: request trước vừa thất bại và đã xóa key, thử giành lại
+
+            if (System.nanoTime() >= deadline) {
+                throw new ConflictException("Request với Idempotency-Key này vẫn đang được xử lý, vui lòng thử lại sau");
+            }
+            sleep(backoffMs);
+            backoffMs = Math.min(backoffMs * 2, 500);
+        }
+    }
+
+    private <T> T runAndStore(String key, String token, String fingerprint, Supplier<T> action) {
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException ex) {
+            // Giao dịch đã rollback nên cho phép client thử lại với cùng key
+            release(key, token);
+            throw ex;
+        }
+
+        try {
+            redisTemplate.opsForValue().set(key, IdempotencyRecord.completed(token, fingerprint, response), resultTtl);
+        } catch (Exception ex) {
+            log.warn("Không lưu được kết quả cho Idempotency-Key {}: {}", key, ex.getMessage());
+            keepInFlight(key);
+        }
+        return response;
+    }
+
+    // Action đã chạy nhưng không lưu được kết quả: giữ bản ghi "đang xử lý" suốt thời hạn của kết quả,
+    // để request trùng nhận 409 thay vì chạy action lần nữa khi bản ghi hết hạn sau in-flight-ttl
+    private void keepInFlight(String key) {
+        try {
+            redisTemplate.expire(key, resultTtl);
+        } catch (Exception ex) {
+            log.error("Không gia hạn được Idempotency-Key {}, request trùng có thể bị xử lý lại: {}",
+                    key, ex.getMessage());
+        }
+    }
+
+    private void release(String key, String token) {
+        try {
+            IdempotencyRecord current = read(key);
+            if (current != null && token.equals(current.getToken())) {
+                redisTemplate.delete(key);
+            }
+        } catch (Exception ex) {
+            log.warn("Không xóa được Idempotency-Key {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private IdempotencyRecord read(String key) {
+        Object value = redisTemplate.opsForValue().get(key);
+        return value instanceof IdempotencyRecord record ? record : null;
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return HashUtil.sha256(objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Không thể đọc nội dung request", ex);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Request với Idempotency-Key này vẫn đang được xử lý, vui lòng thử lại sau");
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IdempotencyRecord {
+        private String token;
+        private String fingerprint;
+        private boolean completed;
+        private Object response;
+
+        static IdempotencyRecord inFlight(String token, String fingerprint) {
+            return new IdempotencyRecord(token, fingerprint, false, null);
+        }
+
+        static IdempotencyRecord completed(String token, String fingerprint, Object response) {
+            return new IdempotencyRecord(token, fingerprint, true, response);
+        }
+    }
+}
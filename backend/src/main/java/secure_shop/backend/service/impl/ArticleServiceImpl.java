@@ -4,6 +4,7 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -18,6 +19,7 @@ import secure_shop.backend.entities.User;
 import secure_shop.backend.mapper.ArticleMapper;
 import secure_shop.backend.repositories.ArticleRepository;
 import secure_shop.backend.service.ArticleService;
+import secure_shop.backend.service.event.ArticleChangedEvent;
 
 import java.util.UUID;
 
@@ -28,6 +30,7 @@ public class ArticleServiceImpl implements ArticleService {
 
     private final ArticleRepository articleRepository;
     private final ArticleMapper articleMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -57,6 +60,7 @@ public class ArticleServiceImpl implements ArticleService {
     public ArticleDTO createArticle(CreateArticleRequest req, User admin) {
         Article article = articleMapper.fromCreateRequest(req, admin);
         Article saved = articleRepository.save(article);
+        eventPublisher.publishEvent(new ArticleChangedEvent(saved.getId()));
         return articleMapper.toDTO(saved);
     }
 
@@ -72,12 +76,15 @@ public class ArticleServiceImpl implements ArticleService {
         article.setSummary(req.getSummary());
         article.setContent(req.getContent());
         article.setActive(req.getActive());
-        return articleMapper.toDTO(articleRepository.save(article));
+        Article saved = articleRepository.save(article);
+        eventPublisher.publishEvent(new ArticleChangedEvent(id));
+        return articleMapper.toDTO(saved);
     }
 
     @Override
     @CacheEvict(value = {"article_by_slug", "articles_active"}, allEntries = true)
     public void deleteArticle(UUID id) {
         articleRepository.deleteById(id);
+        eventPublisher.publishEvent(new ArticleChangedEvent(id));
     }
 }
\ No newline at end of file
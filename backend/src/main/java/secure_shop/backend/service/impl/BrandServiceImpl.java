@@ -1,6 +1,7 @@
 package secure_shop.backend.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -12,6 +13,7 @@ import secure_shop.backend.exception.ResourceNotFoundException;
 import secure_shop.backend.mapper.BrandMapper;
 import secure_shop.backend.repositories.BrandRepository;
 import secure_shop.backend.service.BrandService;
+import secure_shop.backend.service.event.BrandChangedEvent;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +21,7 @@ public class BrandServiceImpl implements BrandService {
 
     private final BrandRepository brandRepository;
     private final BrandMapper brandMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -45,7 +48,9 @@ public class BrandServiceImpl implements BrandService {
             throw new ResourceAlreadyExistsException("Brand name already exists: " + dto.getName());
         }
         Brand brand = brandMapper.toEntity(dto);
-        return brandMapper.toDTO(brandRepository.save(brand));
+        Brand saved = brandRepository.save(brand);
+        eventPublisher.publishEvent(new BrandChangedEvent(saved.getId()));
+        return brandMapper.toDTO(saved);
     }
 
     @Override
@@ -58,12 +63,15 @@ public class BrandServiceImpl implements BrandService {
             throw new ResourceAlreadyExistsException("Brand name already exists: " + dto.getName());
         }
         brand.setName(dto.getName());
-        return brandMapper.toDTO(brandRepository.save(brand));
+        Brand saved = brandRepository.save(brand);
+        eventPublisher.publishEvent(new BrandChangedEvent(id));
+        return brandMapper.toDTO(saved);
     }
 
     @Override
     @Transactional
     public void deleteBrand(Long id) {
         brandRepository.deleteById(id);
+        eventPublisher.publishEvent(new BrandChangedEvent(id));
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -15,6 +16,7 @@ import secure_shop.backend.entities.Category;
 import secure_shop.backend.mapper.CategoryMapper;
 import secure_shop.backend.repositories.CategoryRepository;
 import secure_shop.backend.service.CategoryService;
+import secure_shop.backend.service.event.CategoryChangedEvent;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,6 +29,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Page<CategoryDTO> getAllCategories(Pageable pageable, Boolean active) {
@@ -66,7 +69,9 @@ public class CategoryServiceImpl implements CategoryService {
     @Transactional
     public CategoryDTO create(CategoryDTO dto) {
         Category category = categoryMapper.toEntity(dto);
-        return categoryMapper.toDTO(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+        return categoryMapper.toDTO(saved);
     }
 
     @Override
@@ -82,7 +87,9 @@ public class CategoryServiceImpl implements CategoryService {
         category.setName(dto.getName());
         category.setDescription(dto.getDescription());
         category.setImageUrl(dto.getImageUrl());
-        return categoryMapper.toDTO(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+        return categoryMapper.toDTO(saved);
     }
 
     @Override
@@ -90,5 +97,6 @@ public class CategoryServiceImpl implements CategoryService {
     @Transactional
     public void delete(Long id) {
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
     }
 }
\ No newline at end of file
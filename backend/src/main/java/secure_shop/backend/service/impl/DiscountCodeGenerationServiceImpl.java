@@ -0,0 +1,168 @@
+package secure_shop.backend.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import secure_shop.backend.dto.discount.request.DiscountCodeGenerationRequest;
+import secure_shop.backend.exception.InvalidOperationException;
+import secure_shop.backend.exception.ServiceUnavailableException;
+import secure_shop.backend.repositories.jdbc.DiscountCodeJdbcRepository;
+import secure_shop.backend.service.DiscountCodeGenerationService;
+import secure_shop.backend.service.event.DiscountChangedEvent;
+import secure_shop.backend.utils.CodeEncoder;
+import secure_shop.backend.utils.CsvWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DiscountCodeGenerationServiceImpl implements DiscountCodeGenerationService {
+
+    // Không gian mã phải lớn gấp ít nhất chừng này lần số mã phát ra, để đoán bừa gần như không trúng
+    private static final long MIN_SPACE_PER_CODE = 1000;
+    // Mã trùng với mã tạo tay rất hiếm; quá số lần bù này thì coi như không gian mã có vấn đề
+    private static final int MAX_TOP_UP_ROUNDS = 5;
+    private static final int MIN_SECRET_LENGTH = 16;
+
+    private final DiscountCodeJdbcRepository discountCodeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.discounts.codes.secret:}")
+    private String secret;
+
+    @Value("${app.discounts.codes.chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * Thiếu khóa hoán vị chỉ làm hỏng chức năng sinh mã (trả 503), không chặn cả ứng dụng khởi động,
+     * vì application-secret.properties là tùy chọn; ở đây chỉ cảnh báo sớm.
+     */
+    @PostConstruct
+    void checkSecret() {
+        if (!hasValidSecret()) {
+            log.warn("app.discounts.codes.secret is missing or shorter than {} characters, "
+                    + "discount code generation is disabled", MIN_SECRET_LENGTH);
+        }
+    }
+
+    @Override
+    public long generateCodes(DiscountCodeGenerationRequest request, OutputStream output) throws IOException {
+        if (!hasValidSecret()) {
+            throw new ServiceUnavailableException("Chức năng sinh mã giảm giá chưa được cấu hình (app.discounts.codes.secret)");
+        }
+        if (!request.getStartAt().isBefore(request.getEndAt())) {
+            throw new InvalidOperationException("Thời gian bắt đầu phải trước thời gian kết thúc");
+        }
+        String prefix = request.getPrefix() != null ? request.getPrefix() : "";
+        if (prefix.length() + request.getLength() > 50) {
+            throw new InvalidOperationException("Mã giảm giá tối đa 50 ký tự (tính cả tiền tố)");
+        }
+
+        CodeEncoder encoder;
+        try {
+            encoder = new CodeEncoder(request.getAlphabet(), request.getLength(), secret);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidOperationException(ex.getMessage());
+        }
+        int count = request.getCount();
+        if (encoder.space() / MIN_SPACE_PER_CODE < count) {
+            throw new InvalidOperationException("Không gian mã quá nhỏ cho " + count + " mã, hãy tăng độ dài mã");
+        }
+
+        long start = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord(List.of("code"));
+
+        long inserted = 0;
+        try {
+            // Mã trùng với mã đã có bị ON CONFLICT bỏ qua: cấp thêm số thứ tự mới để bù cho đủ count mã
+            for (int round = 0; inserted < count; round++) {
+                if (round > MAX_TOP_UP_ROUNDS) {
+                    throw new IllegalStateException("Chỉ sinh được " + inserted + "/" + count
+                            + " mã sau " + MAX_TOP_UP_ROUNDS + " lần bù mã trùng");
+                }
+                if (round > 0) {
+                    log.warn("{} generated discount codes collided with existing codes, topping up",
+                            count - inserted);
+                }
+                inserted += generateRound((int) (count - inserted), prefix, encoder, request, csv, writer);
+            }
+        } finally {
+            // Chỉ mục mã và cache danh sách mã cần thấy các mã đã commit, kể cả khi dừng giữa chừng
+            if (inserted > 0) {
+                eventPublisher.publishEvent(new DiscountChangedEvent(null));
+            }
+        }
+
+        writer.flush();
+        log.info("Generated {} discount codes with prefix '{}' in {} ms",
+                inserted, prefix, System.currentTimeMillis() - start);
+        return inserted;
+    }
+
+    private boolean hasValidSecret() {
+        return secret != null && !secret.isBlank() && secret.length() >= MIN_SECRET_LENGTH;
+    }
+
+    /**
+     * Sinh và ghi {@code count} mã từ các khối số thứ tự mới cấp.
+     *
+     * @return số mã thực sự được ghi (ít hơn count nếu có mã trùng)
+     */
+    private long generateRound(int count, String prefix, CodeEncoder encoder, DiscountCodeGenerationRequest request,
+                               CsvWriter csv, Writer writer) throws IOException {
+        int blockSize = DiscountCodeJdbcRepository.BLOCK_SIZE;
+        List<Long> blocks = discountCodeRepository.allocateBlocks((count + blockSize - 1) / blockSize);
+        long lastSequence = (blocks.get(blocks.size() - 1) + 1) * blockSize;
+        if (lastSequence > encoder.space()) {
+            throw new InvalidOperationException("Không gian mã với độ dài này đã dùng hết, hãy tăng độ dài mã");
+        }
+
+        long inserted = 0;
+        int remaining = count;
+        List<String> chunk = new ArrayList<>(Math.min(chunkSize, count));
+        for (long block : blocks) {
+            for (int offset = 0; offset < blockSize && remaining > 0; offset++, remaining--) {
+                chunk.add(prefix + encoder.encode(block * blockSize + offset));
+                if (chunk.size() == chunkSize) {
+                    inserted += writeChunk(chunk, request, csv, writer);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            inserted += writeChunk(chunk, request, csv, writer);
+        }
+        return inserted;
+    }
+
+    /**
+     * Mỗi lô một giao dịch; mã chỉ được ghi ra CSV sau khi lô đã commit.
+     */
+    private int writeChunk(List<String> chunk, DiscountCodeGenerationRequest request, CsvWriter csv, Writer writer)
+            throws IOException {
+        List<String> saved = transactionTemplate.execute(status ->
+                discountCodeRepository.insertSingleUse(chunk, request));
+        chunk.clear();
+        if (saved == null) return 0;
+
+        for (String code : saved) {
+            csv.writeRecord(List.of(code));
+        }
+        writer.flush();
+        return saved.size();
+    }
+}
@@ -1,6 +1,7 @@
 package secure_shop.backend.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,11 @@ import secure_shop.backend.entities.Discount;
 import secure_shop.backend.mapper.DiscountMapper;
 import secure_shop.backend.repositories.DiscountRepository;
 import secure_shop.backend.service.DiscountService;
+import secure_shop.backend.service.cache.ActiveDiscountsCache;
+import secure_shop.backend.service.discount.DiscountCodeIndex;
+import secure_shop.backend.service.event.DiscountChangedEvent;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -23,12 +28,16 @@ public class DiscountServiceImpl implements DiscountService {
 
     private final DiscountRepository discountRepository;
     private final DiscountMapper discountMapper;
+    private final DiscountCodeIndex discountCodeIndex;
+    private final ActiveDiscountsCache activeDiscountsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public DiscountDTO createDiscount(DiscountDTO discountDTO) {
         Discount discount = discountMapper.toEntity(discountDTO);
         Discount savedDiscount = discountRepository.save(discount);
+        eventPublisher.publishEvent(new DiscountChangedEvent(savedDiscount.getId()));
         return discountMapper.toDTO(savedDiscount);
     }
 
@@ -40,6 +49,7 @@ public class DiscountServiceImpl implements DiscountService {
 
         discountMapper.updateEntityFromDTO(discountDTO, discount);
         Discount updatedDiscount = discountRepository.save(discount);
+        eventPublisher.publishEvent(new DiscountChangedEvent(id));
         return discountMapper.toDTO(updatedDiscount);
     }
 
@@ -50,6 +60,7 @@ public class DiscountServiceImpl implements DiscountService {
             throw new RuntimeException("Discount not found with id: " + id);
         }
         discountRepository.deleteById(id);
+        eventPublisher.publishEvent(new DiscountChangedEvent(id));
     }
 
     @Override
@@ -81,15 +92,18 @@ public class DiscountServiceImpl implements DiscountService {
 
     @Override
     public List<DiscountDTO> getActiveDiscounts() {
-        return discountRepository.findAll().stream()
-                .filter(Discount::getActive)
-                .map(discountMapper::toDTO)
-                .collect(Collectors.toList());
+        return activeDiscountsCache.get(() -> {
+            Instant now = Instant.now();
+            List<DiscountDTO> discounts = discountRepository.findActiveAt(now).stream()
+                    .map(discountMapper::toDTO)
+                    .collect(Collectors.toList());
+            return new ActiveDiscountsCache.Snapshot(discounts, discountRepository.findNextBoundaryAfter(now));
+        });
     }
 
     @Override
     public DiscountDetailsDTO applyDiscountCode(String code) {
-        Discount discount = discountRepository.findByCode(code)
+        Discount discount = discountCodeIndex.findByCode(code)
                 .orElseThrow(() -> new RuntimeException("Mã giảm giá không tồn tại: " + code));
 
         if (!discount.getActive()) {
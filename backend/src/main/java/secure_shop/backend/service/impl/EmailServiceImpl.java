@@ -10,6 +10,7 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
+import secure_shop.backend.dto.order.OrderConfirmationEmailDTO;
 import secure_shop.backend.entities.Order;
 import secure_shop.backend.entities.OrderItem;
 import secure_shop.backend.enums.PaymentStatus;
@@ -72,39 +73,14 @@ public class EmailServiceImpl implements EmailService {
     }
 
     @Override
-    public void sendOrderConfirmationEmail(Order order) throws MessagingException, IOException {
+    public OrderConfirmationEmailDTO prepareOrderConfirmationEmail(Order order) {
         if (order == null || order.getUser() == null || order.getUser().getEmail() == null) {
             log.warn("Skip sending order email: missing user/email. orderId={}", order != null ? order.getId() : null);
-            return;
+            return null;
         }
 
-        Context context = new Context(new Locale("vi", "VN"));
-        context.setVariable("orderId", order.getId());
-        context.setVariable("customerName", order.getUser().getName());
-        String createdAtStr = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
-            .withLocale(new Locale("vi", "VN"))
-            .withZone(ZoneId.systemDefault())
-            .format(order.getCreatedAt());
-        context.setVariable("createdAt", createdAtStr);
-
-        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("vi", "VN"));
-        context.setVariable("subTotal", formatCurrency(order.getSubTotal(), currencyFormat));
-        context.setVariable("discountTotal", formatCurrency(order.getDiscountTotal(), currencyFormat));
-        context.setVariable("shippingFee", formatCurrency(order.getShippingFee(), currencyFormat));
-        context.setVariable("grandTotal", formatCurrency(order.getGrandTotal(), currencyFormat));
-        context.setVariable("paymentStatus", order.getPaymentStatus());
-        context.setVariable("hasPaid", order.getHasPaid() ? "ĐÃ THANH TOÁN" : "CHƯA THANH TOÁN");
-        context.setVariable("isPaidLabel", order.getPaymentStatus() == PaymentStatus.PAID ? "PAID" : "UNPAID");
-        context.setVariable("orderStatus", order.getStatus());
-        if (order.getPayment() != null && order.getPayment().getMethod() != null) {
-            context.setVariable("paymentMethod", order.getPayment().getMethod());
-        } else {
-            context.setVariable("paymentMethod", "N/A");
-        }
-        String orderLink = frontendBaseUrl.replaceAll("/$", "") + "/orders/" + order.getId();
-        context.setVariable("orderLink", orderLink);
-
         // Shipping address map -> join for display
+        String address = "(Không có địa chỉ)";
         if (order.getShippingAddress() != null && !order.getShippingAddress().isEmpty()) {
             StringBuilder addressBuilder = new StringBuilder();
             order.getShippingAddress().forEach((k, v) -> {
@@ -112,14 +88,55 @@ public class EmailServiceImpl implements EmailService {
                     addressBuilder.append(v).append(", ");
                 }
             });
-            String address = addressBuilder.length() > 2 ? addressBuilder.substring(0, addressBuilder.length() - 2) : "";
-            context.setVariable("shippingAddress", address);
-        } else {
-            context.setVariable("shippingAddress", "(Không có địa chỉ)");
+            address = addressBuilder.length() > 2 ? addressBuilder.substring(0, addressBuilder.length() - 2) : "";
         }
 
+        return OrderConfirmationEmailDTO.builder()
+                .orderId(order.getId())
+                .email(order.getUser().getEmail())
+                .customerName(order.getUser().getName())
+                .createdAt(order.getCreatedAt())
+                .subTotal(order.getSubTotal())
+                .discountTotal(order.getDiscountTotal())
+                .shippingFee(order.getShippingFee())
+                .grandTotal(order.getGrandTotal())
+                .paymentStatus(order.getPaymentStatus())
+                .hasPaid(Boolean.TRUE.equals(order.getHasPaid()))
+                .orderStatus(order.getStatus())
+                .paymentMethod(order.getPayment() != null && order.getPayment().getMethod() != null
+                        ? order.getPayment().getMethod().name() : "N/A")
+                .shippingAddress(address)
+                .items(order.getOrderItems().stream().map(this::mapItem).toList())
+                .build();
+    }
+
+    @Override
+    public void sendOrderConfirmationEmail(OrderConfirmationEmailDTO email) throws MessagingException, IOException {
+        Context context = new Context(new Locale("vi", "VN"));
+        context.setVariable("orderId", email.getOrderId());
+        context.setVariable("customerName", email.getCustomerName());
+        String createdAtStr = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")
+            .withLocale(new Locale("vi", "VN"))
+            .withZone(ZoneId.systemDefault())
+            .format(email.getCreatedAt());
+        context.setVariable("createdAt", createdAtStr);
+
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("vi", "VN"));
+        context.setVariable("subTotal", formatCurrency(email.getSubTotal(), currencyFormat));
+        context.setVariable("discountTotal", formatCurrency(email.getDiscountTotal(), currencyFormat));
+        context.setVariable("shippingFee", formatCurrency(email.getShippingFee(), currencyFormat));
+        context.setVariable("grandTotal", formatCurrency(email.getGrandTotal(), currencyFormat));
+        context.setVariable("paymentStatus", email.getPaymentStatus());
+        context.setVariable("hasPaid", email.isHasPaid() ? "ĐÃ THANH TOÁN" : "CHƯA THANH TOÁN");
+        context.setVariable("isPaidLabel", email.getPaymentStatus() == PaymentStatus.PAID ? "PAID" : "UNPAID");
+        context.setVariable("orderStatus", email.getOrderStatus());
+        context.setVariable("paymentMethod", email.getPaymentMethod());
+        String orderLink = frontendBaseUrl.replaceAll("/$", "") + "/orders/" + email.getOrderId();
+        context.setVariable("orderLink", orderLink);
+        context.setVariable("shippingAddress", email.getShippingAddress());
+
         // Order items
-        context.setVariable("items", order.getOrderItems().stream().map(this::mapItem).toList());
+        context.setVariable("items", email.getItems());
 
         try {
             String htmlContent = templateEngine.process("order-confirmation", context);
@@ -127,14 +144,14 @@ public class EmailServiceImpl implements EmailService {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
             helper.setFrom("support@myshop.com");
-            helper.setTo(order.getUser().getEmail());
-            helper.setSubject("🛒 Xác nhận đơn hàng #" + order.getId() + " - SecureShop");
+            helper.setTo(email.getEmail());
+            helper.setSubject("🛒 Xác nhận đơn hàng #" + email.getOrderId() + " - SecureShop");
             helper.setText(htmlContent, true);
 
             mailSender.send(message);
-            log.info("Order email sent to {} for orderId={}", order.getUser().getEmail(), order.getId());
+            log.info("Order email sent to {} for orderId={}", email.getEmail(), email.getOrderId());
         } catch (Exception ex) {
-            log.error("Failed to send order email for orderId={}", order.getId(), ex);
+            log.error("Failed to send order email for orderId={}", email.getOrderId(), ex);
             if (ex instanceof MessagingException me) throw me;
             if (ex instanceof IOException ioe) throw ioe;
         }
@@ -147,8 +164,8 @@ public class EmailServiceImpl implements EmailService {
         return nf.format(value);
     }
 
-    private ItemView mapItem(OrderItem item) {
-        return new ItemView(
+    private OrderConfirmationEmailDTO.Item mapItem(OrderItem item) {
+        return new OrderConfirmationEmailDTO.Item(
                 item.getProduct() != null ? item.getProduct().getName() : "(Sản phẩm)",
                 item.getQuantity() != null ? item.getQuantity() : 0,
                 item.getUnitPrice(),
@@ -156,6 +173,4 @@ public class EmailServiceImpl implements EmailService {
                 item.getProduct() != null ? item.getProduct().getSku() : null
         );
     }
-
-    private record ItemView(String name, Integer quantity, BigDecimal unitPrice, BigDecimal lineTotal, String sku) {}
 }
\ No newline at end of file
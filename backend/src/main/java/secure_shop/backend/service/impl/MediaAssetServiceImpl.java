@@ -2,6 +2,7 @@ package secure_shop.backend.service.impl;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import secure_shop.backend.dto.product.MediaAssetDTO;
@@ -10,6 +11,7 @@ import secure_shop.backend.entities.Product;
 import secure_shop.backend.repositories.MediaAssetRepository;
 import secure_shop.backend.repositories.ProductRepository;
 import secure_shop.backend.service.MediaAssetService;
+import secure_shop.backend.service.event.ProductChangedEvent;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,6 +23,7 @@ public class MediaAssetServiceImpl implements MediaAssetService {
 
     private final MediaAssetRepository mediaAssetRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<MediaAssetDTO> getMediaByProductId(UUID productId) {
@@ -41,15 +44,17 @@ public class MediaAssetServiceImpl implements MediaAssetService {
                 .product(product)
                 .build();
 
-        return toDTO(mediaAssetRepository.save(asset));
+        MediaAssetDTO saved = toDTO(mediaAssetRepository.save(asset));
+        eventPublisher.publishEvent(new ProductChangedEvent(productId));
+        return saved;
     }
 
     @Override
     public void deleteMedia(Long mediaId) {
-        if (!mediaAssetRepository.existsById(mediaId)) {
-            throw new EntityNotFoundException("Không tìm thấy media ID: " + mediaId);
-        }
+        UUID productId = mediaAssetRepository.findProductIdById(mediaId)
+                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy media ID: " + mediaId));
         mediaAssetRepository.deleteById(mediaId);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId));
     }
 
     private MediaAssetDTO toDTO(MediaAsset entity) {
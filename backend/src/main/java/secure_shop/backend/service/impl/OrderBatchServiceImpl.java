@@ -0,0 +1,152 @@
+package secure_shop.backend.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import secure_shop.backend.dto.order.OrderBatchOutcomeDTO;
+import secure_shop.backend.dto.order.OrderBatchResultDTO;
+import secure_shop.backend.enums.OrderStatus;
+import secure_shop.backend.exception.BusinessRuleViolationException;
+import secure_shop.backend.repositories.jdbc.OrderBatchJdbcRepository;
+import secure_shop.backend.repositories.jdbc.OrderBatchJdbcRepository.BatchResult;
+import secure_shop.backend.service.OrderBatchService;
+import secure_shop.backend.service.event.DiscountUsageReleasedEvent;
+import secure_shop.backend.service.event.InventoryChangedEvent;
+import secure_shop.backend.service.inventory.FlashSaleLedger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Thao tác hàng loạt cho admin (xác nhận, hủy, đổi trạng thái).
+ * ID được chia thành từng lô, mỗi lô là một giao dịch với một câu lệnh set-based;
+ * một lô lỗi không ảnh hưởng các lô đã xong, các đơn trong lô đó được báo lỗi để gửi lại.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBatchServiceImpl implements OrderBatchService {
+
+    private final OrderBatchJdbcRepository orderBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FlashSaleLedger flashSaleLedger;
+
+    @Value("${app.orders.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public OrderBatchResultDTO confirmOrders(List<UUID> orderIds) {
+        // Phần giữ chỗ flash sale còn nằm trên Redis phải có trong inventory.reserved trước khi trừ kho
+        flashSaleLedger.flushAll();
+        return run(orderIds, OrderStatus.WAITING_FOR_DELIVERY, orderBatchRepository::confirmAll);
+    }
+
+    @Override
+    public OrderBatchResultDTO cancelOrders(List<UUID> orderIds) {
+        flashSaleLedger.flushAll();
+        return run(orderIds, OrderStatus.CANCELLED, orderBatchRepository::cancelAll);
+    }
+
+    @Override
+    public OrderBatchResultDTO changeOrdersStatus(List<UUID> orderIds, String status) {
+        OrderStatus target;
+        try {
+            target = OrderStatus.valueOf(status == null ? "" : status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleViolationException("Invalid order status: " + status);
+        }
+
+        // Giống changeOrderStatus: hai trạng thái này đi qua luồng có cập nhật tồn kho
+        if (target == OrderStatus.WAITING_FOR_DELIVERY) return confirmOrders(orderIds);
+        if (target == OrderStatus.CANCELLED) return cancelOrders(orderIds);
+        if (OrderStatus.sourcesOf(target).isEmpty()) {
+            throw new BusinessRuleViolationException("Không thể chuyển đơn hàng sang " + target);
+        }
+        return run(orderIds, target, ids -> orderBatchRepository.changeStatusAll(ids, target));
+    }
+
+    private OrderBatchResultDTO run(List<UUID> orderIds, OrderStatus target,
+                                    Function<List<UUID>, BatchResult> operation) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        List<OrderBatchOutcomeDTO> results = new ArrayList<>(ids.size());
+        Set<UUID> changedProducts = new LinkedHashSet<>();
+        int succeeded = 0;
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            try {
+                ChunkOutcome outcome = transactionTemplate.execute(status -> {
+                    BatchResult result = operation.apply(chunk);
+                    // Bộ đếm lượt dùng mã trên Redis được cộng lại sau khi lô commit
+                    result.releasedDiscountIds().forEach(discountId ->
+                            eventPublisher.publishEvent(new DiscountUsageReleasedEvent(discountId)));
+                    Set<UUID> updated = new HashSet<>(result.updatedOrderIds());
+                    List<UUID> skipped = chunk.stream().filter(id -> !updated.contains(id)).toList();
+                    return new ChunkOutcome(result, updated, new HashSet<>(result.shortOrderIds()),
+                            orderBatchRepository.findStatuses(skipped));
+                });
+                if (!outcome.shortOrders().isEmpty()) {
+                    log.warn("Batch {} skipped {} orders with insufficient inventory: {}",
+                            target, outcome.shortOrders().size(), outcome.shortOrders());
+                }
+
+                for (UUID id : chunk) {
+                    if (outcome.updated().contains(id)) {
+                        results.add(new OrderBatchOutcomeDTO(id, true, target, null));
+                        succeeded++;
+                    } else if (outcome.shortOrders().contains(id)) {
+                        results.add(shortOutcome(id, outcome.currentStatuses().get(id), target));
+                    } else {
+                        results.add(skippedOutcome(id, outcome.currentStatuses().get(id), target));
+                    }
+                }
+                changedProducts.addAll(outcome.result().productIds());
+            } catch (Exception ex) {
+                log.error("Batch {} failed for {} orders starting at {}", target, chunk.size(), chunk.get(0), ex);
+                chunk.forEach(id -> results.add(new OrderBatchOutcomeDTO(id, false, null,
+                        "Lỗi khi xử lý lô, vui lòng thử lại")));
+            }
+        }
+
+        if (!changedProducts.isEmpty()) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(changedProducts));
+        }
+        return OrderBatchResultDTO.builder()
+                .requested(ids.size())
+                .succeeded(succeeded)
+                .failed(ids.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    private static OrderBatchOutcomeDTO skippedOutcome(UUID id, OrderStatus current, OrderStatus target) {
+        if (current == null) {
+            return new OrderBatchOutcomeDTO(id, false, null, "Không tìm thấy đơn hàng");
+        }
+        if (current == target) {
+            return new OrderBatchOutcomeDTO(id, false, current, "Đơn hàng đã ở trạng thái " + target);
+        }
+        return new OrderBatchOutcomeDTO(id, false, current,
+                "Không thể chuyển đơn hàng từ " + current + " sang " + target);
+    }
+
+    private static OrderBatchOutcomeDTO shortOutcome(UUID id, OrderStatus current, OrderStatus target) {
+        String reason = target == OrderStatus.CANCELLED
+                ? "Số lượng đang giữ trong kho không khớp với đơn hàng, chờ đối soát tồn kho rồi thử lại"
+                : "Không đủ tồn kho để xác nhận đơn hàng";
+        return new OrderBatchOutcomeDTO(id, false, current, reason);
+    }
+
+    private record ChunkOutcome(BatchResult result, Set<UUID> updated, Set<UUID> shortOrders,
+                                Map<UUID, OrderStatus> currentStatuses) {}
+}
@@ -0,0 +1,94 @@
+package secure_shop.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import secure_shop.backend.dto.order.OrderExportRow;
+import secure_shop.backend.enums.ExportFormat;
+import secure_shop.backend.enums.OrderStatus;
+import secure_shop.backend.exception.InvalidOperationException;
+import secure_shop.backend.repositories.OrderRepository;
+import secure_shop.backend.service.OrderExportService;
+import secure_shop.backend.utils.CsvWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderExportServiceImpl implements OrderExportService {
+
+    // Đẩy dữ liệu xuống client sau mỗi lô để trình duyệt nhận dần, không chờ hết truy vấn
+    private static final int FLUSH_EVERY = 500;
+
+    private static final List<String> CSV_HEADER = List.of(
+            "id", "createdAt", "status", "paymentStatus", "hasPaid", "customerEmail", "customerName",
+            "subTotal", "discountTotal", "shippingFee", "grandTotal", "discountCode", "confirmedAt", "cancelledAt");
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(Instant from, Instant to, OrderStatus status, ExportFormat format, OutputStream output)
+            throws IOException {
+        Instant effectiveFrom = from != null ? from : Instant.EPOCH;
+        Instant effectiveTo = to != null ? to : Instant.now();
+        if (!effectiveFrom.isBefore(effectiveTo)) {
+            throw new InvalidOperationException("Khoảng thời gian xuất không hợp lệ");
+        }
+
+        long start = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        CsvWriter csv = new CsvWriter(writer);
+        ObjectWriter json = objectMapper.writer();
+        if (format == ExportFormat.CSV) {
+            writer.write('\uFEFF'); // BOM để Excel nhận đúng UTF-8
+            csv.writeRecord(CSV_HEADER);
+        }
+
+        long[] count = {0};
+        try (Stream<OrderExportRow> rows = orderRepository.streamForExport(effectiveFrom, effectiveTo, status)) {
+            rows.forEach(row -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        csv.writeRecord(Arrays.asList(
+                                row.id(), row.createdAt(), row.status(), row.paymentStatus(), row.hasPaid(),
+                                row.customerEmail(), row.customerName(), row.subTotal(), row.discountTotal(),
+                                row.shippingFee(), row.grandTotal(), row.discountCode(), row.confirmedAt(),
+                                row.cancelledAt()));
+                    } else {
+                        writer.write(json.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                    if (++count[0] % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            // Thường là client ngắt kết nối giữa chừng
+            log.warn("Order export aborted after {} rows: {}", count[0], ex.getCause().getMessage());
+            throw ex.getCause();
+        }
+
+        writer.flush();
+        log.info("Exported {} orders as {} in {} ms", count[0], format, System.currentTimeMillis() - start);
+        return count[0];
+    }
+}
@@ -65,8 +65,7 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     @Override
     public List<OrderItemDTO> getOrderItemsByOrderId(UUID orderId) {
-        return orderItemRepository.findAll().stream()
-                .filter(item -> item.getOrder() != null && item.getOrder().getId().equals(orderId))
+        return orderItemRepository.findByOrderIdWithProduct(orderId).stream()
                 .map(orderItemMapper::toDTO)
                 .collect(Collectors.toList());
     }
@@ -1,36 +1,59 @@
 package secure_shop.backend.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import secure_shop.backend.dto.CursorPage;
+import secure_shop.backend.dto.order.OrderCursor;
 import secure_shop.backend.dto.order.OrderDTO;
 import secure_shop.backend.dto.order.OrderDetailsDTO;
 import secure_shop.backend.dto.order.request.OrderCreateRequest;
 import secure_shop.backend.dto.order.request.OrderItemRequest;
+import secure_shop.backend.dto.order.OrderHistoryItemDTO;
 import secure_shop.backend.dto.order.OrderSummaryDTO;
+import secure_shop.backend.dto.order.StockShortageDTO;
 import secure_shop.backend.entities.*;
 import secure_shop.backend.enums.OrderStatus;
+import secure_shop.backend.enums.OutboxEventType;
 import secure_shop.backend.enums.PaymentMethod;
 import secure_shop.backend.enums.PaymentStatus;
 import secure_shop.backend.exception.BusinessRuleViolationException;
+import secure_shop.backend.exception.ConflictException;
+import secure_shop.backend.exception.InsufficientStockException;
 import secure_shop.backend.exception.ResourceNotFoundException;
 import secure_shop.backend.mapper.OrderMapper;
 import secure_shop.backend.repositories.*;
+import secure_shop.backend.repositories.jdbc.DiscountRedemptionJdbcRepository;
+import secure_shop.backend.repositories.jdbc.InventoryJdbcRepository;
 import secure_shop.backend.service.OrderService;
-import secure_shop.backend.service.EmailService;
 import secure_shop.backend.service.InventoryService;
+import secure_shop.backend.service.discount.DiscountCodeIndex;
+import secure_shop.backend.service.discount.DiscountQuotaLedger;
+import secure_shop.backend.service.event.DiscountQuotaAcquiredEvent;
+import secure_shop.backend.service.event.DiscountUsageReleasedEvent;
+import secure_shop.backend.service.event.FlashSaleReleasedEvent;
+import secure_shop.backend.service.event.FlashSaleReservedEvent;
+import secure_shop.backend.service.event.InventoryChangedEvent;
+import secure_shop.backend.service.inventory.FlashSaleLedger;
+import secure_shop.backend.service.outbox.OutboxService;
+import secure_shop.backend.service.pricing.OrderPricing;
+import secure_shop.backend.utils.Money;
 
-import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.math.BigDecimal;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -42,9 +65,14 @@ public class OrderServiceImpl implements OrderService {
     private final PaymentRepository paymentRepository;
     private final InventoryRepository inventoryRepository;
     private final InventoryService inventoryService;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
     private final UserRepository userRepository;
-    private final DiscountRepository discountRepository;
+    private final DiscountCodeIndex discountCodeIndex;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final DiscountRedemptionJdbcRepository discountRedemptionRepository;
+    private final FlashSaleLedger flashSaleLedger;
+    private final DiscountQuotaLedger discountQuotaLedger;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public OrderDTO createOrder(OrderCreateRequest request, UUID userId) {
@@ -52,19 +80,19 @@ public class OrderServiceImpl implements OrderService {
             throw new BusinessRuleViolationException("Order must contain at least one item");
         }
 
-        // Reserve inventory first for all items. Reservations participate in the same transaction
+        // Gộp các dòng trùng sản phẩm, giữ thứ tự trong giỏ
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
         for (OrderItemRequest itemReq : request.getItems()) {
-            Product product = productRepository.findById(itemReq.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", itemReq.getProductId()));
+            quantities.merge(itemReq.getProductId(), itemReq.getQuantity(), Integer::sum);
+        }
 
-            var optInv = inventoryRepository.findByProductId(product.getId());
-            if (optInv.isEmpty()) {
-                throw new BusinessRuleViolationException("Không tìm thấy tồn kho cho sản phẩm: " + product.getId());
+        // Nạp toàn bộ sản phẩm (kèm tồn kho) bằng một truy vấn IN
+        Map<UUID, Product> products = productRepository.findAllByIdInWithRelations(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
+        for (UUID productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product", productId);
             }
-            var inv = optInv.get();
-
-            // reserve - will participate in the outer transaction; if any reserve fails, the exception will rollback all changes
-            inventoryService.reserveStock(inv.getId(), itemReq.getQuantity());
         }
 
         // Fetch full user entity (avoid transient with only id so email sending works)
@@ -76,8 +104,9 @@ public class OrderServiceImpl implements OrderService {
         }
         Discount discount = null;
         if (request.getDiscountCode() != null) {
-            discount = discountRepository.findByCode(request.getDiscountCode())
+            discount = discountCodeIndex.findByCode(request.getDiscountCode())
                     .orElseThrow(() -> new ResourceNotFoundException("Discount", request.getDiscountCode()));
+            admitDiscount(discount);
         }
         // Build order entity (single creation)
         Order order = Order.builder()
@@ -87,65 +116,97 @@ public class OrderServiceImpl implements OrderService {
             .discount(discount)
             .build();
 
-       // create order items and attach to order
-        for (OrderItemRequest itemReq : request.getItems()) {
-            Product product = productRepository.findById(itemReq.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", itemReq.getProductId()));
-
-            BigDecimal unitPrice = product.getPrice();
-            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(itemReq.getQuantity()));
+        // Tính tiền trên long (minor unit), chỉ đổi sang BigDecimal khi gán vào entity
+        long subTotal = 0L;
+        for (Map.Entry<UUID, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            long lineTotal = OrderPricing.lineTotal(Money.toMinor(product.getPrice()), line.getValue());
+            subTotal = Math.addExact(subTotal, lineTotal);
 
             OrderItem item = OrderItem.builder()
                     .product(product)
-                    .quantity(itemReq.getQuantity())
-                    .unitPrice(unitPrice)
-                    .lineTotal(lineTotal) // Tính ngay
+                    .quantity(line.getValue())
+                    .unitPrice(product.getPrice())
+                    .lineTotal(Money.toDecimal(lineTotal))
                     .order(order)
                     .build();
             order.getOrderItems().add(item);
         }
 
-        // --- Tính subtotal tại server (an toàn) ---
-        BigDecimal subTotal = order.getOrderItems().stream()
-                .map(OrderItem::getLineTotal)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        // --- Tính discountTotal bằng helper ---
-        BigDecimal shippingFee = order.getShippingFee() != null ? order.getShippingFee() : BigDecimal.ZERO;
-        BigDecimal discountTotal = BigDecimal.ZERO;
+        long shippingFee = Money.toMinor(request.getShippingFee());
+        long discountTotal = 0L;
         if (discount != null) {
             discountTotal = calculateDiscountAmount(discount, subTotal, shippingFee, user);
         }
 
-        order.setSubTotal(subTotal);
-        order.setDiscountTotal(discountTotal);
-        order.setShippingFee(shippingFee);
+        OrderPricing.Totals totals = OrderPricing.totals(subTotal, discountTotal, shippingFee);
+        order.setSubTotal(Money.toDecimal(totals.subTotal()));
+        order.setDiscountTotal(Money.toDecimal(totals.discountTotal()));
+        order.setShippingFee(Money.toDecimal(totals.shippingFee()));
+        order.setGrandTotal(Money.toDecimal(totals.grandTotal()));
 
-        // Persist order (totals will be calculated by @PrePersist)
+        // Sản phẩm đang flash sale được giữ hàng trên sổ Redis, phần còn lại giữ trong DB
+        Map<UUID, Integer> databaseQuantities = reserveOnFlashSaleLedger(quantities);
+
+        // Giữ hàng cho cả giỏ bằng một câu UPDATE, đặt sát lúc lưu đơn để rút ngắn thời gian giữ khóa.
+        // Thiếu hàng ở bất kỳ dòng nào thì không dòng nào được giữ và giao dịch rollback.
+        List<StockShortageDTO> shortages = inventoryJdbcRepository.reserveAll(databaseQuantities);
+        if (!shortages.isEmpty()) {
+            throw new InsufficientStockException(shortages);
+        }
+        eventPublisher.publishEvent(new InventoryChangedEvent(quantities.keySet()));
+
+        // Persist order (@PrePersist chỉ kiểm tra lại tổng từ các dòng vừa tạo)
         Order savedOrder = orderRepository.save(order);
 
         if (discount != null) {
-            discount.setUsed(discount.getUsed() == null ? 1 : discount.getUsed() + 1);
-            discountRepository.save(discount);
+            redeemDiscount(discount, user);
         }
 
         if (request.getPaymentMethod() == null ||
                 request.getPaymentMethod() == PaymentMethod.COD) {
-            try {
-                emailService.sendOrderConfirmationEmail(savedOrder);
-            } catch (Exception ex) {
-            }
+            // Email được gửi sau khi commit bởi OutboxDispatcher, không làm chậm giao dịch đặt hàng
+            outboxService.enqueue(OutboxEventType.ORDER_CONFIRMATION_EMAIL, savedOrder.getId());
         }
         return orderMapper.toDTO(savedOrder);
     }
 
+    /**
+     * @return số lượng còn phải giữ trong DB (các sản phẩm không nằm trong flash sale)
+     */
+    private Map<UUID, Integer> reserveOnFlashSaleLedger(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> databaseQuantities = new LinkedHashMap<>(quantities);
+        FlashSaleLedger.ReserveResult result;
+        try {
+            result = flashSaleLedger.reserve(quantities);
+        } catch (DataAccessException ex) {
+            // Redis lỗi thì giữ hàng trong DB như bình thường, đối soát sẽ chỉnh lại sổ Redis
+            log.warn("Flash-sale ledger unavailable, reserving in database: {}", ex.getMessage());
+            return databaseQuantities;
+        }
+        if (result.isRejected()) {
+            throw new InsufficientStockException(result.shortages());
+        }
+        if (!result.reservedProductIds().isEmpty()) {
+            Map<UUID, Integer> ledgerQuantities = new LinkedHashMap<>();
+            result.reservedProductIds().forEach(productId ->
+                    ledgerQuantities.put(productId, databaseQuantities.remove(productId)));
+            // Commit thì chỗ giữ được ghi xuống inventory.reserved, rollback thì sổ Redis tự trả lại
+            eventPublisher.publishEvent(new FlashSaleReservedEvent(result.holdToken(), ledgerQuantities));
+        }
+        return databaseQuantities;
+    }
+
     @Override
     public OrderDTO updateOrder(UUID id, OrderDTO orderDTO) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", id));
 
+        // Trạng thái chỉ đổi qua bảng chuyển trạng thái (xác nhận, hủy, changeOrderStatus)
+        if (orderDTO.getStatus() != null && orderDTO.getStatus() != order.getStatus()) {
+            throw new BusinessRuleViolationException("Use the order status endpoints to change order status");
+        }
+
         orderMapper.updateEntityFromDTO(orderDTO, order);
         Order updatedOrder = orderRepository.save(order);
         return orderMapper.toDTO(updatedOrder);
@@ -199,6 +260,24 @@ public class OrderServiceImpl implements OrderService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderHistoryItemDTO> getOrderHistory(UUID userId, String cursor, int limit) {
+        // Lấy dư 1 bản ghi để biết còn trang sau hay không, thay cho COUNT(*)
+        List<OrderHistoryItemDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findHistoryFirstPage(userId, Limit.of(limit + 1));
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            rows = orderRepository.findHistoryAfter(userId, after.createdAt(), after.id(), Limit.of(limit + 1));
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<OrderHistoryItemDTO> items = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? OrderCursor.after(items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasNext);
+    }
+
     @Override
     public OrderDTO confirmOrder(UUID id) {
         Order order = orderRepository.findById(id)
@@ -211,9 +290,12 @@ public class OrderServiceImpl implements OrderService {
         if (order.getStatus() == OrderStatus.DELIVERED) {
             throw new BusinessRuleViolationException("Order already delivered");
         }
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new BusinessRuleViolationException("Only pending orders can be confirmed");
-        }
+
+        // Chuyển trạng thái trước khi trừ kho: thao tác đồng thời thua sẽ nhận 409 và không chạm tới tồn kho
+        order = transition(order, OrderStatus.WAITING_FOR_DELIVERY);
+
+        // Phần giữ chỗ flash sale có thể còn nằm trong pending trên Redis: ghi xuống DB trước khi trừ
+        flashSaleLedger.flushNow(quantitiesOf(order).keySet());
 
         // Consume reserved stock atomically for each item (decrease onHand and reserved)
         if (order.getOrderItems() != null) {
@@ -235,7 +317,6 @@ public class OrderServiceImpl implements OrderService {
             }
         }
 
-        order.setStatus(OrderStatus.WAITING_FOR_DELIVERY);
         order.setConfirmedAt(Instant.now());
 
         Order updatedOrder = orderRepository.save(order);
@@ -247,13 +328,6 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", id));
 
-        Payment payment = null;
-        try {
-            payment = paymentRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Payment", id));
-        } catch (Exception ignored) {
-        }
-
         // Validate that order can be cancelled
         if (order.getStatus() == OrderStatus.CANCELLED) {
             throw new BusinessRuleViolationException("Order already cancelled");
@@ -261,10 +335,16 @@ public class OrderServiceImpl implements OrderService {
         if (order.getStatus() == OrderStatus.DELIVERED) {
             throw new BusinessRuleViolationException("Cannot cancel delivered order");
         }
-        if (order.getStatus() == OrderStatus.WAITING_FOR_DELIVERY) {
+        if (order.getStatus() == OrderStatus.WAITING_FOR_DELIVERY || order.getStatus() == OrderStatus.IN_TRANSIT) {
             throw new BusinessRuleViolationException("Cannot cancel order that is already shipping");
         }
 
+        // Chuyển trạng thái trước khi trả kho: chỉ một lần hủy thắng, các lần khác nhận 409
+        order = transition(order, OrderStatus.CANCELLED);
+
+        Map<UUID, Integer> released = quantitiesOf(order);
+        flashSaleLedger.flushNow(released.keySet());
+
         // Release reserved stock for each item
         if (order.getOrderItems() != null) {
             for (OrderItem item : order.getOrderItems()) {
@@ -284,26 +364,72 @@ public class OrderServiceImpl implements OrderService {
             }
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
+        // Sản phẩm đang flash sale được cộng lại trên sổ Redis sau khi commit
+        eventPublisher.publishEvent(new FlashSaleReleasedEvent(released));
+
+        // Trả lại lượt dùng mã; bộ đếm trên Redis được cộng lại sau khi commit
+        if (order.getDiscount() != null) {
+            UUID discountId = order.getDiscount().getId();
+            discountRedemptionRepository.releaseUsage(discountId, order.getUser() != null ? order.getUser().getId() : null);
+            eventPublisher.publishEvent(new DiscountUsageReleasedEvent(discountId));
+        }
+
         order.setCancelledAt(Instant.now());
 
         // If order was already paid, mark payment as refunded
         if (order.getPaymentStatus() == PaymentStatus.PAID) {
             order.setPaymentStatus(PaymentStatus.REFUNDED);
 
-            if (payment != null) {
+            // Payment gắn với đơn qua order_id; đơn COD chưa có payment thì bỏ qua
+            paymentRepository.findByOrderId(order.getId()).ifPresent(payment -> {
                 payment.setStatus(PaymentStatus.REFUNDED);
                 paymentRepository.save(payment);
-            }
+            });
         }
 
         Order updatedOrder = orderRepository.save(order);
         return orderMapper.toDTO(updatedOrder);
     }
 
+    /**
+     * Lấy trước một lượt của mã trên Redis để mã đã hết bị từ chối trước khi giữ hàng và khóa dòng discounts.
+     */
+    private void admitDiscount(Discount discount) {
+        DiscountQuotaLedger.Admission admission;
+        try {
+            admission = discountQuotaLedger.tryAcquire(discount.getId());
+        } catch (DataAccessException ex) {
+            // Redis lỗi thì để câu UPDATE có điều kiện trong DB quyết định như bình thường
+            log.warn("Discount quota ledger unavailable, checking usage in database: {}", ex.getMessage());
+            return;
+        }
+        if (admission == DiscountQuotaLedger.Admission.SOLD_OUT) {
+            throw new BusinessRuleViolationException("Mã giảm giá đã hết lượt sử dụng");
+        }
+        if (admission == DiscountQuotaLedger.Admission.ACQUIRED) {
+            // Giao dịch rollback thì lượt được trả lại trên Redis
+            eventPublisher.publishEvent(new DiscountQuotaAcquiredEvent(discount.getId()));
+        }
+    }
+
+    /**
+     * Ghi nhận lượt dùng mã trong giao dịch đặt hàng bằng câu lệnh có điều kiện, không đọc-rồi-ghi.
+     * Sổ theo người dùng cập nhật trước (chỉ khóa dòng của người đó), dòng discounts dùng chung
+     * được khóa sau cùng để giữ khóa ngắn nhất có thể.
+     */
+    private void redeemDiscount(Discount discount, User user) {
+        if (user != null && !discountRedemptionRepository.redeemForUser(
+                discount.getId(), user.getId(), discount.getPerUserLimit())) {
+            throw new BusinessRuleViolationException("Bạn đã dùng hết lượt cho mã này");
+        }
+        if (!discountRedemptionRepository.incrementUsage(discount.getId())) {
+            throw new BusinessRuleViolationException("Mã giảm giá đã hết lượt sử dụng");
+        }
+    }
+
     // helper trong OrderService (private)
-    private BigDecimal calculateDiscountAmount(Discount discount, BigDecimal subTotal, BigDecimal shippingFee, User user) {
-        if (discount == null) return BigDecimal.ZERO;
+    private long calculateDiscountAmount(Discount discount, long subTotal, long shippingFee, User user) {
+        if (discount == null) return 0L;
 
         // validate active / date
         if (Boolean.FALSE.equals(discount.getActive())) {
@@ -313,52 +439,27 @@ public class OrderServiceImpl implements OrderService {
         if (discount.getStartAt() != null && discount.getStartAt().isAfter(now)) {
             throw new BusinessRuleViolationException("Mã giảm giá chưa bắt đầu");
         }
-        if (discount.getEndAt() != null && discount.getEndAt().isBefore(now)) {
+        // Hiệu lực trong [startAt, endAt): cùng quy ước với danh sách mã đang hiệu lực và câu UPDATE discounts
+        if (discount.getEndAt() != null && !discount.getEndAt().isAfter(now)) {
             throw new BusinessRuleViolationException("Mã giảm giá đã hết hạn");
         }
 
         // min order
-        if (discount.getMinOrderValue() != null && subTotal.compareTo(discount.getMinOrderValue()) < 0) {
+        if (discount.getMinOrderValue() != null && subTotal < Money.toMinor(discount.getMinOrderValue())) {
             throw new BusinessRuleViolationException("Đơn hàng chưa đạt giá trị tối thiểu để áp dụng mã");
         }
 
-        // usage limits (simple checks - concurrent updates need DB-side handling)
+        // Kiểm tra sớm theo số liệu đã đọc; giới hạn thực sự được áp dụng trong redeemDiscount
         if (discount.getMaxUsage() != null && discount.getUsed() != null && discount.getUsed().compareTo(discount.getMaxUsage()) >= 0) {
             throw new BusinessRuleViolationException("Mã giảm giá đã hết lượt sử dụng");
         }
 
-        if (discount.getPerUserLimit() != null && user != null) {
-            // bạn cần có phương pháp lấy số lượt user đã dùng (ví dụ: discountUsageRepository.countByDiscountAndUser)
-            Integer usedByUser = orderRepository.countByDiscountIdAndUserId(discount.getId(), user.getId());
-            if (usedByUser >= discount.getPerUserLimit()) {
-                throw new BusinessRuleViolationException("Bạn đã dùng hết lượt cho mã này");
-            }
-        }
-
-        BigDecimal discountAmount = BigDecimal.ZERO;
-        String type = String.valueOf(discount.getDiscountType()); // hoặc enum
-
-        if ("PERCENT".equalsIgnoreCase(type)) {
-            BigDecimal percent = discount.getDiscountValue() == null ? BigDecimal.ZERO : discount.getDiscountValue();
-            discountAmount = subTotal.multiply(percent).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-            // optional: cap discount <= subTotal
-            if (discountAmount.compareTo(subTotal) > 0) discountAmount = subTotal;
-        } else if ("FIXED_AMOUNT".equalsIgnoreCase(type)) {
-            discountAmount = discount.getDiscountValue() == null ? BigDecimal.ZERO : discount.getDiscountValue();
-            if (discountAmount.compareTo(subTotal) > 0) discountAmount = subTotal;
-        } else if ("FREE_SHIP".equalsIgnoreCase(type)) {
-            discountAmount = shippingFee == null ? BigDecimal.ZERO : shippingFee;
-        }
-
-        // scale 2
-        return discountAmount.setScale(2, RoundingMode.HALF_UP);
+        return OrderPricing.discount(discount.getDiscountType(), Money.toMinor(discount.getDiscountValue()),
+                subTotal, shippingFee);
     }
 
     @Override
     public OrderDTO changeOrderStatus(UUID id, String status) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", id));
-
         // Validate status
         OrderStatus newStatus;
         try {
@@ -367,18 +468,28 @@ public class OrderServiceImpl implements OrderService {
             throw new BusinessRuleViolationException("Invalid order status: " + status);
         }
 
+        // Hai trạng thái này kéo theo thay đổi tồn kho, đi qua đúng luồng xác nhận/hủy
+        if (newStatus == OrderStatus.WAITING_FOR_DELIVERY) {
+            return confirmOrder(id);
+        }
+        if (newStatus == OrderStatus.CANCELLED) {
+            return cancelOrder(id);
+        }
+
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", id));
+
         // Validate that order can be changed
         if (order.getStatus() == OrderStatus.CANCELLED) {
             throw new BusinessRuleViolationException("Cannot change status of cancelled order");
         }
 
+        order = transition(order, newStatus);
+
         // Check payment method
         Payment payment = order.getPayment();
         boolean isCOD = payment != null && payment.getMethod() == PaymentMethod.COD;
 
-        // Update status
-        order.setStatus(newStatus);
-
         // For COD payment: if status is DELIVERED, update payment-related fields
         if (isCOD && newStatus == OrderStatus.DELIVERED) {
             order.setHasPaid(true);
@@ -395,6 +506,39 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDTO(updatedOrder);
     }
 
+    /**
+     * Chuyển trạng thái theo bảng OrderStatus bằng một câu UPDATE có điều kiện (status và version).
+     * Thua cuộc đua với thao tác khác (admin khác, callback thanh toán, job hủy đơn) thì trả về 409
+     * thay vì chờ khóa.
+     *
+     * @return đơn hàng đã đọc lại sau khi chuyển trạng thái
+     */
+    private Order transition(Order order, OrderStatus target) {
+        OrderStatus current = order.getStatus();
+        if (!current.canTransitionTo(target)) {
+            throw new BusinessRuleViolationException("Không thể chuyển đơn hàng từ " + current + " sang " + target);
+        }
+
+        int updated = orderRepository.compareAndSetStatus(
+                order.getId(), order.getVersion(), OrderStatus.sourcesOf(target), target, Instant.now());
+        if (updated == 0) {
+            throw new ConflictException("Đơn hàng vừa được cập nhật bởi thao tác khác, vui lòng tải lại và thử lại");
+        }
+        return orderRepository.findById(order.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Order", order.getId()));
+    }
+
+    private static Map<UUID, Integer> quantitiesOf(Order order) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        if (order.getOrderItems() == null) return quantities;
+        for (OrderItem item : order.getOrderItems()) {
+            Product product = item.getProduct();
+            if (product == null || product.getId() == null) continue;
+            quantities.merge(product.getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
     @Override
     public Integer getTotalOrdersCount() {
         return orderRepository.countOrdersByCreatedAtIsNotNull();
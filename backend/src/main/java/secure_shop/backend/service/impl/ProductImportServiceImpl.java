@@ -0,0 +1,375 @@
+package secure_shop.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import secure_shop.backend.dto.product.ProductImportErrorDTO;
+import secure_shop.backend.dto.product.ProductImportResultDTO;
+import secure_shop.backend.dto.product.ProductImportRow;
+import secure_shop.backend.entities.MediaAsset;
+import secure_shop.backend.entities.Product;
+import secure_shop.backend.enums.ImportFormat;
+import secure_shop.backend.exception.InvalidOperationException;
+import secure_shop.backend.repositories.jdbc.ProductImportJdbcRepository;
+import secure_shop.backend.repositories.jdbc.ProductImportJdbcRepository.ExistingProduct;
+import secure_shop.backend.service.ProductImportService;
+import secure_shop.backend.service.event.ProductsBulkChangedEvent;
+import secure_shop.backend.utils.CsvReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> REQUIRED_COLUMNS = List.of("sku", "name", "listedprice", "price");
+
+    private final ProductImportJdbcRepository importRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.products.import.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public ProductImportResultDTO importProducts(InputStream input, ImportFormat format) {
+        long start = System.currentTimeMillis();
+        ImportContext ctx = new ImportContext(importRepository.findBrandIds(), importRepository.findCategoryIds());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (format == ImportFormat.CSV) {
+                readCsv(reader, ctx);
+            } else {
+                readNdjson(reader, ctx);
+            }
+        } catch (IOException ex) {
+            // Luồng bị ngắt giữa chừng: giữ các lô đã ghi và báo lỗi tại dòng cuối cùng đọc được
+            ctx.fail(ctx.lastLine, null, "Không đọc được dữ liệu nhập: " + ex.getMessage());
+        } finally {
+            flush(ctx);
+            if (ctx.created + ctx.updated > 0) {
+                eventPublisher.publishEvent(new ProductsBulkChangedEvent(ctx.created + ctx.updated));
+            }
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Product import finished: {} rows, {} created, {} updated, {} failed in {} ms",
+                ctx.totalRows, ctx.created, ctx.updated, ctx.failed, duration);
+
+        return ProductImportResultDTO.builder()
+                .totalRows(ctx.totalRows)
+                .created(ctx.created)
+                .updated(ctx.updated)
+                .failed(ctx.failed)
+                .durationMs(duration)
+                .errors(ctx.errors)
+                .errorsTruncated(ctx.failed > ctx.errors.size())
+                .build();
+    }
+
+    private void readCsv(Reader reader, ImportContext ctx) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new InvalidOperationException("File CSV rỗng");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidOperationException("Thiếu cột bắt buộc: " + String.join(", ", missing));
+        }
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            ctx.lastLine = csv.getRecordLine();
+            if (record.size() == 1 && record.get(0).isBlank()) continue;
+
+            ctx.totalRows++;
+            try {
+                accept(ctx, ctx.lastLine, toRow(record, columns));
+            } catch (IllegalArgumentException ex) {
+                ctx.fail(ctx.lastLine, column(record, columns, "sku"), ex.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportContext ctx) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            ctx.lastLine++;
+            if (line.isBlank()) continue;
+
+            ctx.totalRows++;
+            try {
+                accept(ctx, ctx.lastLine, objectMapper.readValue(line, ProductImportRow.class));
+            } catch (JsonProcessingException ex) {
+                ctx.fail(ctx.lastLine, null, "JSON không hợp lệ: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    private void accept(ImportContext ctx, long line, ProductImportRow row) {
+        if (row.getSku() != null) {
+            row.setSku(row.getSku().trim());
+        }
+
+        String error = validate(row, ctx);
+        if (error != null) {
+            ctx.fail(line, row.getSku(), error);
+            return;
+        }
+
+        // Một câu INSERT ... ON CONFLICT không được cập nhật cùng một dòng hai lần
+        if (ctx.pendingSkus.contains(row.getSku())) {
+            flush(ctx);
+        }
+        ctx.pending.add(new PendingRow(line, row));
+        ctx.pendingSkus.add(row.getSku());
+
+        if (ctx.pending.size() >= batchSize) {
+            flush(ctx);
+        }
+    }
+
+    private String validate(ProductImportRow row, ImportContext ctx) {
+        Product candidate = Product.builder()
+                .sku(row.getSku())
+                .name(row.getName())
+                .shortDesc(row.getShortDesc())
+                .longDesc(row.getLongDesc())
+                .listedPrice(row.getListedPrice())
+                .price(row.getPrice())
+                .active(row.getActive() == null || row.getActive())
+                .thumbnailUrl(row.getThumbnailUrl())
+                .build();
+
+        Set<ConstraintViolation<Product>> violations = validator.validate(candidate);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        if (row.getBrandId() != null && !ctx.brandIds.contains(row.getBrandId())) {
+            return "Không tìm thấy thương hiệu ID: " + row.getBrandId();
+        }
+        if (row.getCategoryId() != null && !ctx.categoryIds.contains(row.getCategoryId())) {
+            return "Không tìm thấy danh mục ID: " + row.getCategoryId();
+        }
+        if (row.getOnHand() != null && row.getOnHand() < 0) {
+            return "onHand: Số lượng tồn kho không được âm";
+        }
+        if (row.getMediaUrls() != null) {
+            for (String url : row.getMediaUrls()) {
+                Set<ConstraintViolation<MediaAsset>> mediaViolations =
+                        validator.validateValue(MediaAsset.class, "url", url);
+                if (!mediaViolations.isEmpty()) {
+                    return "mediaUrls: " + mediaViolations.iterator().next().getMessage() + " (" + url + ")";
+                }
+            }
+        }
+        return null;
+    }
+
+    private void flush(ImportContext ctx) {
+        if (ctx.pending.isEmpty()) return;
+
+        List<PendingRow> chunk = new ArrayList<>(ctx.pending);
+        ctx.pending.clear();
+        ctx.pendingSkus.clear();
+        writeChunk(chunk, ctx);
+    }
+
+    private void writeChunk(List<PendingRow> chunk, ImportContext ctx) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> writeChunkInTransaction(chunk));
+        } catch (DataAccessException ex) {
+            if (chunk.size() == 1) {
+                PendingRow row = chunk.get(0);
+                ctx.fail(row.line(), row.row().getSku(), NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+                return;
+            }
+            // Lô lỗi: ghi lại từng dòng để xác định chính xác dòng nào hỏng
+            log.warn("Import chunk of {} rows failed, retrying row by row: {}", chunk.size(), ex.getMessage());
+            for (PendingRow row : chunk) {
+                writeChunk(List.of(row), ctx);
+            }
+            return;
+        }
+
+        ctx.created += result.created;
+        ctx.updated += result.updated;
+        result.errors.forEach(error -> ctx.fail(error.getLine(), error.getSku(), error.getMessage()));
+    }
+
+    private ChunkResult writeChunkInTransaction(List<PendingRow> chunk) {
+        Map<String, ExistingProduct> existing = importRepository.findExistingBySku(
+                chunk.stream().map(p -> p.row().getSku()).toList());
+
+        ChunkResult result = new ChunkResult();
+        List<ProductImportRow> rows = new ArrayList<>(chunk.size());
+        List<UUID> ids = new ArrayList<>(chunk.size());
+        Map<UUID, Integer> inventories = new LinkedHashMap<>();
+        Map<UUID, List<String>> media = new LinkedHashMap<>();
+
+        for (PendingRow pending : chunk) {
+            ProductImportRow row = pending.row();
+            ExistingProduct current = existing.get(row.getSku());
+            Integer onHand = row.getOnHand();
+
+            if (current != null && onHand != null && current.reserved() != null && onHand < current.reserved()) {
+                result.errors.add(new ProductImportErrorDTO(pending.line(), row.getSku(),
+                        "Tồn kho (" + onHand + ") nhỏ hơn số lượng đang giữ chỗ (" + current.reserved() + ")"));
+                continue;
+            }
+
+            UUID id = current != null ? current.id() : UUID.randomUUID();
+            rows.add(row);
+            ids.add(id);
+            if (onHand != null || current == null || current.reserved() == null) {
+                inventories.put(id, onHand != null ? onHand : 0);
+            }
+            if (row.getMediaUrls() != null) {
+                media.put(id, row.getMediaUrls());
+            }
+
+            if (current == null) {
+                result.created++;
+            } else {
+                result.updated++;
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            importRepository.upsertProducts(rows, ids, Instant.now());
+            importRepository.upsertInventories(inventories);
+            importRepository.replaceMedia(media);
+        }
+        return result;
+    }
+
+    private static ProductImportRow toRow(List<String> record, Map<String, Integer> columns) {
+        String media = column(record, columns, "mediaurls");
+        return ProductImportRow.builder()
+                .sku(column(record, columns, "sku"))
+                .name(column(record, columns, "name"))
+                .shortDesc(column(record, columns, "shortdesc"))
+                .longDesc(column(record, columns, "longdesc"))
+                .listedPrice(parseDecimal("listedPrice", column(record, columns, "listedprice")))
+                .price(parseDecimal("price", column(record, columns, "price")))
+                .active(parseBoolean("active", column(record, columns, "active")))
+                .thumbnailUrl(column(record, columns, "thumbnailurl"))
+                .brandId(parseLong("brandId", column(record, columns, "brandid")))
+                .categoryId(parseLong("categoryId", column(record, columns, "categoryid")))
+                .onHand(parseInt("onHand", column(record, columns, "onhand")))
+                .mediaUrls(media == null ? null : Arrays.stream(media.split("\\|"))
+                        .map(String::trim)
+                        .filter(url -> !url.isEmpty())
+                        .toList())
+                .build();
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) return null;
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal parseDecimal(String column, String value) {
+        if (value == null) return null;
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + ": giá trị không hợp lệ '" + value + "'");
+        }
+    }
+
+    private static Long parseLong(String column, String value) {
+        if (value == null) return null;
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + ": giá trị không hợp lệ '" + value + "'");
+        }
+    }
+
+    private static Integer parseInt(String column, String value) {
+        if (value == null) return null;
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + ": giá trị không hợp lệ '" + value + "'");
+        }
+    }
+
+    private static Boolean parseBoolean(String column, String value) {
+        if (value == null) return null;
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes" -> true;
+            case "false", "0", "no" -> false;
+            default -> throw new IllegalArgumentException(column + ": giá trị không hợp lệ '" + value + "'");
+        };
+    }
+
+    private record PendingRow(long line, ProductImportRow row) {}
+
+    private static final class ChunkResult {
+        private long created;
+        private long updated;
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+    }
+
+    private static final class ImportContext {
+        private final Set<Long> brandIds;
+        private final Set<Long> categoryIds;
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final Set<String> pendingSkus = new HashSet<>();
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+        private long lastLine;
+        private long totalRows;
+        private long created;
+        private long updated;
+        private long failed;
+
+        private ImportContext(Set<Long> brandIds, Set<Long> categoryIds) {
+            this.brandIds = brandIds;
+            this.categoryIds = categoryIds;
+        }
+
+        private void fail(long line, String sku, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportErrorDTO(line, sku, message));
+            }
+        }
+    }
+}
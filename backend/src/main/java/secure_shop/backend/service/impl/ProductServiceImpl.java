@@ -1,21 +1,40 @@
 package secure_shop.backend.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import secure_shop.backend.dto.CacheStatsDTO;
+import secure_shop.backend.dto.CursorPage;
 import secure_shop.backend.dto.product.*;
+import secure_shop.backend.dto.product.request.ProductPriceStockUpdate;
 import secure_shop.backend.entities.*;
+import secure_shop.backend.enums.ProductCursorSort;
+import secure_shop.backend.exception.InvalidOperationException;
 import secure_shop.backend.exception.ResourceNotFoundException;
 import secure_shop.backend.mapper.ProductMapper;
 import secure_shop.backend.repositories.*;
+import secure_shop.backend.repositories.jdbc.ProductBulkUpdateJdbcRepository;
 import secure_shop.backend.service.ProductService;
+import secure_shop.backend.service.cache.ProductDetailsCache;
+import secure_shop.backend.service.cache.ProductFacetsCache;
+import secure_shop.backend.service.event.ProductChangedEvent;
+import secure_shop.backend.service.event.ProductsBulkChangedEvent;
+import secure_shop.backend.service.search.ProductSearchIndex;
+import secure_shop.backend.service.search.ProductSuggestService;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -25,10 +44,25 @@ import java.util.stream.Collectors;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductListingRepository productListingRepository;
     private final BrandRepository brandRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
     private final InventoryRepository inventoryRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductDetailsCache productDetailsCache;
+    private final ProductFacetsCache productFacetsCache;
+    private final ProductSuggestService productSuggestService;
+    private final ProductBulkUpdateJdbcRepository bulkUpdateRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.products.facet-price-boundaries:1000000,3000000,5000000,10000000,20000000}")
+    private List<BigDecimal> facetPriceBoundaries;
+
+    @Value("${app.products.bulk-update.chunk-size:1000}")
+    private int bulkUpdateChunkSize;
+
     @Override
     public Page<ProductSummaryDTO> filterProducts(Boolean active,
                                                   Long categoryId,
@@ -38,10 +72,160 @@ public class ProductServiceImpl implements ProductService {
                                                   Boolean inStock,
                                                   String keyword,
                                                   Pageable pageable) {
-        return productRepository
+        if (keyword != null && !keyword.isBlank()) {
+            // Ưu tiên chỉ mục trong bộ nhớ; null nghĩa là chỉ mục chưa sẵn sàng -> dùng LIKE như cũ
+            Set<UUID> matchedIds = productSearchIndex.search(keyword);
+            if (matchedIds != null) {
+                if (matchedIds.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+                return productListingRepository.filterProductsByIds(
+                        active, categoryId, brandId, minPrice, maxPrice, inStock, matchedIds, pageable);
+            }
+        }
+
+        return productListingRepository
                 .filterProducts(active, categoryId, brandId, minPrice, maxPrice, inStock, keyword, pageable);
     }
 
+    @Override
+    public CursorPage<ProductSummaryDTO> scrollProducts(ProductFilter filter,
+                                                        ProductCursorSort sort,
+                                                        String cursor,
+                                                        int limit) {
+        ProductCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = ProductCursor.decode(cursor);
+            if (sort != null && sort != after.sort()) {
+                throw new InvalidOperationException("Cursor không khớp với kiểu sắp xếp " + sort);
+            }
+            sort = after.sort();
+        }
+        if (sort == null) {
+            sort = ProductCursorSort.NEWEST;
+        }
+
+        if (filter.getProductIds() == null && filter.getKeyword() != null && !filter.getKeyword().isBlank()) {
+            Set<UUID> matchedIds = productSearchIndex.search(filter.getKeyword());
+            if (matchedIds != null && matchedIds.isEmpty()) {
+                return new CursorPage<>(List.of(), null, false);
+            }
+            filter.setProductIds(matchedIds);
+        }
+
+        // Lấy dư 1 bản ghi để biết còn trang sau hay không, thay cho COUNT(*)
+        List<ProductSummaryDTO> rows = productListingRepository.findProductsAfter(filter, sort, after, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<ProductSummaryDTO> items = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = hasNext
+                ? ProductCursor.after(sort, items.get(items.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(new ArrayList<>(items), nextCursor, hasNext);
+    }
+
+    @Override
+    public ProductFacetsDTO getProductFacets(ProductFilter filter) {
+        return productFacetsCache.get(filter, () -> {
+            if (filter.getProductIds() == null && filter.getKeyword() != null && !filter.getKeyword().isBlank()) {
+                Set<UUID> matchedIds = productSearchIndex.search(filter.getKeyword());
+                if (matchedIds != null && matchedIds.isEmpty()) {
+                    return new ProductFacetsDTO();
+                }
+                filter.setProductIds(matchedIds);
+            }
+            return productListingRepository.countFacets(filter, facetPriceBoundaries);
+        });
+    }
+
+    @Override
+    public CacheStatsDTO getProductDetailsCacheStats() {
+        return productDetailsCache.getStats();
+    }
+
+    @Override
+    public SuggestionsDTO suggest(String query, int limit) {
+        return productSuggestService.suggest(query, limit);
+    }
+
+    @Override
+    public ProductBulkUpdateResultDTO bulkUpdatePricesAndStock(List<ProductPriceStockUpdate> items) {
+        long start = System.currentTimeMillis();
+        ProductBulkUpdateResultDTO result = ProductBulkUpdateResultDTO.builder()
+                .requested(items.size())
+                .build();
+
+        // Mỗi SKU chỉ áp dụng một lần; dòng lặp lại bị báo xung đột
+        Map<String, ProductPriceStockUpdate> unique = new LinkedHashMap<>();
+        for (ProductPriceStockUpdate item : items) {
+            String sku = item.getSku().trim();
+            item.setSku(sku);
+            if (unique.putIfAbsent(sku, item) != null) {
+                result.getConflicts().add(new ProductBulkUpdateConflictDTO(sku,
+                        "SKU bị lặp trong yêu cầu, chỉ áp dụng dòng đầu tiên"));
+            } else if (item.getPrice() == null && item.getListedPrice() == null && item.getOnHandDelta() == null) {
+                result.getConflicts().add(new ProductBulkUpdateConflictDTO(sku, "Không có trường nào để cập nhật"));
+                unique.remove(sku);
+            }
+        }
+
+        List<ProductPriceStockUpdate> pending = new ArrayList<>(unique.values());
+        try {
+            for (int from = 0; from < pending.size(); from += bulkUpdateChunkSize) {
+                List<ProductPriceStockUpdate> chunk =
+                        pending.subList(from, Math.min(from + bulkUpdateChunkSize, pending.size()));
+                transactionTemplate.executeWithoutResult(status -> applyBulkUpdateChunk(chunk, result));
+            }
+        } finally {
+            // Các lô đã commit vẫn cần làm mới chỉ mục/cache kể cả khi lô sau lỗi
+            if (result.getPriceUpdated() + result.getStockUpdated() > 0) {
+                eventPublisher.publishEvent(new ProductsBulkChangedEvent(
+                        Math.max(result.getPriceUpdated(), result.getStockUpdated())));
+            }
+        }
+
+        result.setDurationMs(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private void applyBulkUpdateChunk(List<ProductPriceStockUpdate> chunk, ProductBulkUpdateResultDTO result) {
+        Map<String, UUID> found = bulkUpdateRepository.findActiveIdsBySku(
+                chunk.stream().map(ProductPriceStockUpdate::getSku).toList());
+
+        List<ProductPriceStockUpdate> priceUpdates = new ArrayList<>();
+        List<ProductPriceStockUpdate> stockUpdates = new ArrayList<>();
+        for (ProductPriceStockUpdate item : chunk) {
+            if (!found.containsKey(item.getSku())) {
+                result.getConflicts().add(new ProductBulkUpdateConflictDTO(item.getSku(), "Không tìm thấy sản phẩm"));
+                continue;
+            }
+            if (item.getPrice() != null || item.getListedPrice() != null) {
+                priceUpdates.add(item);
+            }
+            if (item.getOnHandDelta() != null && item.getOnHandDelta() != 0) {
+                stockUpdates.add(item);
+            }
+        }
+
+        Set<String> pricesApplied = bulkUpdateRepository.updatePrices(priceUpdates);
+        Set<String> stockApplied = bulkUpdateRepository.applyStockDeltas(stockUpdates);
+
+        for (ProductPriceStockUpdate item : priceUpdates) {
+            if (!pricesApplied.contains(item.getSku())) {
+                result.getConflicts().add(new ProductBulkUpdateConflictDTO(item.getSku(), "Không tìm thấy sản phẩm"));
+            }
+        }
+        for (ProductPriceStockUpdate item : stockUpdates) {
+            if (!stockApplied.contains(item.getSku())) {
+                result.getConflicts().add(new ProductBulkUpdateConflictDTO(item.getSku(),
+                        "Không đủ tồn kho: onHand sau cập nhật nhỏ hơn số lượng đang giữ chỗ hoặc sản phẩm chưa có tồn kho"));
+            }
+        }
+
+        result.setPriceUpdated(result.getPriceUpdated() + pricesApplied.size());
+        result.setStockUpdated(result.getStockUpdated() + stockApplied.size());
+    }
+
     @Override
     public ProductDTO getProductById(UUID id) {
         Product product = productRepository.findProductById(id);
@@ -51,12 +235,30 @@ public class ProductServiceImpl implements ProductService {
         return productMapper.toProductDTO(product);
     }
 
+    @Override
+    public ProductBatchDTO getProductsByIds(List<UUID> ids) {
+        Set<UUID> distinctIds = new LinkedHashSet<>(ids);
+        Map<UUID, Product> loaded = productRepository.findAllByIdInWithRelations(distinctIds).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
+
+        ProductBatchDTO result = new ProductBatchDTO();
+        for (UUID id : distinctIds) {
+            Product product = loaded.get(id);
+            if (product == null) {
+                result.getMissing().add(id);
+            } else {
+                result.getProducts().put(id, productMapper.toProductDTO(product));
+            }
+        }
+        return result;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ProductDetailsDTO getProductDetailsById(UUID id) {
-        return productRepository.findByIdWithRelations(id)
+        return productDetailsCache.get(id, () -> productRepository.findByIdWithRelations(id)
                 .map(productMapper::toProductDetailsDTO)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", id));
+                .orElseThrow(() -> new ResourceNotFoundException("Product", id)));
     }
 
     @Override
@@ -86,6 +288,8 @@ public class ProductServiceImpl implements ProductService {
                     .collect(Collectors.toList());
             product.setMediaAssets(mediaAssets);
         }
+
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId()));
         return productMapper.toProductDTO(saved);
     }
 
@@ -153,6 +357,7 @@ public class ProductServiceImpl implements ProductService {
 
 
         var updated = productRepository.save(existing);
+        eventPublisher.publishEvent(new ProductChangedEvent(updated.getId()));
         return productMapper.toProductDTO(updated);
     }
 
@@ -172,6 +377,7 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
         return true;
     }
 
@@ -183,6 +389,7 @@ public class ProductServiceImpl implements ProductService {
         product.setDeletedAt(null);
         product.setActive(true);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
 
         return productMapper.toProductDTO(product);
     }
@@ -1,6 +1,7 @@
 package secure_shop.backend.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,7 @@ import secure_shop.backend.repositories.ProductRepository;
 import secure_shop.backend.repositories.ReviewRepository;
 import secure_shop.backend.repositories.UserRepository;
 import secure_shop.backend.service.ReviewService;
+import secure_shop.backend.service.event.ProductChangedEvent;
 
 import java.util.List;
 import java.util.UUID;
@@ -35,6 +37,7 @@ public class ReviewServiceImpl implements ReviewService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ReviewDTO createReview(ReviewDTO reviewDTO) {
@@ -229,5 +232,6 @@ public class ReviewServiceImpl implements ReviewService {
         }
 
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId));
     }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import secure_shop.backend.dto.vnpay.VNPayCallbackResponse;
 import secure_shop.backend.entities.Order;
 import secure_shop.backend.entities.Payment;
 import secure_shop.backend.enums.OrderStatus;
+import secure_shop.backend.enums.OutboxEventType;
 import secure_shop.backend.enums.PaymentMethod;
 import secure_shop.backend.enums.PaymentProvider;
 import secure_shop.backend.enums.PaymentStatus;
@@ -16,10 +17,10 @@ import secure_shop.backend.mapper.OrderMapper;
 import secure_shop.backend.mapper.PaymentMapper;
 import secure_shop.backend.repositories.OrderRepository;
 import secure_shop.backend.repositories.PaymentRepository;
-import secure_shop.backend.service.EmailService;
 import secure_shop.backend.service.VNPayService;
+import secure_shop.backend.service.outbox.OutboxService;
+import secure_shop.backend.utils.Money;
 
-import java.math.BigDecimal;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -36,7 +37,7 @@ public class VNPayServiceImpl implements VNPayService {
     private final PaymentRepository paymentRepository;
     private final OrderMapper orderMapper;
     private final PaymentMapper paymentMapper;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
 
     @Transactional
     public String createPaymentUrl(UUID orderId, String ipAddress) throws UnsupportedOperationException{
@@ -49,7 +50,8 @@ public class VNPayServiceImpl implements VNPayService {
             throw new RuntimeException("Đơn hàng đã được thanh toán");
         }
         order.recalculateTotals();
-        long amount = order.getGrandTotal().multiply(BigDecimal.valueOf(100)).longValue();
+        // vnp_Amount = số tiền x 100, đúng bằng minor unit
+        long amount = Money.toMinor(order.getGrandTotal());
 
         // Build VNPay parameters
         Map<String, String> vnpParams = new HashMap<>();
@@ -176,7 +178,7 @@ public class VNPayServiceImpl implements VNPayService {
         }
 
         try {
-            // Find payment by transaction reference
+            // Không khóa payment: return URL và IPN về cùng lúc được phân xử bởi compareAndSetStatus bên dưới
             Payment payment = paymentRepository.findByTransactionId(txnRef)
                     .orElseThrow(() -> new RuntimeException("Không tìm thấy giao dịch với txnRef: " + txnRef));
 
@@ -186,13 +188,57 @@ public class VNPayServiceImpl implements VNPayService {
 
             // Update payment and order status
             if ("00".equals(responseCode)) {
+                Order current = payment.getOrder();
+                if (current.getStatus() == OrderStatus.CONFIRMED && payment.getStatus() == PaymentStatus.PAID) {
+                    // Callback lặp lại (return URL và IPN cùng gọi về): đã xử lý, không gửi email lần nữa
+                    return responseBuilder
+                            .success(true)
+                            .message("Thanh toán thành công")
+                            .order(orderMapper.toDTO(current))
+                            .payment(paymentMapper.toDTO(payment))
+                            .build();
+                }
+
+                // PENDING -> CONFIRMED bằng UPDATE có điều kiện, không thắng được đơn vừa bị hủy (admin, job hủy đơn).
+                // Callback về cùng lúc chờ khóa dòng của UPDATE tới khi callback kia commit rồi nhận 0 dòng
+                boolean confirmed = current.getStatus().canTransitionTo(OrderStatus.CONFIRMED)
+                        && orderRepository.compareAndSetStatus(current.getId(), current.getVersion(),
+                        OrderStatus.sourcesOf(OrderStatus.CONFIRMED), OrderStatus.CONFIRMED, Instant.now()) == 1;
+
+                // Câu UPDATE trên đã xóa persistence context, đọc lại payment và đơn hàng (đã thấy dữ liệu
+                // callback kia commit nếu thua)
+                payment = paymentRepository.findByTransactionId(txnRef).orElseThrow();
+                Order order = payment.getOrder();
+                if (!confirmed && order.getStatus() == OrderStatus.CONFIRMED
+                        && payment.getStatus() == PaymentStatus.PAID) {
+                    // Callback kia vừa xác nhận xong: kết quả giống lần gọi lặp lại ở trên
+                    return responseBuilder
+                            .success(true)
+                            .message("Thanh toán thành công")
+                            .order(orderMapper.toDTO(order))
+                            .payment(paymentMapper.toDTO(payment))
+                            .build();
+                }
+
+                payment.setGatewayResponse(gatewayResponse);
                 payment.setStatus(PaymentStatus.PAID);
                 payment.setPaidAt(Instant.now());
 
+                // Chỉ hoàn tiền khi đơn thực sự đã sang trạng thái không nhận thanh toán (bị hủy, đã giao, ...)
+                if (!confirmed && order.getStatus() != OrderStatus.CONFIRMED) {
+                    log.error("Payment {} succeeded but order {} is {}, manual refund required",
+                            txnRef, order.getId(), order.getStatus());
+                    paymentRepository.save(payment);
+                    return responseBuilder
+                            .success(false)
+                            .message("Đơn hàng không còn chờ thanh toán, giao dịch sẽ được hoàn tiền")
+                            .order(orderMapper.toDTO(order))
+                            .payment(paymentMapper.toDTO(payment))
+                            .build();
+                }
+
                 // Update order
-                Order order = payment.getOrder();
                 order.setPaymentStatus(PaymentStatus.PAID);
-                order.setStatus(OrderStatus.CONFIRMED);
                 order.setHasPaid(true);
                 order.setConfirmedAt(Instant.now());
                 orderRepository.save(order);
@@ -202,11 +248,7 @@ public class VNPayServiceImpl implements VNPayService {
                 // Build success response with order and payment details
                 paymentRepository.save(payment);
 
-                try {
-                    emailService.sendOrderConfirmationEmail(order);
-                } catch (Exception ex) {
-                    log.error("Failed to send order confirmation email for order: {}", order.getId(), ex);
-                }
+                outboxService.enqueue(OutboxEventType.ORDER_CONFIRMATION_EMAIL, order.getId());
 
                 return responseBuilder
                         .success(true)
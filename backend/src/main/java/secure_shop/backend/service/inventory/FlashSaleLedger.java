@@ -0,0 +1,496 @@
+package secure_shop.backend.service.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import secure_shop.backend.dto.order.StockShortageDTO;
+import secure_shop.backend.dto.product.FlashSaleStatusDTO;
+import secure_shop.backend.exception.ResourceNotFoundException;
+import secure_shop.backend.repositories.jdbc.InventoryJdbcRepository;
+import secure_shop.backend.repositories.jdbc.InventoryJdbcRepository.ReservedCheck;
+import secure_shop.backend.service.event.FlashSaleReleasedEvent;
+import secure_shop.backend.service.event.FlashSaleReservedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sổ giữ hàng trên Redis cho các sản phẩm đang flash sale.
+ * Với sản phẩm được bật flash sale, tồn kho khả dụng được nạp sẵn vào Redis và việc giữ hàng
+ * chỉ là một script Lua (kiểm tra + DECRBY nguyên tử), nên không còn tranh khóa trên dòng inventory.
+ * Phần giữ được ghi thành một "hold" có hạn; chỉ sau khi giao dịch đặt hàng commit thì hold mới được
+ * chuyển vào bộ đếm pending và ghi xuống inventory.reserved theo lô bởi {@link FlashSaleSyncJob}.
+ * Nhờ vậy node chết giữa chừng không làm reserved trong DB tăng sai; hold của nó hết hạn và đối soát trả lại hàng.
+ * Bất biến: available = (onHand - reserved) - pending - hold còn hạn.
+ */
+@Slf4j
+@Component
+public class FlashSaleLedger {
+
+    private static final String FLAGGED_KEY = "flashsale:products";
+    private static final String AVAILABLE_PREFIX = "flashsale:available:";
+    private static final String PENDING_PREFIX = "flashsale:pending:";
+    // Sorted set theo sản phẩm: member "token:qty", score là thời điểm hết hạn (epoch ms)
+    private static final String HOLD_PREFIX = "flashsale:hold:";
+
+    // ARGV: prefix available, prefix hold, token, hạn hold, rồi từng cặp (productId, qty).
+    // Trả về {'1', các productId đã giữ trên Redis} hoặc {'0', productId, available, ...} khi thiếu hàng.
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local accepted = {}
+            local shortages = {}
+            for i = 5, #ARGV, 2 do
+                local pid = ARGV[i]
+                local qty = tonumber(ARGV[i + 1])
+                if redis.call('sismember', KEYS[1], pid) == 1 then
+                    local available = tonumber(redis.call('get', ARGV[1] .. pid) or '0')
+                    if available < qty then
+                        table.insert(shortages, pid)
+                        table.insert(shortages, tostring(available))
+                    else
+                        table.insert(accepted, pid)
+                        table.insert(accepted, qty)
+                    end
+                end
+            end
+            if #shortages > 0 then
+                table.insert(shortages, 1, '0')
+                return shortages
+            end
+            local result = {'1'}
+            for i = 1, #accepted, 2 do
+                redis.call('decrby', ARGV[1] .. accepted[i], accepted[i + 1])
+                redis.call('zadd', ARGV[2] .. accepted[i], ARGV[4], ARGV[3] .. ':' .. accepted[i + 1])
+                table.insert(result, accepted[i])
+            end
+            return result
+            """, List.class);
+
+    // Đơn đã commit: bỏ hold và cộng vào pending. Sản phẩm đã tắt flash sale trong lúc đó
+    // được trả về {productId, qty} để bên gọi ghi thẳng xuống DB.
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> COMMIT_HOLD_SCRIPT = new DefaultRedisScript<>("""
+            local direct = {}
+            for i = 4, #ARGV, 2 do
+                local pid = ARGV[i]
+                redis.call('zrem', ARGV[1] .. pid, ARGV[3] .. ':' .. ARGV[i + 1])
+                if redis.call('sismember', KEYS[1], pid) == 1 then
+                    redis.call('incrby', ARGV[2] .. pid, ARGV[i + 1])
+                else
+                    table.insert(direct, pid)
+                    table.insert(direct, ARGV[i + 1])
+                end
+            end
+            return direct
+            """, List.class);
+
+    // Đơn rollback: trả hàng về available, chỉ khi hold còn (đối soát chưa tính lại hàng đó).
+    private static final DefaultRedisScript<Long> ROLLBACK_HOLD_SCRIPT = new DefaultRedisScript<>("""
+            for i = 4, #ARGV, 2 do
+                local pid = ARGV[i]
+                if redis.call('zrem', ARGV[1] .. pid, ARGV[3] .. ':' .. ARGV[i + 1]) == 1
+                        and redis.call('sismember', KEYS[1], pid) == 1 then
+                    redis.call('incrby', ARGV[2] .. pid, ARGV[i + 1])
+                end
+            end
+            return 1
+            """, Long.class);
+
+    // Hàng được trả lại trong DB (hủy đơn): cộng lại available cho các sản phẩm đang flash sale
+    private static final DefaultRedisScript<Long> RESTOCK_SCRIPT = new DefaultRedisScript<>("""
+            for i = 2, #ARGV, 2 do
+                if redis.call('sismember', KEYS[1], ARGV[i]) == 1 then
+                    redis.call('incrby', ARGV[1] .. ARGV[i], ARGV[i + 1])
+                end
+            end
+            return 1
+            """, Long.class);
+
+    // Lấy toàn bộ pending của các sản phẩm (ARGV[2..]) để ghi xuống DB: {productId, delta, ...}
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> TAKE_PENDING_SCRIPT = new DefaultRedisScript<>("""
+            local out = {}
+            for i = 2, #ARGV do
+                local key = ARGV[1] .. ARGV[i]
+                local value = tonumber(redis.call('get', key) or '0')
+                if value ~= 0 then
+                    redis.call('decrby', key, value)
+                    table.insert(out, ARGV[i])
+                    table.insert(out, tostring(value))
+                end
+            end
+            return out
+            """, List.class);
+
+    private static final DefaultRedisScript<Long> ENABLE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('sismember', KEYS[1], ARGV[1]) == 1 then
+                return 0
+            end
+            redis.call('set', KEYS[2], ARGV[2])
+            redis.call('set', KEYS[3], '0')
+            redis.call('del', KEYS[4])
+            redis.call('sadd', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // KEYS: available, pending, hold; ARGV: onHand - reserved theo DB, thời điểm hiện tại (ms), '1' nếu cần sửa lệch.
+    // Hold quá hạn (node chết trước khi commit/rollback) bị bỏ. Trả về {available, pending, held} trước khi sửa.
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> RECONCILE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('zremrangebyscore', KEYS[3], '-inf', ARGV[2])
+            local held = 0
+            for _, member in ipairs(redis.call('zrange', KEYS[3], 0, -1)) do
+                held = held + tonumber(string.match(member, ':(%d+)$'))
+            end
+            local available = tonumber(redis.call('get', KEYS[1]) or '0')
+            local pending = tonumber(redis.call('get', KEYS[2]) or '0')
+            local expected = tonumber(ARGV[1]) - pending - held
+            if ARGV[3] == '1' and available ~= expected then
+                redis.call('set', KEYS[1], expected)
+            end
+            return {tostring(available), tostring(pending), tostring(held)}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final TransactionTemplate requiresNew;
+    private final Map<UUID, Integer> suspectedDrift = new ConcurrentHashMap<>();
+
+    @Value("${app.inventory.flash-sale.auto-correct:true}")
+    private boolean autoCorrect;
+
+    // Lâu hơn nhiều so với một giao dịch đặt hàng; hold quá hạn coi như của node đã chết
+    @Value("${app.inventory.flash-sale.hold-ttl:60s}")
+    private Duration holdTtl;
+
+    public FlashSaleLedger(StringRedisTemplate redisTemplate,
+                           InventoryJdbcRepository inventoryJdbcRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.redisTemplate = redisTemplate;
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Giữ hàng trên Redis cho các sản phẩm đang flash sale trong giỏ; sản phẩm khác bị bỏ qua.
+     * Hoặc giữ được tất cả, hoặc không giữ gì. Bên gọi phát {@link FlashSaleReservedEvent} với holdToken
+     * để hold được chuyển thành pending sau commit hoặc trả lại khi rollback.
+     *
+     * @throws org.springframework.dao.DataAccessException khi Redis không khả dụng
+     */
+    public ReserveResult reserve(Map<UUID, Integer> quantities) {
+        String holdToken = UUID.randomUUID().toString();
+        if (quantities.isEmpty()) return new ReserveResult(holdToken, Set.of(), List.of());
+
+        List<String> args = new ArrayList<>(quantities.size() * 2 + 4);
+        args.add(AVAILABLE_PREFIX);
+        args.add(HOLD_PREFIX);
+        args.add(holdToken);
+        args.add(String.valueOf(System.currentTimeMillis() + holdTtl.toMillis()));
+        addPairs(args, quantities);
+
+        List<String> reply = execute(RESERVE_SCRIPT, List.of(FLAGGED_KEY), args);
+        if (reply.isEmpty()) return new ReserveResult(holdToken, Set.of(), List.of());
+
+        if ("0".equals(reply.get(0))) {
+            List<StockShortageDTO> shortages = new ArrayList<>();
+            for (int i = 1; i + 1 < reply.size(); i += 2) {
+                UUID productId = UUID.fromString(reply.get(i));
+                int available = (int) Math.max(0, Long.parseLong(reply.get(i + 1)));
+                shortages.add(new StockShortageDTO(productId, quantities.get(productId), available));
+            }
+            return new ReserveResult(holdToken, Set.of(), shortages);
+        }
+
+        Set<UUID> reserved = new LinkedHashSet<>();
+        for (int i = 1; i < reply.size(); i++) {
+            reserved.add(UUID.fromString(reply.get(i)));
+        }
+        return new ReserveResult(holdToken, reserved, List.of());
+    }
+
+    /**
+     * Đơn đã commit: chuyển hold thành pending để được ghi xuống inventory.reserved.
+     * Nếu node chết trước bước này, đối soát tính lại reserved từ các đơn còn giữ hàng.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCommitted(FlashSaleReservedEvent event) {
+        try {
+            List<String> args = new ArrayList<>(event.quantities().size() * 2 + 3);
+            args.add(HOLD_PREFIX);
+            args.add(PENDING_PREFIX);
+            args.add(event.holdToken());
+            addPairs(args, event.quantities());
+
+            Map<UUID, Integer> direct = toDeltaMap(execute(COMMIT_HOLD_SCRIPT, List.of(FLAGGED_KEY), args));
+            if (!direct.isEmpty()) {
+                // Đã ở sau commit nên cần giao dịch riêng để câu UPDATE thực sự được commit
+                requiresNew.executeWithoutResult(status -> writeReserved(direct));
+            }
+        } catch (Exception ex) {
+            log.error("Failed to commit flash-sale hold {} {}", event.holdToken(), event.quantities(), ex);
+        }
+    }
+
+    /**
+     * Trả lại chỗ đã giữ trên Redis khi giao dịch tạo đơn bị rollback.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onOrderRolledBack(FlashSaleReservedEvent event) {
+        try {
+            List<String> args = new ArrayList<>(event.quantities().size() * 2 + 3);
+            args.add(HOLD_PREFIX);
+            args.add(AVAILABLE_PREFIX);
+            args.add(event.holdToken());
+            addPairs(args, event.quantities());
+            redisTemplate.execute(ROLLBACK_HOLD_SCRIPT, List.of(FLAGGED_KEY), args.toArray());
+        } catch (Exception ex) {
+            // Hold sẽ hết hạn và đối soát định kỳ trả lại hàng
+            log.error("Failed to release flash-sale hold {} {}", event.holdToken(), event.quantities(), ex);
+        }
+    }
+
+    /**
+     * Hàng đã được trả lại trong inventory.reserved (hủy đơn) sau khi commit: cộng lại available trên Redis.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStockReleased(FlashSaleReleasedEvent event) {
+        try {
+            List<String> args = new ArrayList<>(event.quantities().size() * 2 + 1);
+            args.add(AVAILABLE_PREFIX);
+            addPairs(args, event.quantities());
+            redisTemplate.execute(RESTOCK_SCRIPT, List.of(FLAGGED_KEY), args.toArray());
+        } catch (Exception ex) {
+            log.error("Failed to restock flash-sale ledger {}", event.quantities(), ex);
+        }
+    }
+
+    /**
+     * Ghi ngay pending của các sản phẩm đã cho (nếu đang flash sale) trong giao dịch riêng, để thao tác
+     * xác nhận/hủy đơn ngay sau khi đặt thấy đủ reserved trong DB.
+     * Redis lỗi thì bỏ qua; thao tác phía sau sẽ tự báo lỗi nếu reserved chưa đủ.
+     */
+    public void flushNow(Collection<UUID> productIds) {
+        try {
+            Set<UUID> targets = new LinkedHashSet<>(flaggedProducts());
+            if (productIds != null) {
+                targets.retainAll(productIds);
+            }
+            if (targets.isEmpty()) return;
+            requiresNew.executeWithoutResult(status -> flushPending(targets));
+        } catch (Exception ex) {
+            log.warn("Could not flush flash-sale pending for {}: {}", productIds, ex.getMessage());
+        }
+    }
+
+    /**
+     * Như {@link #flushNow} cho mọi sản phẩm đang flash sale; dùng trước các thao tác hàng loạt
+     * không biết trước danh sách sản phẩm.
+     */
+    public void flushAll() {
+        flushNow(null);
+    }
+
+    /**
+     * Bật flash sale cho sản phẩm: nạp onHand - reserved hiện tại vào Redis.
+     * Gọi lại khi đã bật thì không làm gì.
+     */
+    public void enable(UUID productId) {
+        Integer available = inventoryJdbcRepository.findAvailable(List.of(productId)).get(productId);
+        if (available == null) {
+            throw new ResourceNotFoundException("Inventory", productId);
+        }
+        redisTemplate.execute(ENABLE_SCRIPT,
+                List.of(FLAGGED_KEY, AVAILABLE_PREFIX + productId, PENDING_PREFIX + productId, HOLD_PREFIX + productId),
+                productId.toString(), String.valueOf(available));
+        log.info("Flash sale enabled for product {} with {} units", productId, available);
+    }
+
+    /**
+     * Tắt flash sale: ngừng nhận giữ hàng trên Redis, ghi nốt pending xuống DB rồi xóa các bộ đếm.
+     * Đơn đang dở sẽ ghi thẳng xuống DB khi commit. Có thể gọi lại nếu lần trước lỗi giữa chừng.
+     */
+    public void disable(UUID productId) {
+        redisTemplate.opsForSet().remove(FLAGGED_KEY, productId.toString());
+        flushPending(Set.of(productId));
+        redisTemplate.delete(List.of(
+                AVAILABLE_PREFIX + productId, PENDING_PREFIX + productId, HOLD_PREFIX + productId));
+        log.info("Flash sale disabled for product {}", productId);
+    }
+
+    public Set<UUID> flaggedProducts() {
+        Set<String> members = redisTemplate.opsForSet().members(FLAGGED_KEY);
+        if (members == null || members.isEmpty()) return Set.of();
+
+        Set<UUID> result = new LinkedHashSet<>();
+        members.forEach(member -> result.add(UUID.fromString(member)));
+        return result;
+    }
+
+    /**
+     * Ghi các delta pending xuống inventory.reserved trong một câu UPDATE.
+     * Nếu ghi DB lỗi thì cộng trả lại pending trên Redis để lần sau ghi tiếp.
+     *
+     * @return các sản phẩm đã được ghi
+     */
+    public Set<UUID> flushPending(Set<UUID> productIds) {
+        if (productIds.isEmpty()) return Set.of();
+
+        List<String> args = new ArrayList<>(productIds.size() + 1);
+        args.add(PENDING_PREFIX);
+        productIds.forEach(productId -> args.add(productId.toString()));
+
+        Map<UUID, Integer> deltas = toDeltaMap(execute(TAKE_PENDING_SCRIPT, List.of(), args));
+        if (deltas.isEmpty()) return Set.of();
+
+        Set<UUID> rejected;
+        try {
+            rejected = inventoryJdbcRepository.addReserved(deltas);
+        } catch (RuntimeException ex) {
+            restorePending(deltas);
+            throw ex;
+        }
+        if (!rejected.isEmpty()) {
+            // reserved sẽ âm: số liệu đã lệch, để đối soát tính lại từ đơn hàng thay vì kẹp về 0
+            Map<UUID, Integer> kept = new LinkedHashMap<>(deltas);
+            kept.keySet().retainAll(rejected);
+            restorePending(kept);
+            log.error("Flash-sale pending {} would make inventory.reserved negative, kept for reconciliation", kept);
+        }
+        Set<UUID> flushed = new LinkedHashSet<>(deltas.keySet());
+        flushed.removeAll(rejected);
+        return flushed;
+    }
+
+    /**
+     * Đối soát cả hai phía cho các sản phẩm đang flash sale:
+     * inventory.reserved với tổng số lượng của các đơn còn giữ hàng (trừ phần pending chưa ghi),
+     * rồi sổ Redis với DB. Sửa lệch nếu bật auto-correct. Nên gọi ngay sau {@link #flushPending}.
+     */
+    public List<FlashSaleStatusDTO> reconcile() {
+        if (autoCorrect) {
+            reconcileReserved(flaggedProducts());
+        }
+        return inspect(autoCorrect);
+    }
+
+    public List<FlashSaleStatusDTO> getStatus() {
+        return inspect(false);
+    }
+
+    private void reconcileReserved(Set<UUID> productIds) {
+        suspectedDrift.keySet().retainAll(productIds);
+        for (ReservedCheck check : inventoryJdbcRepository.checkReserved(productIds)) {
+            String pendingValue = redisTemplate.opsForValue().get(PENDING_PREFIX + check.productId());
+            int pending = pendingValue != null ? Integer.parseInt(pendingValue) : 0;
+            int expected = Math.max(0, check.reservedByOrders() - pending);
+            int drift = check.reserved() - expected;
+            // Đơn vừa commit nhưng chưa kịp cộng pending cũng tạo lệch tạm thời,
+            // nên chỉ sửa khi cùng một độ lệch xuất hiện ở hai lần đối soát liên tiếp
+            if (drift == 0) {
+                suspectedDrift.remove(check.productId());
+                continue;
+            }
+            Integer previous = suspectedDrift.put(check.productId(), drift);
+            if (previous == null || previous != drift) continue;
+
+            suspectedDrift.remove(check.productId());
+            if (inventoryJdbcRepository.compareAndSetReserved(check.productId(), check.reserved(), expected)) {
+                log.warn("inventory.reserved drift {} for flash-sale product {} (db={}, orders={}, pending={}), corrected",
+                        drift, check.productId(), check.reserved(),
+                        check.reservedByOrders(), pending);
+            }
+        }
+    }
+
+    private List<FlashSaleStatusDTO> inspect(boolean correct) {
+        Set<UUID> productIds = flaggedProducts();
+        if (productIds.isEmpty()) return List.of();
+
+        Map<UUID, Integer> dbAvailable = inventoryJdbcRepository.findAvailable(productIds);
+        String now = String.valueOf(System.currentTimeMillis());
+        List<FlashSaleStatusDTO> result = new ArrayList<>(productIds.size());
+        for (UUID productId : productIds) {
+            long databaseAvailable = dbAvailable.getOrDefault(productId, 0);
+            List<String> reply = execute(RECONCILE_SCRIPT,
+                    List.of(AVAILABLE_PREFIX + productId, PENDING_PREFIX + productId, HOLD_PREFIX + productId),
+                    List.of(String.valueOf(databaseAvailable), now, correct ? "1" : "0"));
+            long available = Long.parseLong(reply.get(0));
+            long pending = Long.parseLong(reply.get(1));
+            long held = Long.parseLong(reply.get(2));
+            long drift = available - (databaseAvailable - pending - held);
+
+            if (drift != 0 && correct) {
+                log.warn("Flash-sale ledger drift {} for product {} (redis={}, pending={}, held={}, db={}), corrected",
+                        drift, productId, available, pending, held, databaseAvailable);
+            }
+            result.add(FlashSaleStatusDTO.builder()
+                    .productId(productId)
+                    .available(available)
+                    .pendingReserved(pending)
+                    .held(held)
+                    .databaseAvailable(databaseAvailable)
+                    .drift(drift)
+                    .build());
+        }
+        return result;
+    }
+
+    private void writeReserved(Map<UUID, Integer> deltas) {
+        Set<UUID> rejected = inventoryJdbcRepository.addReserved(deltas);
+        if (!rejected.isEmpty()) {
+            log.error("Could not add flash-sale reservation to inventory.reserved for {}", rejected);
+        }
+    }
+
+    private void restorePending(Map<UUID, Integer> deltas) {
+        deltas.forEach((productId, delta) ->
+                redisTemplate.opsForValue().increment(PENDING_PREFIX + productId, delta));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<String> execute(DefaultRedisScript<List> script, List<String> keys, List<String> args) {
+        List reply = redisTemplate.execute(script, keys, args.toArray());
+        return reply != null ? (List<String>) reply : List.of();
+    }
+
+    private static void addPairs(List<String> args, Map<UUID, Integer> quantities) {
+        quantities.forEach((productId, qty) -> {
+            args.add(productId.toString());
+            args.add(String.valueOf(qty));
+        });
+    }
+
+    private static Map<UUID, Integer> toDeltaMap(List<String> pairs) {
+        Map<UUID, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < pairs.size(); i += 2) {
+            result.merge(UUID.fromString(pairs.get(i)), Integer.parseInt(pairs.get(i + 1)), Integer::sum);
+        }
+        return result;
+    }
+
+    /**
+     * @param holdToken định danh hold của lần đặt hàng này, dùng trong {@link FlashSaleReservedEvent}
+     */
+    public record ReserveResult(String holdToken, Set<UUID> reservedProductIds, List<StockShortageDTO> shortages) {
+        public boolean isRejected() {
+            return !shortages.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package secure_shop.backend.service.inventory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import secure_shop.backend.service.event.InventoryChangedEvent;
+import secure_shop.backend.service.lock.DistributedLock;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Đồng bộ sổ flash sale xuống cơ sở dữ liệu: ghi gộp pending vào inventory.reserved theo chu kỳ ngắn,
+ * và đối soát định kỳ với onHand - reserved. Hai việc dùng chung một khóa nên không chạy chồng nhau,
+ * và đối soát luôn ghi pending trước để so trên số liệu mới nhất.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FlashSaleSyncJob {
+
+    private static final String LOCK_NAME = "flash-sale-sync";
+
+    private final FlashSaleLedger ledger;
+    private final DistributedLock distributedLock;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.inventory.flash-sale.lock-ttl:1m}")
+    private Duration lockTtl;
+
+    @Scheduled(fixedDelayString = "${app.inventory.flash-sale.flush-interval:1s}")
+    public void flush() {
+        distributedLock.runExclusively(LOCK_NAME, lockTtl, this::flushPending);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.flash-sale.reconcile-interval:30s}",
+            initialDelayString = "${app.inventory.flash-sale.reconcile-interval:30s}")
+    public void reconcile() {
+        distributedLock.runExclusively(LOCK_NAME, lockTtl, () -> {
+            flushPending();
+            try {
+                ledger.reconcile();
+            } catch (Exception ex) {
+                log.error("Flash-sale reconciliation failed", ex);
+            }
+        });
+    }
+
+    private void flushPending() {
+        try {
+            Set<UUID> productIds = ledger.flaggedProducts();
+            Set<UUID> flushed = ledger.flushPending(productIds);
+            if (!flushed.isEmpty()) {
+                eventPublisher.publishEvent(new InventoryChangedEvent(flushed));
+            }
+        } catch (Exception ex) {
+            log.error("Failed to flush flash-sale reservations", ex);
+        }
+    }
+}
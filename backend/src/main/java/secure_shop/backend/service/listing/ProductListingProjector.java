@@ -0,0 +1,119 @@
+package secure_shop.backend.service.listing;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import secure_shop.backend.dto.product.ProductFacetScope;
+import secure_shop.backend.repositories.ProductListingRepository;
+import secure_shop.backend.service.cache.ProductFacetsCache;
+import secure_shop.backend.service.event.BrandChangedEvent;
+import secure_shop.backend.service.event.CategoryChangedEvent;
+import secure_shop.backend.service.event.InventoryChangedEvent;
+import secure_shop.backend.service.event.ProductChangedEvent;
+import secure_shop.backend.service.event.ProductsBulkChangedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Giữ bảng product_listing đồng bộ với products/categories/brands/inventory.
+ * Chạy sau khi giao dịch ghi commit, trong giao dịch riêng (REQUIRES_NEW); thay đổi sản phẩm/tồn kho
+ * được xử lý bất đồng bộ. Mỗi lần cập nhật là một câu UPSERT đọc lại trạng thái mới nhất từ bảng gốc.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductListingProjector {
+
+    private final ProductListingRepository productListingRepository;
+    private final ProductFacetsCache productFacetsCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int refreshed = productListingRepository.refreshAll();
+        int removed = productListingRepository.deleteOrphans();
+        evictFacets();
+        log.info("Product listing rebuilt: {} rows refreshed, {} removed in {} ms",
+                refreshed, removed, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onProductsBulkChanged(ProductsBulkChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Chạy bất đồng bộ sau commit: giao dịch ghi và request không phải chờ read model.
+     * Facet chỉ bị bỏ theo danh mục/thương hiệu cũ và mới của sản phẩm, sau khi giao dịch làm mới commit.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.productId() == null) return;
+        Set<UUID> ids = Set.of(event.productId());
+        List<ProductFacetScope> scopes = transactionTemplate.execute(status -> {
+            List<ProductFacetScope> affected = new ArrayList<>(productListingRepository.findFacetScopes(ids));
+            if (productListingRepository.refreshProduct(event.productId()) == 0) {
+                // Không còn trong bảng products (đã xóa cứng)
+                productListingRepository.deleteOrphans();
+            } else {
+                affected.addAll(productListingRepository.findFacetScopes(ids));
+            }
+            return affected;
+        });
+        productFacetsCache.evict(scopes);
+    }
+
+    /**
+     * Mỗi giao dịch phát một sự kiện cho mọi sản phẩm đổi tồn kho, nên một lần đặt hàng chỉ tốn
+     * một câu UPSERT và một lần bỏ facet. Tồn kho không đổi danh mục/thương hiệu nên chỉ cần đọc phạm vi một lần.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.productIds().isEmpty()) return;
+        List<ProductFacetScope> scopes = transactionTemplate.execute(status -> {
+            productListingRepository.refreshProducts(event.productIds());
+            return productListingRepository.findFacetScopes(event.productIds());
+        });
+        productFacetsCache.evict(scopes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBrandChanged(BrandChangedEvent event) {
+        if (event.brandId() != null) {
+            productListingRepository.refreshByBrand(event.brandId());
+        }
+        productListingRepository.deleteOrphans();
+        evictFacets();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.categoryId() != null) {
+            productListingRepository.refreshByCategory(event.categoryId());
+        }
+        productListingRepository.deleteOrphans();
+        evictFacets();
+    }
+
+    // Facet đếm trên product_listing nên chỉ xóa cache sau khi read model đã cập nhật
+    private void evictFacets() {
+        productFacetsCache.evictAll();
+    }
+}
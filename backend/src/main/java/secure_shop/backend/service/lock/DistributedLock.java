@@ -0,0 +1,64 @@
+package secure_shop.backend.service.lock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Khóa dùng chung giữa các node qua Redis (SET NX PX), dùng cho job định kỳ chỉ nên chạy ở một node.
+ * Khóa có TTL nên node chết giữa chừng cũng không giữ khóa mãi; chỉ node đang giữ token mới được xóa khóa.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DistributedLock {
+
+    private static final String KEY_PREFIX = "lock:";
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Chạy task nếu giành được khóa.
+     *
+     * @return false nếu node khác đang giữ khóa hoặc Redis không khả dụng
+     */
+    public boolean runExclusively(String name, Duration ttl, Runnable task) {
+        String key = KEY_PREFIX + name;
+        String token = UUID.randomUUID().toString();
+
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(key, token, ttl);
+        } catch (Exception ex) {
+            log.warn("Không lấy được khóa {}: {}", key, ex.getMessage());
+            return false;
+        }
+        if (!Boolean.TRUE.equals(acquired)) {
+            return false;
+        }
+
+        try {
+            task.run();
+            return true;
+        } finally {
+            try {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+            } catch (Exception ex) {
+                log.warn("Không trả được khóa {}, khóa sẽ hết hạn sau {}: {}", key, ttl, ex.getMessage());
+            }
+        }
+    }
+}
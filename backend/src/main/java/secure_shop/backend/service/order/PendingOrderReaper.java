@@ -0,0 +1,141 @@
+package secure_shop.backend.service.order;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import secure_shop.backend.enums.PaymentMethod;
+import secure_shop.backend.repositories.jdbc.OrderReaperJdbcRepository;
+import secure_shop.backend.repositories.jdbc.OrderReaperJdbcRepository.CancelResult;
+import secure_shop.backend.repositories.jdbc.OrderReaperJdbcRepository.ExpiredOrder;
+import secure_shop.backend.service.event.DiscountUsageReleasedEvent;
+import secure_shop.backend.service.event.InventoryChangedEvent;
+import secure_shop.backend.service.inventory.FlashSaleLedger;
+import secure_shop.backend.service.lock.DistributedLock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Job định kỳ hủy các đơn PENDING chưa thanh toán đã quá hạn và trả lại hàng đã giữ,
+ * để tồn kho không bị "giữ ảo" cho tới khi admin hủy tay.
+ * Chỉ một node chạy tại một thời điểm nhờ khóa Redis; mỗi lô chạy trong một giao dịch riêng.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingOrderReaper {
+
+    private static final String LOCK_NAME = "pending-order-reaper";
+
+    private final OrderReaperJdbcRepository reaperRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributedLock distributedLock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FlashSaleLedger flashSaleLedger;
+
+    @Value("${app.orders.reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.orders.reaper.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.orders.reaper.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.orders.reaper.lock-ttl:10m}")
+    private Duration lockTtl;
+
+    @Value("${app.orders.reaper.ttl.cod:72h}")
+    private Duration codTtl;
+
+    @Value("${app.orders.reaper.ttl.bank-transfer:24h}")
+    private Duration bankTransferTtl;
+
+    @Value("${app.orders.reaper.ttl.e-wallet:1h}")
+    private Duration eWalletTtl;
+
+    // Đơn chưa tạo bản ghi thanh toán (khách bỏ dở trước khi chọn phương thức)
+    @Value("${app.orders.reaper.ttl.no-payment:24h}")
+    private Duration noPaymentTtl;
+
+    private final Map<PaymentMethod, Duration> ttlByMethod = new EnumMap<>(PaymentMethod.class);
+
+    @PostConstruct
+    void init() {
+        ttlByMethod.put(PaymentMethod.COD, codTtl);
+        ttlByMethod.put(PaymentMethod.BANK_TRANSFER, bankTransferTtl);
+        ttlByMethod.put(PaymentMethod.E_WALLET, eWalletTtl);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.reaper.interval:5m}",
+            initialDelayString = "${app.orders.reaper.initial-delay:1m}")
+    public void reap() {
+        if (!enabled) return;
+
+        boolean ran = distributedLock.runExclusively(LOCK_NAME, lockTtl, this::reapExpiredOrders);
+        if (!ran) {
+            log.debug("Pending order reaper skipped: lock held by another node");
+        }
+    }
+
+    private void reapExpiredOrders() {
+        long start = System.currentTimeMillis();
+        Instant afterCreatedAt = Instant.EPOCH;
+        UUID afterId = new UUID(0, 0);
+        int cancelled = 0;
+        Set<UUID> releasedProducts = new LinkedHashSet<>();
+        // Phần giữ chỗ flash sale còn nằm trên Redis phải có trong inventory.reserved trước khi trả lại
+        flashSaleLedger.flushAll();
+
+        for (int batchNo = 0; batchNo < maxBatchesPerRun; batchNo++) {
+            List<ExpiredOrder> batch = reaperRepository.findExpiredBatch(
+                    ttlByMethod, noPaymentTtl, afterCreatedAt, afterId, batchSize);
+            if (batch.isEmpty()) break;
+
+            List<UUID> ids = batch.stream().map(ExpiredOrder::id).toList();
+            try {
+                CancelResult result = transactionTemplate.execute(status -> {
+                    CancelResult cancelledBatch = reaperRepository.cancelAndRelease(ids);
+                    // Bộ đếm lượt dùng trên Redis được cộng lại sau khi lô commit
+                    cancelledBatch.releasedDiscountIds().forEach(discountId ->
+                            eventPublisher.publishEvent(new DiscountUsageReleasedEvent(discountId)));
+                    return cancelledBatch;
+                });
+                if (result != null) {
+                    cancelled += result.cancelledOrders();
+                    releasedProducts.addAll(result.releasedProductIds());
+                    if (!result.shortOrderIds().isEmpty()) {
+                        log.warn("Pending order reaper skipped {} expired orders whose reserved stock is short: {}",
+                                result.shortOrderIds().size(), result.shortOrderIds());
+                    }
+                }
+            } catch (Exception ex) {
+                log.error("Failed to cancel expired orders batch starting at {}", ids.get(0), ex);
+            }
+
+            ExpiredOrder last = batch.get(batch.size() - 1);
+            afterCreatedAt = last.createdAt();
+            afterId = last.id();
+            if (batch.size() < batchSize) break;
+        }
+
+        if (!releasedProducts.isEmpty()) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(releasedProducts));
+        }
+        if (cancelled > 0) {
+            log.info("Pending order reaper cancelled {} orders, released stock for {} products in {} ms",
+                    cancelled, releasedProducts.size(), System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package secure_shop.backend.service.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import secure_shop.backend.dto.order.OrderConfirmationEmailDTO;
+import secure_shop.backend.entities.Order;
+import secure_shop.backend.enums.OutboxEventType;
+import secure_shop.backend.repositories.OrderRepository;
+import secure_shop.backend.service.EmailService;
+
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderConfirmationEmailHandler implements OutboxEventHandler {
+
+    private final OrderRepository orderRepository;
+    private final EmailService emailService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public OutboxEventType type() {
+        return OutboxEventType.ORDER_CONFIRMATION_EMAIL;
+    }
+
+    @Override
+    public void handle(UUID orderId) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // Giao dịch chỉ đọc để nạp các quan hệ lazy vào DTO; SMTP chạy sau khi đã trả kết nối DB
+        OrderConfirmationEmailDTO email = readOnly.execute(status -> {
+            Order order = orderRepository.findById(orderId).orElse(null);
+            if (order == null) {
+                log.warn("Skip order confirmation email: order {} no longer exists", orderId);
+                return null;
+            }
+            return emailService.prepareOrderConfirmationEmail(order);
+        });
+        if (email == null) return;
+
+        try {
+            emailService.sendOrderConfirmationEmail(email);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Gửi email xác nhận đơn hàng thất bại: " + ex.getMessage(), ex);
+        }
+    }
+}
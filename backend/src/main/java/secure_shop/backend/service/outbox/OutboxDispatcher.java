@@ -0,0 +1,194 @@
+package secure_shop.backend.service.outbox;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import secure_shop.backend.dto.OutboxStatsDTO;
+import secure_shop.backend.enums.OutboxEventType;
+import secure_shop.backend.repositories.jdbc.OutboxJdbcRepository;
+import secure_shop.backend.repositories.jdbc.OutboxJdbcRepository.ClaimedEvent;
+import secure_shop.backend.service.event.OutboxEnqueuedEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lấy sự kiện trong outbox theo lô và chạy handler trên một pool luồng giới hạn.
+ * Mỗi node chỉ có một lượt quét tại một thời điểm (cờ draining, vì TaskScheduler có nhiều luồng và
+ * lượt quét do sự kiện có thể trùng lượt quét định kỳ); giữa các node thì FOR UPDATE SKIP LOCKED tránh xử lý trùng.
+ * Lỗi được thử lại với backoff lũy thừa, quá số lần cho phép thì đánh dấu FAILED.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    private final OutboxJdbcRepository outboxRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${app.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.outbox.lease:5m}")
+    private Duration lease;
+
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.base-backoff:10s}")
+    private Duration baseBackoff;
+
+    @Value("${app.outbox.max-backoff:30m}")
+    private Duration maxBackoff;
+
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+
+    @Value("${app.outbox.backlog-warn-threshold:500}")
+    private long backlogWarnThreshold;
+
+    private final Map<OutboxEventType, OutboxEventHandler> handlersByType = new EnumMap<>(OutboxEventType.class);
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder givenUp = new LongAdder();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    @PostConstruct
+    void init() {
+        for (OutboxEventHandler handler : handlers) {
+            handlersByType.put(handler.type(), handler);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchSize),
+                r -> {
+                    Thread t = new Thread(r, "outbox-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // Hàng đợi đầy thì luồng quét tự chạy handler, tạo áp lực ngược thay vì bỏ việc
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutboxEnqueued(OutboxEnqueuedEvent event) {
+        taskScheduler.schedule(this::drain, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:5s}")
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) return;
+        try {
+            List<ClaimedEvent> batch;
+            do {
+                batch = transactionTemplate.execute(status -> outboxRepository.claimBatch(batchSize, lease));
+                if (batch == null || batch.isEmpty()) return;
+
+                List<CompletableFuture<Void>> futures = new ArrayList<>(batch.size());
+                for (ClaimedEvent event : batch) {
+                    futures.add(CompletableFuture.runAsync(() -> dispatch(event), executor));
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+            } while (batch.size() == batchSize);
+        } catch (Exception ex) {
+            log.error("Outbox drain failed", ex);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.housekeeping-interval:1h}")
+    public void housekeeping() {
+        try {
+            int deleted = outboxRepository.deleteDoneBefore(retention);
+            OutboxJdbcRepository.Backlog backlog = outboxRepository.backlog();
+            if (backlog.pending() >= backlogWarnThreshold || backlog.failed() > 0) {
+                log.warn("Outbox backlog: {} pending, {} failed", backlog.pending(), backlog.failed());
+            }
+            if (deleted > 0) {
+                log.info("Outbox housekeeping removed {} processed events", deleted);
+            }
+        } catch (Exception ex) {
+            log.error("Outbox housekeeping failed", ex);
+        }
+    }
+
+    public OutboxStatsDTO getStats() {
+        OutboxJdbcRepository.Backlog backlog = outboxRepository.backlog();
+        long oldestAge = backlog.oldestPendingAt() == null ? 0
+                : Duration.between(backlog.oldestPendingAt().toInstant(), Instant.now()).toSeconds();
+
+        return OutboxStatsDTO.builder()
+                .pending(backlog.pending())
+                .failed(backlog.failed())
+                .oldestPendingAgeSeconds(Math.max(oldestAge, 0))
+                .dispatched(dispatched.sum())
+                .retried(retried.sum())
+                .givenUp(givenUp.sum())
+                .activeWorkers(executor.getActiveCount())
+                .queuedTasks(executor.getQueue().size())
+                .build();
+    }
+
+    private void dispatch(ClaimedEvent event) {
+        OutboxEventHandler handler = handlersByType.get(event.type());
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("No outbox handler for " + event.type());
+            }
+            handler.handle(event.aggregateId());
+            outboxRepository.markDone(event.id());
+            dispatched.increment();
+        } catch (Exception ex) {
+            String error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getName();
+            int attempt = event.attempts() + 1;
+            if (attempt >= maxAttempts) {
+                log.error("Outbox event {} ({}) failed after {} attempts: {}", event.id(), event.type(), attempt, error);
+                outboxRepository.markFailed(event.id(), error);
+                givenUp.increment();
+            } else {
+                Duration delay = backoff(attempt);
+                log.warn("Outbox event {} ({}) failed, retry in {}s: {}", event.id(), event.type(), delay.toSeconds(), error);
+                outboxRepository.markRetry(event.id(), delay, error);
+                retried.increment();
+            }
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        long seconds = baseBackoff.toSeconds() << Math.min(attempt - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, maxBackoff.toSeconds()));
+    }
+}
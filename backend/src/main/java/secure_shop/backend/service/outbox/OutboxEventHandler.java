@@ -0,0 +1,16 @@
+package secure_shop.backend.service.outbox;
+
+import secure_shop.backend.enums.OutboxEventType;
+
+import java.util.UUID;
+
+/**
+ * Xử lý một loại sự kiện trong outbox. Ném exception để dispatcher thử lại theo backoff;
+ * handler cần chịu được việc bị gọi lại nhiều lần cho cùng một sự kiện.
+ */
+public interface OutboxEventHandler {
+
+    OutboxEventType type();
+
+    void handle(UUID aggregateId) throws Exception;
+}
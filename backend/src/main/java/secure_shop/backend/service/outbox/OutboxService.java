@@ -0,0 +1,31 @@
+package secure_shop.backend.service.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import secure_shop.backend.enums.OutboxEventType;
+import secure_shop.backend.repositories.jdbc.OutboxJdbcRepository;
+import secure_shop.backend.service.event.OutboxEnqueuedEvent;
+
+import java.util.UUID;
+
+/**
+ * Ghi tác vụ phụ vào outbox trong cùng giao dịch với thay đổi nghiệp vụ,
+ * để tác vụ chỉ chạy khi giao dịch commit và không bị mất nếu ứng dụng dừng.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxJdbcRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType type, UUID aggregateId) {
+        outboxRepository.insert(type, aggregateId);
+        // Đánh thức dispatcher sau khi commit thay vì chờ tới lượt quét kế tiếp
+        eventPublisher.publishEvent(new OutboxEnqueuedEvent(type));
+    }
+}
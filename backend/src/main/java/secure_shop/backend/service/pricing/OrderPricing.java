@@ -0,0 +1,43 @@
+package secure_shop.backend.service.pricing;
+
+import secure_shop.backend.enums.DiscountType;
+import secure_shop.backend.utils.Money;
+
+/**
+ * Tính tiền đơn hàng trên long (minor unit, xem {@link Money}).
+ * Quy tắc giảm giá:
+ * PERCENT: subTotal * phần trăm, làm tròn HALF_UP, không vượt subTotal;
+ * FIXED_AMOUNT: giá trị cố định, không vượt subTotal;
+ * FREE_SHIP: bằng phí vận chuyển.
+ */
+public final class OrderPricing {
+
+    private OrderPricing() {
+    }
+
+    public record Totals(long subTotal, long discountTotal, long shippingFee, long grandTotal) {}
+
+    public static long lineTotal(long unitPrice, int quantity) {
+        return Money.times(unitPrice, quantity);
+    }
+
+    /**
+     * @param value với PERCENT là phần trăm ở dạng minor unit (12.5% = 1250), với FIXED_AMOUNT là số tiền
+     */
+    public static long discount(DiscountType type, long value, long subTotal, long shippingFee) {
+        if (type == null) return 0L;
+        return switch (type) {
+            case PERCENT -> Math.min(Money.percentage(subTotal, value), subTotal);
+            case FIXED_AMOUNT -> Math.min(value, subTotal);
+            case FREE_SHIP -> shippingFee;
+        };
+    }
+
+    public static long grandTotal(long subTotal, long discountTotal, long shippingFee) {
+        return Math.addExact(Math.subtractExact(subTotal, discountTotal), shippingFee);
+    }
+
+    public static Totals totals(long subTotal, long discountTotal, long shippingFee) {
+        return new Totals(subTotal, discountTotal, shippingFee, grandTotal(subTotal, discountTotal, shippingFee));
+    }
+}
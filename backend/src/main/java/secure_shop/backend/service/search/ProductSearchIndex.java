@@ -0,0 +1,190 @@
+package secure_shop.backend.service.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import secure_shop.backend.dto.product.ProductSearchDocument;
+import secure_shop.backend.repositories.ProductRepository;
+import secure_shop.backend.service.event.ProductChangedEvent;
+import secure_shop.backend.service.event.ProductsBulkChangedEvent;
+import secure_shop.backend.utils.TextNormalizer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chỉ mục đảo ngược (inverted index) trong bộ nhớ cho tìm kiếm sản phẩm.
+ * Đánh chỉ mục tên, SKU, mô tả ngắn, thương hiệu và danh mục sau khi bỏ dấu tiếng Việt,
+ * nên "khoa van tay" khớp với "khóa vân tay". Mỗi token của truy vấn được so khớp theo tiền tố,
+ * kết quả là giao của các token.
+ * Thay đổi đến trong lúc đang dựng lại chỉ mục được ghi lại và áp dụng lại lên bản mới sau khi hoán đổi.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private final ProductRepository productRepository;
+
+    private volatile ConcurrentSkipListMap<String, Set<UUID>> postings = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentHashMap<UUID, Set<String>> documentTokens = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    // Khác null trong lúc rebuild: id sản phẩm thay đổi trong lúc đó, cần đánh chỉ mục lại trên bản mới
+    private volatile Set<UUID> changedDuringRebuild;
+
+    // Đã có một lần dựng lại đang chờ (chưa bắt đầu đọc DB): sự kiện hàng loạt mới không cần xếp thêm
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        rebuildRequested.set(false);
+        long start = System.currentTimeMillis();
+        changedDuringRebuild = ConcurrentHashMap.newKeySet();
+        ConcurrentSkipListMap<String, Set<UUID>> newPostings = new ConcurrentSkipListMap<>();
+        ConcurrentHashMap<UUID, Set<String>> newDocumentTokens = new ConcurrentHashMap<>();
+
+        try {
+            for (ProductSearchDocument doc : productRepository.findAllSearchDocuments()) {
+                addDocument(doc, newPostings, newDocumentTokens);
+            }
+        } catch (Exception ex) {
+            changedDuringRebuild = null;
+            log.error("Không thể xây dựng chỉ mục tìm kiếm sản phẩm, sẽ dùng truy vấn LIKE", ex);
+            return;
+        }
+
+        this.postings = newPostings;
+        this.documentTokens = newDocumentTokens;
+        this.ready = true;
+
+        // Bản chụp có thể đã đọc trạng thái cũ của các sản phẩm này, hoặc thay đổi đã được áp lên bản cũ
+        Set<UUID> changed = changedDuringRebuild;
+        changedDuringRebuild = null;
+        changed.forEach(this::reindex);
+
+        log.info("Product search index built: {} products, {} tokens in {} ms",
+                newDocumentTokens.size(), newPostings.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.productId() == null) return;
+
+        // Ghi lại trước khi áp dụng: nếu lần áp dụng rơi vào bản sắp bị thay thì rebuild sẽ áp lại
+        Set<UUID> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(event.productId());
+        }
+        if (ready) {
+            reindex(event.productId());
+        }
+    }
+
+    /**
+     * Dựng lại bất đồng bộ, không chặn request cập nhật hàng loạt. Nhiều sự kiện dồn tới trong lúc
+     * đang dựng được gộp thành một lần dựng tiếp theo (lần đó đọc trạng thái mới nhất).
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkChanged(ProductsBulkChangedEvent event) {
+        if (!rebuildRequested.compareAndSet(false, true)) return;
+        rebuild();
+    }
+
+    /**
+     * Trả về toàn bộ tập ID sản phẩm khớp với từ khóa; lọc theo danh mục/giá/tồn kho và sắp xếp
+     * chạy trong SQL trên tập này nên không được cắt bớt trước.
+     * Trả về null khi chỉ mục chưa sẵn sàng hoặc từ khóa không có token hợp lệ,
+     * khi đó bên gọi nên quay về truy vấn cơ sở dữ liệu.
+     */
+    public Set<UUID> search(String keyword) {
+        if (!ready) return null;
+
+        List<String> tokens = TextNormalizer.tokenize(keyword);
+        if (tokens.isEmpty()) return null;
+
+        List<Set<UUID>> matches = new ArrayList<>(tokens.size());
+        for (String token : new LinkedHashSet<>(tokens)) {
+            Set<UUID> ids = matchPrefix(token);
+            if (ids.isEmpty()) return Collections.emptySet();
+            matches.add(ids);
+        }
+
+        matches.sort(Comparator.comparingInt(Set::size));
+        Set<UUID> result = new HashSet<>(matches.get(0));
+        for (int i = 1; i < matches.size() && !result.isEmpty(); i++) {
+            result.retainAll(matches.get(i));
+        }
+        return result;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void reindex(UUID id) {
+        ConcurrentSkipListMap<String, Set<UUID>> currentPostings = postings;
+        ConcurrentHashMap<UUID, Set<String>> currentDocumentTokens = documentTokens;
+        removeDocument(id, currentPostings, currentDocumentTokens);
+        productRepository.findSearchDocumentById(id)
+                .ifPresent(doc -> addDocument(doc, currentPostings, currentDocumentTokens));
+    }
+
+    private Set<UUID> matchPrefix(String prefix) {
+        ConcurrentNavigableMap<String, Set<UUID>> range =
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        Set<UUID> first = null;
+        Set<UUID> union = null;
+        for (Set<UUID> ids : range.values()) {
+            if (first == null) {
+                first = ids;
+                continue;
+            }
+            if (union == null) {
+                union = new HashSet<>(first);
+            }
+            union.addAll(ids);
+        }
+
+        if (union != null) return union;
+        return first != null ? first : Collections.emptySet();
+    }
+
+    private static void removeDocument(UUID id,
+                                       ConcurrentSkipListMap<String, Set<UUID>> postings,
+                                       ConcurrentHashMap<UUID, Set<String>> documentTokens) {
+        Set<String> tokens = documentTokens.remove(id);
+        if (tokens == null) return;
+
+        for (String token : tokens) {
+            postings.computeIfPresent(token, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static void addDocument(ProductSearchDocument doc,
+                                    ConcurrentSkipListMap<String, Set<UUID>> postings,
+                                    ConcurrentHashMap<UUID, Set<String>> documentTokens) {
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(TextNormalizer.tokenize(doc.name()));
+        tokens.addAll(TextNormalizer.tokenize(doc.sku()));
+        tokens.addAll(TextNormalizer.tokenize(doc.shortDesc()));
+        tokens.addAll(TextNormalizer.tokenize(doc.brandName()));
+        tokens.addAll(TextNormalizer.tokenize(doc.categoryName()));
+
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(doc.id());
+        }
+        documentTokens.put(doc.id(), tokens);
+    }
+}
@@ -0,0 +1,223 @@
+package secure_shop.backend.service.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import secure_shop.backend.dto.product.FacetCountDTO;
+import secure_shop.backend.dto.product.ProductSuggestionSource;
+import secure_shop.backend.dto.product.SuggestionDTO;
+import secure_shop.backend.dto.product.SuggestionsDTO;
+import secure_shop.backend.repositories.BrandRepository;
+import secure_shop.backend.repositories.CategoryRepository;
+import secure_shop.backend.repositories.ProductRepository;
+import secure_shop.backend.service.event.BrandChangedEvent;
+import secure_shop.backend.service.event.CategoryChangedEvent;
+import secure_shop.backend.service.event.ProductChangedEvent;
+import secure_shop.backend.service.event.ProductsBulkChangedEvent;
+import secure_shop.backend.utils.TextNormalizer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gợi ý tìm kiếm (type-ahead) theo tiền tố cho sản phẩm, thương hiệu và danh mục.
+ * Mỗi loại có một {@link SuggestionTrie} dựng lúc khởi động; thay đổi sản phẩm được ghi vào
+ * một lớp phủ (overlay) nhỏ và trie sản phẩm chỉ dựng lại khi overlay vượt ngưỡng.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSuggestService {
+
+    public static final int MAX_LIMIT = 10;
+
+    // Giữ dư ở mỗi nút để còn đủ kết quả sau khi lọc bỏ mục bị overlay che
+    private static final int TOP_K = MAX_LIMIT * 2;
+    private static final int TAXONOMY_LIMIT = 3;
+
+    private final ProductRepository productRepository;
+    private final BrandRepository brandRepository;
+    private final CategoryRepository categoryRepository;
+
+    @Value("${app.products.suggest.overlay-threshold:200}")
+    private int overlayThreshold;
+
+    private volatile Snapshot products = Snapshot.EMPTY;
+    private volatile Snapshot brands = Snapshot.EMPTY;
+    private volatile Snapshot categories = Snapshot.EMPTY;
+
+    // Sản phẩm thay đổi sau lần dựng trie gần nhất; Optional.empty() nghĩa là đã xóa/ẩn
+    private final ConcurrentHashMap<String, Optional<Candidate>> productOverlay = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        try {
+            rebuildProducts();
+            rebuildBrands();
+            rebuildCategories();
+        } catch (Exception ex) {
+            log.error("Không thể xây dựng cây gợi ý tìm kiếm", ex);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.productId() == null) return;
+
+        String id = event.productId().toString();
+        Optional<Candidate> candidate = productRepository.findSuggestionSourceById(event.productId())
+                .map(ProductSuggestService::toCandidate);
+        productOverlay.put(id, candidate);
+
+        if (productOverlay.size() > overlayThreshold && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuildProducts();
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkChanged(ProductsBulkChangedEvent event) {
+        if (rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuildProducts();
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        rebuildBrands();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuildCategories();
+    }
+
+    public SuggestionsDTO suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return new SuggestionsDTO();
+        }
+
+        int productLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return SuggestionsDTO.builder()
+                .products(lookupProducts(prefix, productLimit))
+                .brands(lookup(brands, prefix, TAXONOMY_LIMIT))
+                .categories(lookup(categories, prefix, TAXONOMY_LIMIT))
+                .build();
+    }
+
+    private List<SuggestionDTO> lookupProducts(String prefix, int limit) {
+        Snapshot snapshot = products;
+        List<Candidate> matches = new ArrayList<>();
+        for (int entry : snapshot.trie().lookup(prefix)) {
+            Candidate candidate = snapshot.candidates()[entry];
+            if (!productOverlay.containsKey(candidate.id()) && matches(candidate.key(), prefix)) {
+                matches.add(candidate);
+            }
+        }
+        for (Optional<Candidate> changed : productOverlay.values()) {
+            changed.filter(candidate -> matches(candidate.key(), prefix)).ifPresent(matches::add);
+        }
+
+        return matches.stream()
+                .sorted(Comparator.comparingDouble(Candidate::score).reversed())
+                .limit(limit)
+                .map(Candidate::toDTO)
+                .toList();
+    }
+
+    private static List<SuggestionDTO> lookup(Snapshot snapshot, String prefix, int limit) {
+        List<SuggestionDTO> result = new ArrayList<>(limit);
+        for (int entry : snapshot.trie().lookup(prefix)) {
+            Candidate candidate = snapshot.candidates()[entry];
+            if (matches(candidate.key(), prefix)) {
+                result.add(candidate.toDTO());
+                if (result.size() == limit) break;
+            }
+        }
+        return result;
+    }
+
+    private void rebuildProducts() {
+        long start = System.currentTimeMillis();
+        // Xóa overlay trước khi đọc DB: thay đổi đến trong lúc dựng sẽ nằm lại overlay
+        productOverlay.clear();
+        List<Candidate> candidates = productRepository.findAllSuggestionSources().stream()
+                .map(ProductSuggestService::toCandidate)
+                .toList();
+        products = Snapshot.of(candidates);
+        log.info("Product suggest trie built: {} products, {} nodes in {} ms",
+                candidates.size(), products.trie().nodeCount(), System.currentTimeMillis() - start);
+    }
+
+    private void rebuildBrands() {
+        brands = Snapshot.of(brandRepository.findAllWithProductCount().stream()
+                .map(ProductSuggestService::toCandidate)
+                .toList());
+    }
+
+    private void rebuildCategories() {
+        categories = Snapshot.of(categoryRepository.findActiveWithProductCount().stream()
+                .map(ProductSuggestService::toCandidate)
+                .toList());
+    }
+
+    private static Candidate toCandidate(ProductSuggestionSource source) {
+        double rating = source.rating() != null ? source.rating() : 0.0;
+        int reviews = source.reviewCount() != null ? source.reviewCount() : 0;
+        return new Candidate(source.id().toString(), source.name(), normalize(source.name()),
+                (float) (rating + 2 * Math.log1p(reviews)));
+    }
+
+    private static Candidate toCandidate(FacetCountDTO source) {
+        return new Candidate(String.valueOf(source.getId()), source.getName(), normalize(source.getName()),
+                source.getCount());
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", TextNormalizer.tokenize(text));
+    }
+
+    // Khớp khi tiền tố nằm ở đầu nhãn hoặc đầu một từ trong nhãn
+    private static boolean matches(String key, String prefix) {
+        return key.startsWith(prefix) || key.contains(" " + prefix);
+    }
+
+    private record Candidate(String id, String label, String key, float score) {
+        SuggestionDTO toDTO() {
+            return new SuggestionDTO(id, label);
+        }
+    }
+
+    private record Snapshot(SuggestionTrie trie, Candidate[] candidates) {
+        static final Snapshot EMPTY = new Snapshot(SuggestionTrie.empty(), new Candidate[0]);
+
+        static Snapshot of(List<Candidate> candidates) {
+            String[] keys = new String[candidates.size()];
+            float[] scores = new float[candidates.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = candidates.get(i).key();
+                scores[i] = candidates.get(i).score();
+            }
+            return new Snapshot(SuggestionTrie.build(keys, scores, TOP_K), candidates.toArray(new Candidate[0]));
+        }
+    }
+}
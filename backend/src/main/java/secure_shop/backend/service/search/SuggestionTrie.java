@@ -0,0 +1,193 @@
+package secure_shop.backend.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Cây tiền tố (trie) chỉ đọc, lưu trong các mảng nguyên thủy để tiết kiệm heap.
+ * Mỗi nút giữ sẵn danh sách top-K mục (theo điểm giảm dần) đi qua nút đó,
+ * nên tra cứu một tiền tố chỉ tốn O(độ dài tiền tố).
+ */
+final class SuggestionTrie {
+
+    static final int MAX_KEY_LENGTH = 32;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final char[] chars;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] topOffset;
+    private final byte[] topCount;
+    private final int[] top;
+
+    private SuggestionTrie(char[] chars, int[] firstChild, int[] nextSibling,
+                           int[] topOffset, byte[] topCount, int[] top) {
+        this.chars = chars;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.topOffset = topOffset;
+        this.topCount = topCount;
+        this.top = top;
+    }
+
+    static SuggestionTrie empty() {
+        return build(new String[0], new float[0], 1);
+    }
+
+    /**
+     * Dựng trie từ nhãn đã chuẩn hóa (token cách nhau bởi một dấu cách).
+     * Mỗi nhãn được đánh chỉ mục theo mọi hậu tố bắt đầu từ đầu một từ,
+     * để "van tay" cũng gợi ý được "khoa van tay".
+     *
+     * @param keys   nhãn đã chuẩn hóa, chỉ số mảng là mã mục
+     * @param scores điểm xếp hạng của từng mục
+     * @param topK   số mục tối đa giữ ở mỗi nút (tối đa 127)
+     */
+    static SuggestionTrie build(String[] keys, float[] scores, int topK) {
+        Builder builder = new Builder();
+        for (int entry = 0; entry < keys.length; entry++) {
+            String key = keys[entry];
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || key.charAt(start - 1) == ' ') {
+                    builder.insert(key, start, Math.min(key.length(), start + MAX_KEY_LENGTH), entry);
+                }
+            }
+        }
+        return builder.finish(scores, topK);
+    }
+
+    /**
+     * Trả về mã các mục khớp tiền tố, đã sắp theo điểm giảm dần.
+     */
+    int[] lookup(String prefix) {
+        int node = 0;
+        int length = Math.min(prefix.length(), MAX_KEY_LENGTH);
+        for (int i = 0; i < length; i++) {
+            char c = prefix.charAt(i);
+            int child = firstChild[node];
+            while (child != -1 && chars[child] != c) {
+                child = nextSibling[child];
+            }
+            if (child == -1) return EMPTY;
+            node = child;
+        }
+        return Arrays.copyOfRange(top, topOffset[node], topOffset[node] + topCount[node]);
+    }
+
+    int nodeCount() {
+        return chars.length;
+    }
+
+    private static final class Builder {
+        private char[] chars = new char[1024];
+        private int[] firstChild = new int[1024];
+        private int[] nextSibling = new int[1024];
+        private int[] termHead = new int[1024];
+        private int[] termNext = new int[1024];
+        private int[] termEntry = new int[1024];
+        private int nodes = 0;
+        private int terms = 0;
+
+        Builder() {
+            newNode('\0');
+        }
+
+        void insert(String key, int from, int to, int entry) {
+            int node = 0;
+            for (int i = from; i < to; i++) {
+                char c = key.charAt(i);
+                int child = firstChild[node];
+                while (child != -1 && chars[child] != c) {
+                    child = nextSibling[child];
+                }
+                if (child == -1) {
+                    child = newNode(c);
+                    nextSibling[child] = firstChild[node];
+                    firstChild[node] = child;
+                }
+                node = child;
+            }
+
+            if (terms == termEntry.length) {
+                termNext = Arrays.copyOf(termNext, terms * 2);
+                termEntry = Arrays.copyOf(termEntry, terms * 2);
+            }
+            termEntry[terms] = entry;
+            termNext[terms] = termHead[node];
+            termHead[node] = terms++;
+        }
+
+        SuggestionTrie finish(float[] scores, int topK) {
+            int k = Math.max(1, Math.min(topK, Byte.MAX_VALUE));
+            int[][] nodeTop = new int[nodes][];
+            int[] buffer = new int[k];
+
+            // Nút con luôn được tạo sau nút cha, nên duyệt ngược chỉ số là duyệt hậu thứ tự
+            int total = 0;
+            for (int node = nodes - 1; node >= 0; node--) {
+                int size = 0;
+                for (int t = termHead[node]; t != -1; t = termNext[t]) {
+                    size = offer(buffer, size, termEntry[t], scores);
+                }
+                for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+                    for (int entry : nodeTop[child]) {
+                        size = offer(buffer, size, entry, scores);
+                    }
+                }
+                nodeTop[node] = Arrays.copyOf(buffer, size);
+                total += size;
+            }
+
+            int[] top = new int[total];
+            int[] topOffset = new int[nodes];
+            byte[] topCount = new byte[nodes];
+            int offset = 0;
+            for (int node = 0; node < nodes; node++) {
+                int[] entries = nodeTop[node];
+                System.arraycopy(entries, 0, top, offset, entries.length);
+                topOffset[node] = offset;
+                topCount[node] = (byte) entries.length;
+                offset += entries.length;
+            }
+
+            return new SuggestionTrie(
+                    Arrays.copyOf(chars, nodes),
+                    Arrays.copyOf(firstChild, nodes),
+                    Arrays.copyOf(nextSibling, nodes),
+                    topOffset, topCount, top);
+        }
+
+        private int newNode(char c) {
+            if (nodes == chars.length) {
+                int capacity = nodes * 2;
+                chars = Arrays.copyOf(chars, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                termHead = Arrays.copyOf(termHead, capacity);
+            }
+            chars[nodes] = c;
+            firstChild[nodes] = -1;
+            nextSibling[nodes] = -1;
+            termHead[nodes] = -1;
+            return nodes++;
+        }
+
+        // Chèn entry vào buffer (đã sắp theo điểm giảm dần, không trùng), giữ tối đa buffer.length phần tử
+        private static int offer(int[] buffer, int size, int entry, float[] scores) {
+            for (int i = 0; i < size; i++) {
+                if (buffer[i] == entry) return size;
+            }
+
+            int pos = size;
+            while (pos > 0 && scores[buffer[pos - 1]] < scores[entry]) {
+                pos--;
+            }
+            if (pos >= buffer.length) return size;
+
+            int newSize = Math.min(size + 1, buffer.length);
+            System.arraycopy(buffer, pos, buffer, pos + 1, newSize - pos - 1);
+            buffer[pos] = entry;
+            return newSize;
+        }
+    }
+}
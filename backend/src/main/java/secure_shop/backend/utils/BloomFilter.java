@@ -0,0 +1,80 @@
+package secure_shop.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bloom filter cho chuỗi: trả lời "chắc chắn không có" hoặc "có thể có".
+ * Kích thước tính từ số phần tử dự kiến và tỉ lệ dương tính giả mong muốn;
+ * k vị trí bit lấy bằng double hashing từ một giá trị băm 64 bit (FNV-1a + trộn bit).
+ * Không an toàn cho ghi đồng thời: dựng xong (hoặc {@link #copy()} rồi thêm) mới công bố cho các luồng đọc.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long[] bits, int hashCount) {
+        this.bits = bits;
+        this.bitCount = (long) bits.length * 64;
+        this.hashCount = hashCount;
+    }
+
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, m);
+        this.bits = new long[(int) ((m + 63) / 64)];
+        this.bitCount = (long) bits.length * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = index(h1 + i * h2);
+            bits[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = index(h1 + i * h2);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bản sao độc lập, dùng để thêm phần tử mà không ảnh hưởng các luồng đang đọc bản gốc.
+     */
+    public BloomFilter copy() {
+        return new BloomFilter(bits.clone(), hashCount);
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    private long index(int combined) {
+        return (combined & 0x7fffffffL) % bitCount;
+    }
+
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        // fmix64 để hai nửa 32 bit độc lập hơn
+        return HashUtil.fmix64(h);
+    }
+}
@@ -0,0 +1,149 @@
+package secure_shop.backend.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Mã hóa song ánh số thứ tự thành mã cố định độ dài trên một bảng chữ cái.
+ * Số thứ tự được hoán vị trong [0, alphabet^length) bằng mạng Feistel có khóa (kèm cycle-walking để ở
+ * trong miền), rồi viết theo cơ số |alphabet|. Hai số khác nhau luôn cho hai mã khác nhau, còn các số
+ * liên tiếp cho ra mã trông ngẫu nhiên nên không suy ra được mã khác từ một mã đã biết (khi không biết khóa).
+ */
+public final class CodeEncoder {
+
+    private static final int ROUNDS = 8;
+    private static final long MAX_SPACE = 1L << 62;
+
+    private final char[] alphabet;
+    private final int length;
+    private final long space;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    /**
+     * @throws IllegalArgumentException nếu bảng chữ cái có ký tự trùng hoặc alphabet^length vượt quá 2^62
+     */
+    public CodeEncoder(String alphabet, int length, String secret) {
+        if (alphabet.length() < 2 || alphabet.chars().distinct().count() != alphabet.length()) {
+            throw new IllegalArgumentException("Bảng chữ cái cần ít nhất 2 ký tự và không có ký tự trùng");
+        }
+        if (length < 1) {
+            throw new IllegalArgumentException("Độ dài mã phải lớn hơn 0");
+        }
+        this.alphabet = alphabet.toCharArray();
+        this.length = length;
+
+        long size = 1;
+        for (int i = 0; i < length; i++) {
+            if (size > MAX_SPACE / alphabet.length()) {
+                throw new IllegalArgumentException("Không gian mã quá lớn, hãy giảm độ dài hoặc bảng chữ cái");
+            }
+            size *= alphabet.length();
+        }
+        this.space = size;
+
+        // Miền Feistel là 2^(2*halfBits) >= space, nhỏ hơn 4*space nên cycle-walking trung bình < 4 vòng
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(space - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+
+        ByteBuffer seed = ByteBuffer.wrap(sha256(secret + ":" + alphabet + ":" + length));
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = HashUtil.fmix64(seed.getLong((i % 4) * Long.BYTES) + i * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    /**
+     * Số mã khác nhau có thể sinh ra (alphabet^length).
+     */
+    public long space() {
+        return space;
+    }
+
+    /**
+     * @param sequence số thứ tự trong [0, space)
+     */
+    public String encode(long sequence) {
+        if (sequence < 0 || sequence >= space) {
+            throw new IllegalArgumentException("Số thứ tự nằm ngoài không gian mã: " + sequence);
+        }
+
+        long value = sequence;
+        do {
+            value = permute(value);
+        } while (value >= space);
+
+        char[] out = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            out[i] = alphabet[(int) (value % alphabet.length)];
+            value /= alphabet.length;
+        }
+        return new String(out);
+    }
+
+    /**
+     * Ngược của {@link #encode}: mã hợp lệ trả về đúng số thứ tự đã sinh ra nó.
+     *
+     * @throws IllegalArgumentException nếu mã sai độ dài hoặc có ký tự ngoài bảng chữ cái
+     */
+    public long decode(String code) {
+        if (code == null || code.length() != length) {
+            throw new IllegalArgumentException("Mã phải có đúng " + length + " ký tự");
+        }
+
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = indexOf(code.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Ký tự không thuộc bảng chữ cái: " + code.charAt(i));
+            }
+            value = value * alphabet.length + digit;
+        }
+
+        // Cycle-walking ngược: lùi theo hoán vị ngược cho tới khi quay lại trong miền
+        do {
+            value = unpermute(value);
+        } while (value >= space);
+        return value;
+    }
+
+    private long permute(long value) {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+        for (long key : roundKeys) {
+            long next = left ^ (HashUtil.fmix64(right ^ key) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long unpermute(long value) {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            long previous = right ^ (HashUtil.fmix64(left ^ roundKeys[i]) & halfMask);
+            right = left;
+            left = previous;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private int indexOf(char c) {
+        for (int i = 0; i < alphabet.length; i++) {
+            if (alphabet[i] == c) return i;
+        }
+        return -1;
+    }
+
+    private static byte[] sha256(String input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
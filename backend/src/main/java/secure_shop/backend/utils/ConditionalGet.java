@@ -0,0 +1,38 @@
+package secure_shop.backend.utils;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Trả lời GET có điều kiện theo ETag: nếu If-None-Match khớp thì trả 304 ngay,
+ * không gọi tới service. Khi không có ETag (Redis lỗi) thì trả 200 như bình thường.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    public static <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+
+        // no-cache: trình duyệt được lưu nhưng phải hỏi lại server trước khi dùng
+        CacheControl cacheControl = CacheControl.noCache();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(body.get());
+    }
+}
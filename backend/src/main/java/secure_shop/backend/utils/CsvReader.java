@@ -0,0 +1,89 @@
+package secure_shop.backend.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Đọc CSV (RFC 4180) theo từng bản ghi, không nạp cả file vào bộ nhớ.
+ * Hỗ trợ trường trong dấu nháy kép chứa dấu phẩy, xuống dòng và "" (nháy kép thoát).
+ */
+public final class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private long line = 1;
+    private long recordLine = 0;
+    private boolean started = false;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+    }
+
+    /**
+     * @return các trường của bản ghi tiếp theo, hoặc null khi hết dữ liệu
+     */
+    public List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') c = reader.read(); // bỏ BOM của file Excel
+        }
+        if (c == -1) return null;
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+
+        while (c != -1) {
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') reader.reset();
+                }
+                line++;
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Số dòng (bắt đầu từ 1) nơi bản ghi vừa đọc bắt đầu.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
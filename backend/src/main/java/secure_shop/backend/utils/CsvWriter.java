@@ -0,0 +1,45 @@
+package secure_shop.backend.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Ghi CSV (RFC 4180) từng bản ghi ra Writer, không giữ dữ liệu trong bộ nhớ.
+ * Trường chứa dấu phẩy, nháy kép hoặc xuống dòng được bọc trong nháy kép.
+ * Trường bắt đầu bằng = + - @ được thêm dấu ' để Excel không hiểu nhầm thành công thức.
+ */
+public final class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeRecord(List<?> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) writer.write(',');
+            writeField(fields.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) return;
+
+        String s = value.toString();
+        if (!s.isEmpty() && value instanceof CharSequence && "=+-@".indexOf(s.charAt(0)) >= 0) {
+            s = "'" + s;
+        }
+
+        boolean quote = s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(s);
+            return;
+        }
+        writer.write('"');
+        writer.write(s.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
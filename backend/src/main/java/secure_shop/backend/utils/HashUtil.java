@@ -23,5 +23,16 @@ public class HashUtil {
             throw new RuntimeException("Không thể hash SHA-256", e);
         }
     }
-}
 
+    /**
+     * Bước trộn bit cuối (fmix64) của MurmurHash3: mỗi bit đầu vào ảnh hưởng tới mọi bit đầu ra.
+     */
+    public static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53e4ec3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,68 @@
+package secure_shop.backend.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Số tiền dạng long theo đơn vị nhỏ nhất (minor unit) = 1/100 đồng, khớp với scale 2 của các cột tiền
+ * và với quy ước vnp_Amount của VNPay. Tính toán trên long không cấp phát đối tượng;
+ * chỉ đổi sang BigDecimal khi ghi entity/DTO.
+ * Quy tắc làm tròn: giá trị vào có nhiều hơn 2 chữ số thập phân được làm tròn HALF_UP;
+ * phép chia (phần trăm) làm tròn HALF_UP tới minor unit. Tràn số ném ArithmeticException.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private Money() {
+    }
+
+    /**
+     * null được coi là 0.
+     */
+    public static long toMinor(BigDecimal amount) {
+        if (amount == null) return 0L;
+        BigDecimal scaled = amount.setScale(SCALE, RoundingMode.HALF_UP);
+        if (scaled.compareTo(LONG_MIN) < 0 || scaled.compareTo(LONG_MAX) > 0) {
+            throw new ArithmeticException("Số tiền vượt quá giới hạn: " + amount);
+        }
+        return scaled.unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static long times(long amount, int quantity) {
+        return Math.multiplyExact(amount, quantity);
+    }
+
+    /**
+     * amount * basisPoints / 10000, làm tròn HALF_UP (basisPoints: 1% = 100).
+     */
+    public static long percentage(long amount, long basisPoints) {
+        long product;
+        try {
+            product = Math.multiplyExact(amount, basisPoints);
+        } catch (ArithmeticException ex) {
+            // Chỉ xảy ra với số tiền cực lớn, chấp nhận đi đường BigDecimal
+            return BigDecimal.valueOf(amount)
+                    .multiply(BigDecimal.valueOf(basisPoints))
+                    .divide(BigDecimal.valueOf(10_000), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+        return divideHalfUp(product, 10_000);
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
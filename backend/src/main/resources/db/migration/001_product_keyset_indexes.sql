@@ -0,0 +1,5 @@
+-- Keyset pagination cho GET /api/products?cursor=...
+-- spring.jpa.hibernate.ddl-auto=validate nên các script trong thư mục này cần chạy thủ công trên database.
+
+CREATE INDEX IF NOT EXISTS idx_products_created_at_id ON products (created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id) WHERE deleted_at IS NULL;
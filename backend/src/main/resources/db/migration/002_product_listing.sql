@@ -0,0 +1,49 @@
+-- Read model phẳng cho danh sách sản phẩm (entities/ProductListing).
+-- spring.jpa.hibernate.ddl-auto=validate nên các script trong thư mục này cần chạy thủ công trên database.
+-- Dữ liệu được ProductListingProjector dựng lại khi ứng dụng khởi động và cập nhật sau mỗi thay đổi.
+
+CREATE TABLE IF NOT EXISTS product_listing (
+    product_id           UUID PRIMARY KEY,
+    sku                  VARCHAR(50)    NOT NULL,
+    name                 VARCHAR(500)   NOT NULL,
+    listed_price         NUMERIC(15, 2) NOT NULL,
+    price                NUMERIC(15, 2) NOT NULL,
+    thumbnail_url        VARCHAR(2048),
+    category_id          BIGINT,
+    category_name        VARCHAR(255),
+    category_image_url   VARCHAR(500),
+    category_description TEXT,
+    category_active      BOOLEAN,
+    brand_id             BIGINT,
+    brand_name           VARCHAR(100),
+    available_stock      INTEGER,
+    in_stock             BOOLEAN        NOT NULL,
+    rating               DOUBLE PRECISION NOT NULL,
+    review_count         INTEGER        NOT NULL,
+    active               BOOLEAN        NOT NULL,
+    deleted_at           TIMESTAMP WITH TIME ZONE,
+    created_at           TIMESTAMP WITH TIME ZONE NOT NULL,
+    refreshed_at         TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_listing_category ON product_listing (category_id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_product_listing_brand ON product_listing (brand_id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_product_listing_active_stock ON product_listing (active, in_stock) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_product_listing_price_id ON product_listing (price, product_id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_product_listing_created_at_id ON product_listing (created_at, product_id) WHERE deleted_at IS NULL;
+
+INSERT INTO product_listing (
+    product_id, sku, name, listed_price, price, thumbnail_url,
+    category_id, category_name, category_image_url, category_description, category_active,
+    brand_id, brand_name, available_stock, in_stock,
+    rating, review_count, active, deleted_at, created_at, refreshed_at)
+SELECT p.id, p.sku, p.name, p.listed_price, p.price, p.thumbnail_url,
+       c.id, c.name, c.image_url, c.description, c.active,
+       b.id, b.name, i.on_hand - i.reserved, COALESCE(i.on_hand - i.reserved, 0) > 0,
+       p.rating, p.review_count, p.active, p.deleted_at, p.created_at, now()
+FROM products p
+LEFT JOIN categories c ON c.id = p.category_id
+LEFT JOIN brands b ON b.id = p.brand_id
+LEFT JOIN inventory i ON i.product_id = p.id
+WHERE true
+ON CONFLICT (product_id) DO NOTHING;
@@ -0,0 +1,18 @@
+-- Transactional outbox cho các tác vụ phụ của đơn hàng (gửi email xác nhận, ...).
+-- spring.jpa.hibernate.ddl-auto=validate nên các script trong thư mục này cần chạy thủ công trên database.
+-- Bản ghi được ghi cùng giao dịch với đơn hàng; OutboxDispatcher lấy theo lô bằng FOR UPDATE SKIP LOCKED.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id              BIGSERIAL PRIMARY KEY,
+    event_type      VARCHAR(50)  NOT NULL,
+    aggregate_id    UUID         NOT NULL,
+    status          VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    last_error      TEXT,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    processed_at    TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending
+    ON outbox_events (next_attempt_at, id) WHERE status = 'PENDING';
@@ -0,0 +1,4 @@
+-- Keyset pagination cho lịch sử đơn hàng: GET /api/orders/my-orders?cursor=...
+-- spring.jpa.hibernate.ddl-auto=validate nên các script trong thư mục này cần chạy thủ công trên database.
+
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_at_id ON orders (user_id, created_at DESC, id DESC);
@@ -0,0 +1,4 @@
+-- Phục vụ PendingOrderReaper: quét đơn PENDING theo (created_at, id).
+-- spring.jpa.hibernate.ddl-auto=validate nên các script trong thư mục này cần chạy thủ công trên database.
+
+CREATE INDEX IF NOT EXISTS idx_orders_pending_created_at_id ON orders (created_at, id) WHERE status = 'PENDING';
@@ -0,0 +1,4 @@
+-- Cột version cho khóa lạc quan của đơn hàng (Order.version), các lần chuyển trạng thái so khớp và tăng cột này.
+-- spring.jpa.hibernate.ddl-auto=validate nên các script trong thư mục này cần chạy thủ công trên database.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- Sổ lượt dùng mã giảm giá theo từng người dùng, thay cho việc đếm lại bảng orders mỗi lần đặt hàng.
+-- spring.jpa.hibernate.ddl-auto=validate nên các script trong thư mục này cần chạy thủ công trên database.
+-- Được cập nhật bằng INSERT ... ON CONFLICT DO UPDATE ... WHERE used < per_user_limit trong giao dịch đặt hàng.
+
+CREATE TABLE IF NOT EXISTS discount_redemptions (
+    discount_id UUID        NOT NULL REFERENCES discounts (id) ON DELETE CASCADE,
+    user_id     UUID        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    used        INTEGER     NOT NULL DEFAULT 0,
+    updated_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (discount_id, user_id)
+);
+
+-- Số liệu ban đầu: đếm như countByDiscountIdAndUserId trước đây (tính cả đơn đã hủy)
+INSERT INTO discount_redemptions (discount_id, user_id, used)
+SELECT discount_id, user_id, count(*)
+FROM orders
+WHERE discount_id IS NOT NULL
+GROUP BY discount_id, user_id
+ON CONFLICT (discount_id, user_id) DO NOTHING;
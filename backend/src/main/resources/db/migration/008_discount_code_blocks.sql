@@ -0,0 +1,6 @@
+-- Sequence cấp khối số thứ tự cho việc sinh mã giảm giá hàng loạt (POST /api/discounts/generate).
+-- spring.jpa.hibernate.ddl-auto=validate nên các script trong thư mục này cần chạy thủ công trên database.
+-- Mỗi nextval là một khối 1024 số liên tiếp; số thứ tự được mã hóa song ánh thành mã, nên hai lần sinh
+-- (kể cả chạy song song trên nhiều node) không bao giờ ra trùng mã và không cần kiểm tra rồi thử lại.
+
+CREATE SEQUENCE IF NOT EXISTS discount_code_block_seq START WITH 0 MINVALUE 0;
@@ -0,0 +1,7 @@
+-- Danh sách sản phẩm (keyset theo created_at/price) đã chuyển sang đọc product_listing,
+-- dùng idx_product_listing_created_at_id và idx_product_listing_price_id (002_product_listing.sql).
+-- Hai index của 001 trên products không còn phục vụ câu truy vấn nào, chỉ làm chậm ghi.
+-- spring.jpa.hibernate.ddl-auto=validate nên các script trong thư mục này cần chạy thủ công trên database.
+
+DROP INDEX IF EXISTS idx_products_created_at_id;
+DROP INDEX IF EXISTS idx_products_price_id;
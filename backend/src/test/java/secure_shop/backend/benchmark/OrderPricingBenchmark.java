@@ -0,0 +1,110 @@
+package secure_shop.backend.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import secure_shop.backend.enums.DiscountType;
+import secure_shop.backend.service.pricing.OrderPricing;
+import secure_shop.backend.utils.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh cách tính tiền đơn hàng bằng chuỗi BigDecimal (cách cũ trong createOrder/calculateDiscountAmount)
+ * với OrderPricing trên long. Cả hai cùng trả về BigDecimal cho entity để so sánh công bằng.
+ * Chạy bằng main() trong IDE, hoặc sau khi mvn test-compile:
+ * java -cp target/test-classes:<classpath test> org.openjdk.jmh.Main OrderPricingBenchmark -prof gc
+ * Cột gc.alloc.rate.norm cho biết số byte cấp phát trên mỗi lần tính.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+    @Param({"3", "20"})
+    private int items;
+
+    private BigDecimal[] prices;
+    private int[] quantities;
+    private BigDecimal shippingFee;
+    private BigDecimal percent;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        prices = new BigDecimal[items];
+        quantities = new int[items];
+        for (int i = 0; i < items; i++) {
+            // Giá VND nguyên đồng, lưu với scale 2 như cột products.price
+            prices[i] = BigDecimal.valueOf(50_000L + random.nextInt(20_000_000)).setScale(2);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+        shippingFee = new BigDecimal("30000.00");
+        percent = new BigDecimal("12.50");
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalPath() {
+        List<BigDecimal> lineTotals = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            lineTotals.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        BigDecimal subTotal = lineTotals.stream()
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+
+        BigDecimal discount = subTotal.multiply(percent).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        if (discount.compareTo(subTotal) > 0) discount = subTotal;
+        discount = discount.setScale(2, RoundingMode.HALF_UP);
+
+        // @PrePersist của Order cộng lại từ các dòng một lần nữa
+        BigDecimal recomputed = lineTotals.stream()
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return recomputed.subtract(discount).add(shippingFee);
+    }
+
+    @Benchmark
+    public BigDecimal minorUnitPath(Blackhole blackhole) {
+        long subTotal = 0L;
+        for (int i = 0; i < items; i++) {
+            long lineTotal = OrderPricing.lineTotal(Money.toMinor(prices[i]), quantities[i]);
+            subTotal = Math.addExact(subTotal, lineTotal);
+            // OrderItem.lineTotal vẫn là BigDecimal
+            blackhole.consume(Money.toDecimal(lineTotal));
+        }
+        long shipping = Money.toMinor(shippingFee);
+        long discount = OrderPricing.discount(DiscountType.PERCENT, Money.toMinor(percent), subTotal, shipping);
+        return Money.toDecimal(OrderPricing.grandTotal(subTotal, discount, shipping));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderPricingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package secure_shop.backend.dto.order;
+
+import org.junit.jupiter.api.Test;
+import secure_shop.backend.exception.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderCursorTest {
+
+    private static final UUID ID = UUID.fromString("0b7d9c4e-61f2-4a3b-8e5d-9f1c2a7b3e40");
+
+    @Test
+    void roundTripKeepsNanoseconds() {
+        OrderCursor cursor = new OrderCursor(Instant.parse("2025-06-30T23:59:59.999999999Z"), ID);
+
+        assertEquals(cursor, OrderCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void ordersInSameMillisecondGetDistinctCursors() {
+        // Hai đơn tạo cùng mili giây, chỉ khác phần nano
+        Instant first = Instant.parse("2025-06-30T08:00:00.123000001Z");
+        Instant second = Instant.parse("2025-06-30T08:00:00.123000002Z");
+
+        String a = new OrderCursor(first, ID).encode();
+        String b = new OrderCursor(second, ID).encode();
+
+        assertNotEquals(a, b);
+        assertEquals(second, OrderCursor.decode(b).createdAt());
+    }
+
+    @Test
+    void afterTakesKeyFromLastItem() {
+        Instant createdAt = Instant.parse("2025-06-30T08:00:00Z");
+        OrderHistoryItemDTO last = new OrderHistoryItemDTO();
+        last.setId(ID);
+        last.setCreatedAt(createdAt);
+
+        assertEquals(new OrderCursor(createdAt, ID), OrderCursor.after(last));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(InvalidOperationException.class, () -> OrderCursor.decode("%%%"));
+        assertThrows(InvalidOperationException.class, () -> OrderCursor.decode(raw("123")));
+        assertThrows(InvalidOperationException.class, () -> OrderCursor.decode(raw("123|" + ID + "|x")));
+        assertThrows(InvalidOperationException.class, () -> OrderCursor.decode(raw("abc|" + ID)));
+        assertThrows(InvalidOperationException.class, () -> OrderCursor.decode(raw("123|not-a-uuid")));
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package secure_shop.backend.dto.product;
+
+import org.junit.jupiter.api.Test;
+import secure_shop.backend.enums.ProductCursorSort;
+import secure_shop.backend.exception.InvalidOperationException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductCursorTest {
+
+    private static final UUID ID = UUID.fromString("7f0c2b8e-3a51-4d8e-9c1a-2b6f4e8d0a13");
+
+    @Test
+    void newestRoundTripKeepsNanoseconds() {
+        // Hai sản phẩm tạo cùng mili giây vẫn phân biệt được nhờ phần nano
+        Instant createdAt = Instant.parse("2025-03-01T10:15:30.123456789Z");
+        ProductCursor cursor = new ProductCursor(ProductCursorSort.NEWEST, null, createdAt, ID);
+
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertNull(decoded.price());
+    }
+
+    @Test
+    void priceRoundTripKeepsScale() {
+        for (ProductCursorSort sort : new ProductCursorSort[]{ProductCursorSort.PRICE_ASC, ProductCursorSort.PRICE_DESC}) {
+            ProductCursor cursor = new ProductCursor(sort, new BigDecimal("1250000.50"), null, ID);
+
+            ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+            assertEquals(cursor, decoded);
+            assertNull(decoded.createdAt());
+        }
+    }
+
+    @Test
+    void afterTakesKeyFromLastItem() {
+        Instant createdAt = Instant.parse("2025-03-01T10:15:30Z");
+        ProductSummaryDTO last = new ProductSummaryDTO();
+        last.setId(ID);
+        last.setPrice(new BigDecimal("99.90"));
+        last.setCreatedAt(createdAt);
+
+        assertEquals(new ProductCursor(ProductCursorSort.PRICE_ASC, new BigDecimal("99.90"), createdAt, ID),
+                ProductCursor.after(ProductCursorSort.PRICE_ASC, last));
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new ProductCursor(ProductCursorSort.PRICE_DESC, new BigDecimal("12.5"), null, ID).encode();
+
+        assertEquals(-1, encoded.indexOf('='));
+        assertEquals(-1, encoded.indexOf('+'));
+        assertEquals(-1, encoded.indexOf('/'));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(InvalidOperationException.class, () -> ProductCursor.decode("%%%"));
+        assertThrows(InvalidOperationException.class, () -> ProductCursor.decode(raw("NEWEST|123")));
+        assertThrows(InvalidOperationException.class, () -> ProductCursor.decode(raw("OLDEST|123|" + ID)));
+        assertThrows(InvalidOperationException.class, () -> ProductCursor.decode(raw("NEWEST|abc|" + ID)));
+        assertThrows(InvalidOperationException.class, () -> ProductCursor.decode(raw("PRICE_ASC|1.5|not-a-uuid")));
+        assertThrows(InvalidOperationException.class, () -> ProductCursor.decode(raw("PRICE_ASC|1,5|" + ID)));
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
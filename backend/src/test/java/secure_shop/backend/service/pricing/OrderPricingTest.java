@@ -0,0 +1,50 @@
+package secure_shop.backend.service.pricing;
+
+import org.junit.jupiter.api.Test;
+import secure_shop.backend.enums.DiscountType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderPricingTest {
+
+    @Test
+    void percentDiscountRoundsHalfUp() {
+        // 12.5% của 333.33đ = 41.66625đ -> 41.67đ
+        assertEquals(4_167L, OrderPricing.discount(DiscountType.PERCENT, 1_250L, 33_333L, 3_000_000L));
+        // 10% của 0.05đ = 0.005đ -> 0.01đ
+        assertEquals(1L, OrderPricing.discount(DiscountType.PERCENT, 1_000L, 5L, 0L));
+    }
+
+    @Test
+    void percentDiscountIsCappedAtSubTotal() {
+        assertEquals(10_000L, OrderPricing.discount(DiscountType.PERCENT, 15_000L, 10_000L, 500L));
+        assertEquals(10_000L, OrderPricing.discount(DiscountType.PERCENT, 10_000L, 10_000L, 500L));
+    }
+
+    @Test
+    void fixedAmountIsCappedAtSubTotal() {
+        assertEquals(2_000L, OrderPricing.discount(DiscountType.FIXED_AMOUNT, 2_000L, 10_000L, 500L));
+        assertEquals(10_000L, OrderPricing.discount(DiscountType.FIXED_AMOUNT, 50_000L, 10_000L, 500L));
+    }
+
+    @Test
+    void freeShipDiscountsShippingFee() {
+        assertEquals(3_000L, OrderPricing.discount(DiscountType.FREE_SHIP, 0L, 10_000L, 3_000L));
+        assertEquals(0L, OrderPricing.discount(null, 1_000L, 10_000L, 3_000L));
+    }
+
+    @Test
+    void totalsAddShippingAfterDiscount() {
+        OrderPricing.Totals totals = OrderPricing.totals(10_000L, 2_500L, 3_000L);
+
+        assertEquals(10_500L, totals.grandTotal());
+        assertEquals(OrderPricing.lineTotal(2_500L, 4), totals.subTotal());
+    }
+
+    @Test
+    void overflowIsReportedNotWrapped() {
+        assertThrows(ArithmeticException.class, () -> OrderPricing.lineTotal(Long.MAX_VALUE, 2));
+        assertThrows(ArithmeticException.class, () -> OrderPricing.grandTotal(Long.MAX_VALUE, 0L, 1L));
+    }
+}
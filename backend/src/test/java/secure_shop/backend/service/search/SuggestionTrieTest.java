@@ -0,0 +1,64 @@
+package secure_shop.backend.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SuggestionTrieTest {
+
+    private static final String[] KEYS = {
+            "camera ip wifi",
+            "camera hanh trinh",
+            "khoa van tay",
+            "khoa cua thong minh",
+            "cam bien khoi"
+    };
+    private static final float[] SCORES = {5f, 9f, 7f, 3f, 1f};
+
+    @Test
+    void returnsMatchesOrderedByScore() {
+        SuggestionTrie trie = SuggestionTrie.build(KEYS, SCORES, 10);
+
+        assertArrayEquals(new int[]{1, 0, 4}, trie.lookup("cam"));
+        assertArrayEquals(new int[]{1, 0}, trie.lookup("camera"));
+        assertArrayEquals(new int[]{2, 3}, trie.lookup("khoa"));
+    }
+
+    @Test
+    void matchesFromStartOfAnyWord() {
+        SuggestionTrie trie = SuggestionTrie.build(KEYS, SCORES, 10);
+
+        assertArrayEquals(new int[]{2}, trie.lookup("van tay"));
+        assertArrayEquals(new int[]{4}, trie.lookup("khoi"));
+        // Giữa một từ thì không khớp
+        assertArrayEquals(new int[0], trie.lookup("amera"));
+    }
+
+    @Test
+    void keepsOnlyTopKWithoutDuplicates() {
+        String[] keys = {"khoa khoa khoa", "khoa a", "khoa b", "khoa c"};
+        float[] scores = {1f, 4f, 3f, 2f};
+        SuggestionTrie trie = SuggestionTrie.build(keys, scores, 2);
+
+        assertArrayEquals(new int[]{1, 2}, trie.lookup("khoa"));
+        assertArrayEquals(new int[]{0}, trie.lookup("khoa khoa"));
+    }
+
+    @Test
+    void unknownPrefixAndEmptyTrieReturnNothing() {
+        SuggestionTrie trie = SuggestionTrie.build(KEYS, SCORES, 10);
+
+        assertArrayEquals(new int[0], trie.lookup("xyz"));
+        assertArrayEquals(new int[0], SuggestionTrie.empty().lookup("cam"));
+        assertEquals(1, SuggestionTrie.empty().nodeCount());
+    }
+
+    @Test
+    void prefixLongerThanMaxKeyLengthIsTruncated() {
+        String longKey = "a".repeat(SuggestionTrie.MAX_KEY_LENGTH + 10);
+        SuggestionTrie trie = SuggestionTrie.build(new String[]{longKey}, new float[]{1f}, 5);
+
+        assertArrayEquals(new int[]{0}, trie.lookup(longKey));
+    }
+}
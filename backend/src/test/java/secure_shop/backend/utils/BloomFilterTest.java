@@ -0,0 +1,49 @@
+package secure_shop.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsInsertedValueAsMissing() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.put("CODE-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloom.mightContain("CODE-" + i), "CODE-" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.put("CODE-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (bloom.mightContain("MISSING-" + i)) falsePositives++;
+        }
+        // Lý thuyết là 1%; cho phép gấp đôi để test không chập chờn
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void copyDoesNotChangeOriginal() {
+        BloomFilter bloom = new BloomFilter(1_000, 0.001);
+        bloom.put("SUMMER");
+
+        BloomFilter copy = bloom.copy();
+        copy.put("WINTER");
+
+        assertTrue(copy.mightContain("SUMMER"));
+        assertTrue(copy.mightContain("WINTER"));
+        assertFalse(bloom.mightContain("WINTER"));
+    }
+}
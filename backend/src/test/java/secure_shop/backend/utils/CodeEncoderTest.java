@@ -0,0 +1,64 @@
+package secure_shop.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodeEncoderTest {
+
+    @Test
+    void encodeIsBijectionOverWholeSpace() {
+        // 3^5 = 243 không phải lũy thừa của 2 nên cycle-walking được dùng tới
+        CodeEncoder encoder = new CodeEncoder("ABC", 5, "test-secret");
+        assertEquals(243, encoder.space());
+
+        Set<String> codes = new HashSet<>();
+        for (long i = 0; i < encoder.space(); i++) {
+            String code = encoder.encode(i);
+            assertEquals(5, code.length());
+            assertTrue(code.chars().allMatch(c -> "ABC".indexOf(c) >= 0), code);
+            codes.add(code);
+        }
+        assertEquals(encoder.space(), codes.size());
+    }
+
+    @Test
+    void decodeInvertsEncode() {
+        for (String alphabet : new String[]{"01", "XYZ", "23456789ABCDEFGHJKLMNPQRSTUVWXYZ"}) {
+            CodeEncoder encoder = new CodeEncoder(alphabet, 3, "test-secret");
+            for (long i = 0; i < encoder.space(); i++) {
+                assertEquals(i, encoder.decode(encoder.encode(i)));
+            }
+        }
+    }
+
+    @Test
+    void differentSecretsGiveDifferentPermutations() {
+        CodeEncoder first = new CodeEncoder("23456789ABCDEFGHJKLMNPQRSTUVWXYZ", 8, "secret-one");
+        CodeEncoder second = new CodeEncoder("23456789ABCDEFGHJKLMNPQRSTUVWXYZ", 8, "secret-two");
+
+        int same = 0;
+        for (long i = 0; i < 1000; i++) {
+            if (first.encode(i).equals(second.encode(i))) same++;
+        }
+        assertEquals(0, same);
+        assertNotEquals(first.encode(1), first.encode(2));
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        CodeEncoder encoder = new CodeEncoder("ABC", 4, "test-secret");
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(encoder.space()));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(-1));
+        assertThrows(IllegalArgumentException.class, () -> encoder.decode("ABC"));
+        assertThrows(IllegalArgumentException.class, () -> encoder.decode("ABCZ"));
+        assertThrows(IllegalArgumentException.class, () -> new CodeEncoder("AAB", 4, "test-secret"));
+    }
+}
@@ -0,0 +1,70 @@
+package secure_shop.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainRecordsWithAnyLineEnding() throws IOException {
+        List<List<String>> records = readAll("sku,name,price\nA1,Camera,100\r\nA2,Khóa,200\rA3,,300");
+
+        assertEquals(List.of(
+                List.of("sku", "name", "price"),
+                List.of("A1", "Camera", "100"),
+                List.of("A2", "Khóa", "200"),
+                List.of("A3", "", "300")), records);
+    }
+
+    @Test
+    void handlesQuotedFieldsWithCommasNewlinesAndEscapedQuotes() throws IOException {
+        List<List<String>> records = readAll("A1,\"Camera, 4K\",\"dòng 1\ndòng 2\",\"nói \"\"xin chào\"\"\"\n");
+
+        assertEquals(List.of(List.of("A1", "Camera, 4K", "dòng 1\ndòng 2", "nói \"xin chào\"")), records);
+    }
+
+    @Test
+    void skipsByteOrderMarkAndKeepsTrailingEmptyField() throws IOException {
+        List<List<String>> records = readAll("\uFEFFsku,name,\n");
+
+        assertEquals(List.of(List.of("sku", "name", "")), records);
+    }
+
+    @Test
+    void reportsStartLineOfEachRecord() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("h1,h2\n\"a\nb\",c\nd,e\n"))) {
+            reader.readRecord();
+            assertEquals(1, reader.getRecordLine());
+            reader.readRecord();
+            assertEquals(2, reader.getRecordLine());
+            reader.readRecord();
+            assertEquals(4, reader.getRecordLine());
+            assertNull(reader.readRecord());
+        }
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader(""))) {
+            assertNull(reader.readRecord());
+        }
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
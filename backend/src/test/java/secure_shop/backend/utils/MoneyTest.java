@@ -0,0 +1,71 @@
+package secure_shop.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void toMinorRoundsHalfUpAwayFromZero() {
+        assertEquals(101L, Money.toMinor(new BigDecimal("1.005")));
+        assertEquals(100L, Money.toMinor(new BigDecimal("1.004")));
+        assertEquals(-101L, Money.toMinor(new BigDecimal("-1.005")));
+        assertEquals(0L, Money.toMinor(null));
+        assertEquals(new BigDecimal("1.01"), Money.toDecimal(101L));
+    }
+
+    @Test
+    void toMinorRejectsAmountsOutsideLong() {
+        BigDecimal tooLarge = BigDecimal.valueOf(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> Money.toMinor(tooLarge));
+    }
+
+    @Test
+    void percentageRoundsHalfUpIncludingNegativeRemainders() {
+        // 12.5% của 1.00đ = 0.125 -> 0.13 (HALF_UP); của 0.99đ = 0.12375 -> 0.12
+        assertEquals(13L, Money.percentage(100L, 1250L));
+        assertEquals(12L, Money.percentage(99L, 1250L));
+        // Phần dư âm: -0.125 -> -0.13, -0.12375 -> -0.12 (làm tròn ra xa 0 như BigDecimal HALF_UP)
+        assertEquals(-13L, Money.percentage(-100L, 1250L));
+        assertEquals(-12L, Money.percentage(-99L, 1250L));
+        // Đúng nửa ở cả hai phía
+        assertEquals(1L, Money.percentage(1L, 5000L));
+        assertEquals(-1L, Money.percentage(-1L, 5000L));
+    }
+
+    @Test
+    void percentageMatchesBigDecimalHalfUp() {
+        long[] amounts = {0, 1, 7, 99, 12_345, 999_999_999, -1, -7, -12_345};
+        long[] basisPoints = {1, 50, 333, 1250, 5000, 9999, 10_000};
+        for (long amount : amounts) {
+            for (long bp : basisPoints) {
+                long expected = BigDecimal.valueOf(amount)
+                        .multiply(BigDecimal.valueOf(bp))
+                        .divide(BigDecimal.valueOf(10_000), 0, RoundingMode.HALF_UP)
+                        .longValueExact();
+                assertEquals(expected, Money.percentage(amount, bp), amount + " * " + bp);
+            }
+        }
+    }
+
+    @Test
+    void percentageFallsBackToBigDecimalOnOverflow() {
+        long amount = Long.MAX_VALUE / 100;
+        long expected = BigDecimal.valueOf(amount)
+                .multiply(BigDecimal.valueOf(5000))
+                .divide(BigDecimal.valueOf(10_000), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+        assertEquals(expected, Money.percentage(amount, 5000));
+    }
+
+    @Test
+    void timesDetectsOverflow() {
+        assertEquals(300L, Money.times(100L, 3));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+    }
+}